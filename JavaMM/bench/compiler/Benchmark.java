@@ -0,0 +1,94 @@
+package compiler;
+
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Minimal throughput harness in the style of JMH: a number of warmup iterations, then
+ * timed iterations of a fixed length, each counting how many operations complete. Only
+ * the operation itself is timed; its per-invocation setup is not. The bytes allocated by
+ * the operation are counted too, as JMH's gc profiler does, where the JVM can tell.
+ */
+class Benchmark
+{
+    private int warmupIterations;
+    private int iterations;
+    private long iterationNanos;
+    private double[] allocations;
+
+    public Benchmark(int warmupIterations, int iterations, long iterationMillis)
+    {
+        this.warmupIterations = warmupIterations;
+        this.iterations = iterations;
+        this.iterationNanos = iterationMillis * 1000000;
+    }
+
+    //Returns the operations per second of each measured iteration
+    public <T> double[] run(Supplier<T> setup, Consumer<T> operation)
+    {
+        double[] results = new double[iterations];
+
+        allocations = new double[iterations];
+
+        for(int i = 0; i < warmupIterations; i++)
+            iteration(setup, operation, -1);
+
+        for(int i = 0; i < iterations; i++)
+            results[i] = iteration(setup, operation, i);
+
+        return results;
+    }
+
+    //Bytes allocated per operation in each measured iteration of the last run, or NaN
+    public double[] getAllocations()
+    {
+        return allocations;
+    }
+
+    private <T> double iteration(Supplier<T> setup, Consumer<T> operation, int index)
+    {
+        long measured = 0, operations = 0, allocated = 0;
+        long deadline = System.nanoTime() + iterationNanos;
+
+        while(System.nanoTime() < deadline)
+        {
+            T state = setup.get();
+            long startAllocated = PhaseStats.allocatedBytes();
+            long start = System.nanoTime();
+
+            operation.accept(state);
+            measured += System.nanoTime() - start;
+            allocated += PhaseStats.allocatedBytes() - startAllocated;
+            operations++;
+        }
+
+        if(index >= 0)
+            allocations[index] = PhaseStats.allocatedBytes() < 0 ? Double.NaN : (double) allocated / operations;
+
+        return operations / (measured / 1e9);
+    }
+
+    public static double mean(double[] values)
+    {
+        double sum = 0;
+
+        for(double value: values)
+            sum += value;
+
+        return sum / values.length;
+    }
+
+    //Half-width of the 99.9% confidence interval, as JMH reports it (normal approximation)
+    public static double error(double[] values)
+    {
+        if(values.length < 2)
+            return Double.NaN;
+
+        double mean = mean(values), squares = 0;
+
+        for(double value: values)
+            squares += (value - mean) * (value - mean);
+
+        return 3.291 * Math.sqrt(squares / (values.length - 1)) / Math.sqrt(values.length);
+    }
+}
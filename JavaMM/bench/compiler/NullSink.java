@@ -0,0 +1,28 @@
+package compiler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * Destination for benchmark results and output. Values are folded into a volatile field
+ * so the JIT can't drop the work that produced them; text output is discarded.
+ */
+class NullSink
+{
+    private static volatile int sink;
+
+    public static void consume(Object value)
+    {
+        sink ^= System.identityHashCode(value);
+    }
+
+    public static void consume(int value)
+    {
+        sink ^= value;
+    }
+
+    public static PrintStream printStream()
+    {
+        return new PrintStream(OutputStream.nullOutputStream());
+    }
+}
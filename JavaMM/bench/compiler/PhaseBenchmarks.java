@@ -0,0 +1,278 @@
+package compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import syntax.JavaMM;
+import syntax.JavaMMTokenManager;
+import syntax.MappedCharStream;
+import syntax.NameTable;
+import syntax.ParseException;
+import syntax.ParserPool;
+import syntax.SimpleCharStream;
+import syntax.Node;
+import syntax.Token;
+
+/**
+ * Throughput of each compiler phase on its own, over the sample programs or the given
+ * files: tokenizing, from a Reader or a memory-mapped file, parsing, building the symbol tables, the semantic analysis and code
+ * generation with either backend. Every phase starts from the output of the previous
+ * ones, prepared outside the timed operation, and all output goes to a null sink.
+ *
+ * Programs from ProgramGenerator can be benchmarked too, given their knobs with -g, and -a
+ * adds a row with the bytes each operation allocates.
+ *
+ * Usage: PhaseBenchmarks [-w warmup_iterations] [-i iterations] [-t iteration_ms] [-a]
+ *        [-p phase,...] [-g knob=value,...]... [file|dir|@argfile]...
+ */
+class PhaseBenchmarks
+{
+    private static final String[] SAMPLES = {"QuickSort.jmm", "Lazysort.jmm", "MonteCarloPi.jmm", "JVMTest.java",
+        "Turing.jmm", "FindMaximum.jmm"};
+    private static final String[] PHASES = {"tokenize", "mapped", "parse", "symbols", "semantic", "jasmin", "classfile"};
+
+    private static Options options = new Options();
+
+    //Shared by every parse and context, as the symbol tables are keyed by its ids
+    private static NameTable names = new NameTable();
+
+    public static void main(String[] args) throws Exception
+    {
+        int warmup = 5, iterations = 5, iterationMillis = 1000;
+        boolean allocations = false;
+        List<String> phases = Arrays.asList(PHASES);
+        List<File> inputs = new ArrayList<File>();
+        List<String> generated = new ArrayList<String>();
+
+        for(int i = 0; i < args.length; i++)
+        {
+            switch(args[i])
+            {
+                case "-w":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-i":
+                    iterations = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-t":
+                    iterationMillis = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-p":
+                    phases = Arrays.asList(args[++i].split(","));
+                    break;
+
+                case "-g":
+                    generated.add(args[++i]);
+                    break;
+
+                case "-a":
+                    allocations = true;
+                    break;
+
+                default:
+                    if(!Compiler.collectSources(args[i], inputs))
+                        System.exit(1);
+            }
+        }
+
+        if(inputs.isEmpty() && generated.isEmpty())
+        {
+            for(String sample: SAMPLES)
+                inputs.add(new File("src/files", sample));
+        }
+
+        Map<String, String> sources = new LinkedHashMap<String, String>();
+
+        for(File input: inputs)
+            sources.put(input.getName(), new String(Files.readAllBytes(input.toPath())));
+
+        for(String knobs: generated)
+            sources.put("gen:" + knobs, new ProgramGenerator().configure(knobs).generate());
+
+        Benchmark benchmark = new Benchmark(warmup, iterations, iterationMillis);
+
+        System.out.println(String.format("%-10s %-24s %5s %3s %14s   %12s  %s", "Benchmark", "Input", "Mode", "Cnt",
+            "Score", "Error", "Units"));
+
+        for(String phase: phases)
+        {
+            for(Map.Entry<String, String> input: sources.entrySet())
+            {
+                double[] results;
+
+                try
+                {
+                    results = measure(benchmark, phase, input.getValue());
+                }
+                catch(RuntimeException | StackOverflowError e)
+                {
+                    System.out.println(String.format("%-10s %-24s failed: %s", phase, input.getKey(), e.toString()));
+                    continue;
+                }
+
+                System.out.println(String.format("%-10s %-24s %5s %3d %14.3f +- %12.3f  ops/s", phase, input.getKey(),
+                    "thrpt", results.length, Benchmark.mean(results), Benchmark.error(results)));
+
+                if(allocations)
+                {
+                    double[] bytes = benchmark.getAllocations();
+
+                    System.out.println(String.format("%-10s %-24s %5s %3d %14.3f +- %12.3f  B/op", phase, input.getKey(),
+                        "alloc", bytes.length, Benchmark.mean(bytes), Benchmark.error(bytes)));
+                }
+            }
+        }
+    }
+
+    private static double[] measure(Benchmark benchmark, String phase, String source) throws IOException
+    {
+        switch(phase)
+        {
+            case "tokenize":
+                return benchmark.run(() -> source, text -> tokenize(new SimpleCharStream(new StringReader(text))));
+
+            case "mapped":
+            {
+                Path file = Files.createTempFile("bench", ".jmm");
+
+                file.toFile().deleteOnExit();
+                Files.write(file, source.getBytes());
+
+                return benchmark.run(() -> file, path ->
+                {
+                    try
+                    {
+                        SimpleCharStream stream = MappedCharStream.open(path);
+
+                        if(stream == null)
+                            throw new IllegalArgumentException("Not an ASCII source");
+
+                        tokenize(stream);
+                        stream.Done();
+                    }
+                    catch(IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+
+            case "parse":
+                return benchmark.run(() -> source, text -> NullSink.consume(parse(text)));
+
+            case "symbols":
+            {
+                Node root = parse(source);
+
+                return benchmark.run(() -> newContext(), context ->
+                    NullSink.consume(Compiler.buildSymbolTables(context, root)));
+            }
+
+            case "semantic":
+            {
+                Node root = parse(source);
+
+                return benchmark.run(() -> analysed(root, false), context ->
+                    NullSink.consume(new Semantic(context).analyse(root)));
+            }
+
+            case "jasmin":
+            {
+                Node root = parse(source);
+                StringBuilder buffer = new StringBuilder();
+
+                return benchmark.run(() -> analysed(root, true), context ->
+                {
+                    buffer.setLength(0);
+                    new Jasmin(context, new JasminEmitter(buffer)).toJVM(root);
+                    NullSink.consume(buffer.length());
+                });
+            }
+
+            case "classfile":
+            {
+                Node root = parse(source);
+
+                return benchmark.run(() -> analysed(root, true), context ->
+                {
+                    ClassFileEmitter emitter = new ClassFileEmitter(context.className + ".jmm");
+
+                    new Jasmin(context, emitter).toJVM(root);
+                    emitter.endClass();
+                    NullSink.consume(emitter.getClassBytes());
+                });
+            }
+
+            default:
+                throw new IllegalArgumentException("Unknown phase " + phase);
+        }
+    }
+
+    private static void tokenize(SimpleCharStream stream)
+    {
+        JavaMMTokenManager tokens = new JavaMMTokenManager(stream);
+        int count = 0;
+
+        for(Token token = tokens.getNextToken(); token.kind != 0; token = tokens.getNextToken())
+            count++;
+
+        NullSink.consume(count);
+    }
+
+    private static Node parse(String source)
+    {
+        JavaMM parser = ParserPool.acquire(new StringReader(source));
+
+        parser.token_source.names = names;
+
+        try
+        {
+            return parser.Program();
+        }
+        catch(ParseException e)
+        {
+            throw new IllegalArgumentException(e);
+        }
+        finally
+        {
+            ParserPool.release(parser);
+        }
+    }
+
+    private static CompilationContext newContext()
+    {
+        CompilationContext context = new CompilationContext(options, NullSink.printStream());
+
+        context.names = names;
+
+        return context;
+    }
+
+    //A context with the symbol tables built and, if asked, the semantic analysis done
+    private static CompilationContext analysed(Node root, boolean semantic)
+    {
+        CompilationContext context = newContext();
+
+        Compiler.buildSymbolTables(context, root);
+
+        if(semantic)
+        {
+            context.semantic = new Semantic(context);
+            context.semantic.analyse(root);
+        }
+
+        return context;
+    }
+}
@@ -0,0 +1,313 @@
+package compiler;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.Random;
+
+/**
+ * Generates Java-- programs of any size that pass the semantic analysis, for finding how
+ * the compiler scales. The knobs are the number of methods, the statements in each method,
+ * the nesting depth of each expression, the number of fields and the call density, the
+ * chance of any operand being a call to another method. Methods only call the ones after
+ * them, so the programs terminate, although large ones may take long to run.
+ *
+ * Usage: ProgramGenerator [methods=N,statements=N,depth=N,fields=N,calls=D,seed=N] [output]
+ */
+class ProgramGenerator
+{
+    public static final String CLASS_NAME = "Generated";
+
+    private static final String[] LOCALS = {"x0", "x1", "x2", "x3"};
+    private static final String[] OPERATORS = {" + ", " - ", " * "};
+
+    public int methods = 10;
+    public int statements = 20;
+    public int depth = 3;
+    public int fields = 4;
+    public double calls = 0.05;
+    public long seed = 1;
+
+    private Random random;
+    private StringBuilder out;
+    private int method;
+
+    public static void main(String[] args) throws IOException
+    {
+        ProgramGenerator generator = new ProgramGenerator();
+        String output = null;
+
+        for(String arg: args)
+        {
+            if(arg.contains("="))
+                generator.configure(arg);
+            else
+                output = arg;
+        }
+
+        String program = generator.generate();
+
+        if(output == null)
+            System.out.print(program);
+        else
+            Files.write(Paths.get(output), program.getBytes());
+    }
+
+    //Sets the knobs from a list such as "methods=100,depth=5"
+    public ProgramGenerator configure(String spec)
+    {
+        for(String knob: spec.split(","))
+        {
+            String[] pair = knob.split("=", 2);
+
+            if(pair.length != 2)
+                throw new IllegalArgumentException("Expected knob=value, got " + knob);
+
+            set(pair[0].trim(), pair[1].trim());
+        }
+
+        return this;
+    }
+
+    public void set(String knob, String value)
+    {
+        switch(knob)
+        {
+            case "methods":
+                methods = Math.max(1, Integer.parseInt(value));
+                break;
+
+            case "statements":
+                statements = Integer.parseInt(value);
+                break;
+
+            case "depth":
+                depth = Math.max(1, Integer.parseInt(value));
+                break;
+
+            case "fields":
+                fields = Integer.parseInt(value);
+                break;
+
+            case "calls":
+                calls = Double.parseDouble(value);
+                break;
+
+            case "seed":
+                seed = Long.parseLong(value);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unknown knob " + knob);
+        }
+    }
+
+    public String describe()
+    {
+        return "methods=" + methods + ",statements=" + statements + ",depth=" + depth + ",fields=" + fields
+            + ",calls=" + calls + ",seed=" + seed;
+    }
+
+    public String generate()
+    {
+        random = new Random(seed);
+        out = new StringBuilder();
+
+        out.append("class ").append(CLASS_NAME).append(" {\n");
+
+        for(int i = 0; i < fields; i++)
+            out.append("    int f").append(i).append(";\n");
+
+        out.append("\n    public static void main(String[] args) {\n");
+        out.append("        ").append(CLASS_NAME).append(" g;\n\n");
+        out.append("        g = new ").append(CLASS_NAME).append("();\n");
+        out.append("        io.println(g.m0(1, 2));\n");
+        out.append("    }\n");
+
+        for(method = 0; method < methods; method++)
+            method();
+
+        out.append("}\n");
+
+        return out.toString();
+    }
+
+    private void method()
+    {
+        out.append("\n    public int m").append(method).append("(int a, int b) {\n");
+
+        for(String local: LOCALS)
+            out.append("        int ").append(local).append(";\n");
+
+        out.append("        int i;\n        boolean c;\n        int[] v;\n\n");
+
+        //Everything is initialized up front, as the semantic analysis requires
+        for(String local: LOCALS)
+            out.append("        ").append(local).append(" = a;\n");
+
+        out.append("        c = a < b;\n        v = new int[8];\n");
+
+        for(int count = 0; count < statements; )
+            count += statement();
+
+        out.append("        return ");
+        expression(depth);
+        out.append(";\n    }\n");
+    }
+
+    //Writes one statement and returns how many simple statements it holds
+    private int statement()
+    {
+        int kind = random.nextInt(10);
+
+        switch(kind)
+        {
+            case 0:
+                out.append("        if (");
+                condition();
+                out.append(") {\n    ");
+                simpleStatement();
+                out.append("        } else {\n    ");
+                simpleStatement();
+                out.append("        }\n");
+                return 2;
+
+            case 1:
+                //Only the loop's own counter assigns i, so the loop always ends
+                out.append("        i = 0;\n        while (i < ").append(1 + random.nextInt(8)).append(") {\n    ");
+                simpleStatement();
+                out.append("            i = i + 1;\n        }\n");
+                return 3;
+
+            case 2:
+                out.append("        c = ");
+                condition();
+                out.append(";\n");
+                return 1;
+
+            default:
+                simpleStatement();
+                return 1;
+        }
+    }
+
+    private void simpleStatement()
+    {
+        int kind = random.nextInt(8);
+
+        out.append("        ");
+
+        if(kind == 0 && fields > 0)
+            out.append('f').append(random.nextInt(fields)).append(" = ");
+        else if(kind == 1)
+            out.append("v[").append(random.nextInt(8)).append("] = ");
+        else if(kind == 2 && random.nextDouble() < calls && method < methods - 1)
+        {
+            call();
+            out.append(";\n");
+            return;
+        }
+        else
+            out.append(LOCALS[random.nextInt(LOCALS.length)]).append(" = ");
+
+        expression(depth);
+        out.append(";\n");
+    }
+
+    private void condition()
+    {
+        switch(random.nextInt(3))
+        {
+            case 0:
+                out.append('c');
+                break;
+
+            case 1:
+                out.append("!(");
+                operand(true);
+                out.append(" < ");
+                operand(true);
+                out.append(')');
+                break;
+
+            default:
+                operand(true);
+                out.append(" < ");
+                expression(Math.min(depth, 2));
+        }
+    }
+
+    //A chain of operations nested depth levels deep, written iteratively so that any
+    //depth can be generated: a + (b * (c - ... (y + z)))
+    private void expression(int depth)
+    {
+        for(int i = 1; i < depth; i++)
+        {
+            operand(true);
+            out.append(OPERATORS[random.nextInt(OPERATORS.length)]).append('(');
+        }
+
+        operand(true);
+
+        if(random.nextInt(4) == 0)
+            out.append(" / ").append(1 + random.nextInt(9));
+        else
+        {
+            out.append(OPERATORS[random.nextInt(OPERATORS.length)]);
+            operand(true);
+        }
+
+        for(int i = 1; i < depth; i++)
+            out.append(')');
+    }
+
+    private void operand(boolean mayCall)
+    {
+        if(mayCall && method < methods - 1 && random.nextDouble() < calls)
+        {
+            call();
+            return;
+        }
+
+        int choice = random.nextInt(6);
+
+        switch(choice)
+        {
+            case 0:
+                out.append(random.nextInt(1000));
+                break;
+
+            case 1:
+                out.append(random.nextBoolean() ? 'a' : 'b');
+                break;
+
+            //A program without fields reads an array element instead
+            case 2:
+            case 3:
+                if(choice == 2 && fields > 0)
+                    out.append('f').append(random.nextInt(fields));
+                else
+                    out.append("v[").append(random.nextInt(8)).append(']');
+
+                break;
+
+            case 4:
+                out.append("v.length");
+                break;
+
+            default:
+                out.append(LOCALS[random.nextInt(LOCALS.length)]);
+        }
+    }
+
+    private void call()
+    {
+        int callee = method + 1 + random.nextInt(methods - method - 1);
+
+        out.append("this.m").append(callee).append('(');
+        operand(false);
+        out.append(", ");
+        operand(false);
+        out.append(')');
+    }
+}
@@ -0,0 +1,248 @@
+package compiler;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compile time and memory of generated programs of growing size, to find where the
+ * compiler stops scaling linearly. One knob of the generator is stepped through the given
+ * sizes while the others keep their base values; every program is compiled in memory from
+ * source to output, and the best time of a few repetitions is kept. Time per KB of source
+ * that grows with the size ("growth" above 1) points at superlinear behaviour.
+ *
+ * Usage: ScalingBenchmark [-x knob] [-n size,...] [-g base_knobs] [-b jasmin|class|classfile]
+ *        [-w warmup] [-r repetitions] [-flat] [-csv]
+ */
+class ScalingBenchmark
+{
+    private static final int BAR_WIDTH = 40;
+
+    private static class Row
+    {
+        int size;
+        int lines;
+        int bytes;
+        long nanos = -1;
+        long allocated;
+        long peakHeap;
+        String failure;
+    }
+
+    public static void main(String[] args) throws Exception
+    {
+        String knob = "methods", base = "", backend = "jasmin";
+        String[] sizes = {"10", "100", "1000", "10000"};
+        int warmup = 3, repetitions = 3;
+        boolean csv = false, flat = false;
+
+        for(int i = 0; i < args.length; i++)
+        {
+            switch(args[i])
+            {
+                case "-x":
+                    knob = args[++i];
+                    break;
+
+                case "-n":
+                    sizes = args[++i].split(",");
+                    break;
+
+                case "-g":
+                    base = args[++i];
+                    break;
+
+                case "-b":
+                    backend = args[++i];
+                    break;
+
+                case "-w":
+                    warmup = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-r":
+                    repetitions = Integer.parseInt(args[++i]);
+                    break;
+
+                case "-flat":
+                    flat = true;
+                    break;
+
+                case "-csv":
+                    csv = true;
+                    break;
+
+                default:
+                    System.out.println("Unknown option " + args[i]);
+                    System.exit(1);
+            }
+        }
+
+        Options options = new Options();
+
+        options.emitClass = !backend.equals("jasmin");
+        options.directBackend = backend.equals("classfile");
+        options.flatTree = flat;
+
+        //Warms the compiler up on a small program, so the first size isn't measured cold
+        String small = generator(base).generate();
+
+        for(int i = 0; i < warmup; i++)
+            JmmCompiler.compile(small, options);
+
+        List<Row> rows = new ArrayList<Row>();
+
+        for(String size: sizes)
+        {
+            ProgramGenerator generator = generator(base);
+
+            generator.set(knob, size);
+            System.err.println("Measuring " + generator.describe());
+
+            String source = generator.generate();
+            Row row = new Row();
+
+            row.size = Integer.parseInt(size);
+            row.bytes = source.length();
+            row.lines = source.split("\n", -1).length - 1;
+            measure(row, source, options, repetitions);
+            rows.add(row);
+        }
+
+        if(csv)
+            printCsv(knob, rows);
+        else
+            printTable(knob, rows);
+    }
+
+    private static ProgramGenerator generator(String base)
+    {
+        ProgramGenerator generator = new ProgramGenerator();
+
+        if(!base.isEmpty())
+            generator.configure(base);
+
+        return generator;
+    }
+
+    private static void measure(Row row, String source, Options options, int repetitions)
+    {
+        for(int i = 0; i < repetitions; i++)
+        {
+            System.gc();
+            resetPeakHeap();
+
+            long allocated = PhaseStats.allocatedBytes();
+            long start = System.nanoTime();
+            CompilationResult result;
+
+            try
+            {
+                result = JmmCompiler.compile(source, options);
+            }
+            catch(StackOverflowError e)
+            {
+                row.failure = "stack overflow";
+                return;
+            }
+            catch(RuntimeException e)
+            {
+                row.failure = e.toString();
+                return;
+            }
+
+            long elapsed = System.nanoTime() - start;
+
+            if(!result.isSuccess())
+            {
+                row.failure = result.getDiagnostics().isEmpty() ? "compilation failed"
+                    : result.getDiagnostics().get(0).toString();
+                return;
+            }
+
+            NullSink.consume(result);
+
+            if(row.nanos < 0 || elapsed < row.nanos)
+            {
+                row.nanos = elapsed;
+                row.allocated = allocated < 0 ? -1 : PhaseStats.allocatedBytes() - allocated;
+                row.peakHeap = peakHeap();
+            }
+        }
+    }
+
+    private static void resetPeakHeap()
+    {
+        for(MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if(pool.getType() == MemoryType.HEAP)
+                pool.resetPeakUsage();
+        }
+    }
+
+    //Sum of the peak usage of every heap pool since the last reset
+    private static long peakHeap()
+    {
+        long peak = 0;
+
+        for(MemoryPoolMXBean pool: ManagementFactory.getMemoryPoolMXBeans())
+        {
+            if(pool.getType() == MemoryType.HEAP)
+                peak += pool.getPeakUsage().getUsed();
+        }
+
+        return peak;
+    }
+
+    private static void printCsv(String knob, List<Row> rows)
+    {
+        System.out.println(knob + ",lines,bytes,time_ms,allocated_bytes,peak_heap_bytes,failure");
+
+        for(Row row: rows)
+        {
+            System.out.println(row.size + "," + row.lines + "," + row.bytes + ","
+                + (row.failure == null ? String.format("%.3f", row.nanos / 1e6) : "") + ","
+                + (row.failure == null ? row.allocated : "") + "," + (row.failure == null ? row.peakHeap : "") + ","
+                + (row.failure == null ? "" : row.failure));
+        }
+    }
+
+    private static void printTable(String knob, List<Row> rows)
+    {
+        long maxNanos = 1;
+        double firstPerKB = -1;
+
+        for(Row row: rows)
+            maxNanos = Math.max(maxNanos, row.nanos);
+
+        System.out.println(String.format("%10s %9s %10s %11s %9s %8s %12s %12s  %s", knob, "lines", "KB", "time (ms)",
+            "us/KB", "growth", "alloc (MB)", "peak (MB)", "time"));
+
+        for(Row row: rows)
+        {
+            String prefix = String.format("%10d %9d %10.1f", row.size, row.lines, row.bytes / 1024.0);
+
+            if(row.failure != null)
+            {
+                System.out.println(prefix + "  failed: " + row.failure);
+                continue;
+            }
+
+            double perKB = row.nanos / 1e3 / (row.bytes / 1024.0);
+
+            if(firstPerKB < 0)
+                firstPerKB = perKB;
+
+            StringBuilder bar = new StringBuilder();
+
+            for(int i = 0; i < Math.max(1, row.nanos * BAR_WIDTH / maxNanos); i++)
+                bar.append('#');
+
+            System.out.println(String.format("%s %11.3f %9.1f %8.2f %12s %12.1f  %s", prefix, row.nanos / 1e6, perKB,
+                perKB / firstPerKB, row.allocated < 0 ? "n/a" : String.format("%.1f", row.allocated / 1048576.0),
+                row.peakHeap / 1048576.0, bar));
+        }
+    }
+}
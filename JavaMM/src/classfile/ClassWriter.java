@@ -0,0 +1,106 @@
+package classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Builds a class file: constant pool, field and method tables and the bytecode of each
+ * method, without going through an assembler.
+ */
+public class ClassWriter implements Opcodes
+{
+    private static final int MAGIC = 0xCAFEBABE;
+    private static final int MAJOR_VERSION = 52;
+
+    private ConstantPool constantPool;
+    private String className;
+    private int thisClass;
+    private int superClass;
+    private int sourceFile;
+    private List<int[]> fields;
+    private List<MethodWriter> methods;
+
+    public ClassWriter(String className, String superName, String sourceName)
+    {
+        this.constantPool = new ConstantPool();
+        this.className = className;
+        this.thisClass = constantPool.classRef(className);
+        this.superClass = constantPool.classRef(superName);
+        this.sourceFile = sourceName == null ? 0 : constantPool.utf8(sourceName);
+        this.fields = new ArrayList<int[]>();
+        this.methods = new ArrayList<MethodWriter>();
+    }
+
+    public void field(int access, String name, String descriptor)
+    {
+        fields.add(new int[] {access, constantPool.utf8(name), constantPool.utf8(descriptor)});
+    }
+
+    public MethodWriter method(int access, String name, String descriptor)
+    {
+        MethodWriter method = new MethodWriter(constantPool, className, access, name, descriptor);
+
+        methods.add(method);
+
+        return method;
+    }
+
+    public byte[] toByteArray()
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        try
+        {
+            ByteArrayOutputStream body = new ByteArrayOutputStream();
+            DataOutputStream bodyOut = new DataOutputStream(body);
+            int sourceFileAttribute = sourceFile == 0 ? 0 : constantPool.utf8("SourceFile");
+
+            //Methods are written first, as resolving them may still add constants
+            bodyOut.writeShort(methods.size());
+
+            for(MethodWriter method: methods)
+                method.write(bodyOut);
+
+            out.writeInt(MAGIC);
+            out.writeShort(0);
+            out.writeShort(MAJOR_VERSION);
+            constantPool.write(out);
+            out.writeShort(ACC_PUBLIC | ACC_SUPER);
+            out.writeShort(thisClass);
+            out.writeShort(superClass);
+            out.writeShort(0); //Interfaces
+
+            out.writeShort(fields.size());
+
+            for(int[] field: fields)
+            {
+                out.writeShort(field[0]);
+                out.writeShort(field[1]);
+                out.writeShort(field[2]);
+                out.writeShort(0);
+            }
+
+            body.writeTo(out);
+
+            if(sourceFile == 0)
+                out.writeShort(0);
+            else
+            {
+                out.writeShort(1);
+                out.writeShort(sourceFileAttribute);
+                out.writeInt(2);
+                out.writeShort(sourceFile);
+            }
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        return bytes.toByteArray();
+    }
+}
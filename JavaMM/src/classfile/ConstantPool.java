@@ -0,0 +1,152 @@
+package classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.HashMap;
+
+/**
+ * Constant pool of a class file. Every entry is added once and written as soon as it is
+ * created, so the pool is already serialized when the class is.
+ */
+public class ConstantPool
+{
+    private static final int UTF8 = 1;
+    private static final int INTEGER = 3;
+    private static final int CLASS = 7;
+    private static final int FIELDREF = 9;
+    private static final int METHODREF = 10;
+    private static final int NAME_AND_TYPE = 12;
+
+    private HashMap<String, Integer> entries;
+    private ByteArrayOutputStream bytes;
+    private DataOutputStream pool;
+    private int count;
+
+    public ConstantPool()
+    {
+        this.entries = new HashMap<String, Integer>();
+        this.bytes = new ByteArrayOutputStream();
+        this.pool = new DataOutputStream(bytes);
+        this.count = 1;
+    }
+
+    public int utf8(String value)
+    {
+        Integer index = entries.get("U" + value);
+
+        if(index != null)
+            return index;
+
+        try
+        {
+            pool.writeByte(UTF8);
+            pool.writeUTF(value);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        return add("U" + value);
+    }
+
+    public int integer(int value)
+    {
+        Integer index = entries.get("I" + value);
+
+        if(index != null)
+            return index;
+
+        write(INTEGER, value >>> 16, value & 0xFFFF);
+
+        return add("I" + value);
+    }
+
+    public int classRef(String name)
+    {
+        Integer index = entries.get("C" + name);
+
+        if(index != null)
+            return index;
+
+        int nameIndex = utf8(name);
+
+        write(CLASS, nameIndex, -1);
+
+        return add("C" + name);
+    }
+
+    public int nameAndType(String name, String descriptor)
+    {
+        String key = "N" + name + ":" + descriptor;
+        Integer index = entries.get(key);
+
+        if(index != null)
+            return index;
+
+        int nameIndex = utf8(name), descriptorIndex = utf8(descriptor);
+
+        write(NAME_AND_TYPE, nameIndex, descriptorIndex);
+
+        return add(key);
+    }
+
+    public int fieldRef(String owner, String name, String descriptor)
+    {
+        return memberRef(FIELDREF, owner, name, descriptor);
+    }
+
+    public int methodRef(String owner, String name, String descriptor)
+    {
+        return memberRef(METHODREF, owner, name, descriptor);
+    }
+
+    private int memberRef(int tag, String owner, String name, String descriptor)
+    {
+        String key = tag + owner + "." + name + ":" + descriptor;
+        Integer index = entries.get(key);
+
+        if(index != null)
+            return index;
+
+        int classIndex = classRef(owner), nameAndTypeIndex = nameAndType(name, descriptor);
+
+        write(tag, classIndex, nameAndTypeIndex);
+
+        return add(key);
+    }
+
+    //Writes a tag followed by one or two u2 values (second skipped when negative)
+    private void write(int tag, int first, int second)
+    {
+        try
+        {
+            pool.writeByte(tag);
+            pool.writeShort(first);
+
+            if(second >= 0)
+                pool.writeShort(second);
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private int add(String key)
+    {
+        if(count == 0xFFFF)
+            throw new IllegalStateException("Constant pool is full");
+
+        entries.put(key, count);
+
+        return count++;
+    }
+
+    public void write(DataOutputStream out) throws IOException
+    {
+        out.writeShort(count);
+        bytes.writeTo(out);
+    }
+}
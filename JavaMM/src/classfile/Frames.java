@@ -0,0 +1,532 @@
+package classfile;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+import classfile.MethodWriter.Instruction;
+
+/**
+ * Computes the stack map frames and the maximum stack depth of a method by a dataflow
+ * analysis of its instructions, in the same way the type checking verifier does.
+ *
+ * Types are kept as strings: "T" (top), "I" (int), "UT" (uninitialized this),
+ * "U<offset>" (object created by the new at that offset, not yet initialized) and
+ * field descriptors for references ("LFoo;", "[I").
+ */
+class Frames implements Opcodes
+{
+    private String className;
+    private String name;
+    private String descriptor;
+    private boolean isStatic;
+    private int maxLocals;
+    private List<Instruction> instructions;
+    private int length;
+
+    private HashMap<Integer, Integer> indexes;
+    private State[] states;
+    private ArrayDeque<Integer> worklist;
+    private int maxStack;
+
+    private static class State
+    {
+        String[] locals;
+        String[] stack;
+        int top;
+
+        State(int maxLocals)
+        {
+            locals = new String[maxLocals];
+            stack = new String[4];
+            Arrays.fill(locals, "T");
+        }
+
+        State(State state)
+        {
+            locals = state.locals.clone();
+            stack = state.stack.clone();
+            top = state.top;
+        }
+    }
+
+    public Frames(String className, String name, String descriptor, boolean isStatic, int maxLocals,
+        List<Instruction> instructions, int length)
+    {
+        this.className = className;
+        this.name = name;
+        this.descriptor = descriptor;
+        this.isStatic = isStatic;
+        this.maxLocals = maxLocals;
+        this.instructions = instructions;
+        this.length = length;
+    }
+
+    public int getMaxStack()
+    {
+        return maxStack;
+    }
+
+    //Returns the StackMapTable attribute contents, or null if the method needs no frames.
+    //Unreachable code is replaced in place by nops ending in athrow, as the verifier still
+    //checks it and no frame can describe it.
+    public byte[] compute(byte[] code, ConstantPool constantPool)
+    {
+        int n = instructions.size();
+
+        indexes = new HashMap<Integer, Integer>();
+        states = new State[n];
+        worklist = new ArrayDeque<Integer>();
+        maxStack = 0;
+
+        for(int i = 0; i < n; i++)
+            indexes.put(instructions.get(i).offset, i);
+
+        if(n == 0)
+            return null;
+
+        merge(0, initialState());
+
+        while(!worklist.isEmpty())
+        {
+            int i = worklist.poll();
+            Instruction instruction = instructions.get(i);
+            State state = new State(states[i]);
+
+            execute(instruction, state);
+
+            if(instruction.label != null)
+                merge(target(instruction), state);
+
+            if(!isUnconditional(instruction.opcode))
+            {
+                if(i + 1 == n)
+                    throw new IllegalStateException("Code falls off the end of " + name + descriptor);
+
+                merge(i + 1, state);
+            }
+        }
+
+        boolean[] targets = new boolean[n];
+
+        for(int i = 0; i < n; i++)
+        {
+            Instruction instruction = instructions.get(i);
+
+            if(states[i] != null && instruction.label != null)
+                targets[target(instruction)] = true;
+        }
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        String[] previous = trim(initialState().locals);
+        int previousOffset = -1, frames = 0;
+
+        try
+        {
+            for(int i = 0; i < n; i++)
+            {
+                Instruction instruction = instructions.get(i);
+                boolean afterJump = i > 0 && (isUnconditional(instructions.get(i - 1).opcode) || states[i - 1] == null);
+                String[] locals, stack;
+
+                if(states[i] == null)
+                {
+                    int end = i + 1 < n ? instructions.get(i + 1).offset : length;
+
+                    Arrays.fill(code, instruction.offset, end - 1, (byte) NOP);
+                    code[end - 1] = (byte) ATHROW;
+
+                    if(i > 0 && states[i - 1] == null)
+                        continue;
+
+                    maxStack = Math.max(maxStack, 1);
+                    locals = new String[0];
+                    stack = new String[] {"Ljava/lang/Throwable;"};
+                }
+                else if(targets[i] || afterJump)
+                {
+                    locals = trim(states[i].locals);
+                    stack = Arrays.copyOf(states[i].stack, states[i].top);
+                }
+                else
+                    continue;
+
+                writeFrame(out, constantPool, instruction.offset - previousOffset - 1, previous, locals, stack);
+                previous = locals;
+                previousOffset = instruction.offset;
+                frames++;
+            }
+        }
+        catch(IOException e)
+        {
+            throw new IllegalStateException(e);
+        }
+
+        if(frames == 0)
+            return null;
+
+        byte[] entries = bytes.toByteArray();
+        byte[] table = new byte[entries.length + 2];
+
+        table[0] = (byte) (frames >> 8);
+        table[1] = (byte) frames;
+        System.arraycopy(entries, 0, table, 2, entries.length);
+
+        return table;
+    }
+
+    private State initialState()
+    {
+        State state = new State(maxLocals);
+        int local = 0;
+
+        if(!isStatic)
+            state.locals[local++] = name.equals("<init>") ? "UT" : "L" + className + ";";
+
+        for(int i = 1; descriptor.charAt(i) != ')'; i++)
+        {
+            int start = i;
+
+            while(descriptor.charAt(i) == '[')
+                i++;
+
+            if(descriptor.charAt(i) == 'L')
+                i = descriptor.indexOf(';', i);
+
+            state.locals[local++] = typeOf(descriptor.substring(start, i + 1));
+        }
+
+        return state;
+    }
+
+    private void execute(Instruction instruction, State state)
+    {
+        switch(instruction.opcode)
+        {
+            case ICONST_M1:
+            case ICONST_0:
+            case ICONST_1:
+            case ICONST_2:
+            case ICONST_3:
+            case ICONST_4:
+            case ICONST_5:
+            case BIPUSH:
+            case SIPUSH:
+            case LDC:
+            case LDC_W:
+            case ILOAD:
+                push(state, "I");
+                break;
+
+            case ALOAD:
+                push(state, state.locals[instruction.operand]);
+                break;
+
+            case ISTORE:
+            case ASTORE:
+                state.locals[instruction.operand] = pop(state, instruction);
+                break;
+
+            case IALOAD:
+            case IADD:
+            case ISUB:
+            case IMUL:
+            case IDIV:
+                pop(state, instruction);
+                pop(state, instruction);
+                push(state, "I");
+                break;
+
+            case IASTORE:
+                pop(state, instruction);
+                pop(state, instruction);
+                pop(state, instruction);
+                break;
+
+            case POP:
+            case IFEQ:
+            case IFNE:
+            case IRETURN:
+            case ARETURN:
+                pop(state, instruction);
+                break;
+
+            case IF_ICMPLT:
+            case IF_ICMPGE:
+                pop(state, instruction);
+                pop(state, instruction);
+                break;
+
+            case DUP:
+                push(state, state.stack[state.top - 1]);
+                break;
+
+            case GOTO:
+            case RETURN:
+                break;
+
+            case NEW:
+                push(state, "U" + instruction.offset);
+                break;
+
+            case NEWARRAY:
+                pop(state, instruction);
+                push(state, "[I");
+                break;
+
+            case ARRAYLENGTH:
+                pop(state, instruction);
+                push(state, "I");
+                break;
+
+            case GETFIELD:
+                pop(state, instruction);
+                push(state, typeOf(instruction.descriptor));
+                break;
+
+            case PUTFIELD:
+                pop(state, instruction);
+                pop(state, instruction);
+                break;
+
+            case INVOKEVIRTUAL:
+            case INVOKESPECIAL:
+            case INVOKESTATIC:
+                invoke(instruction, state);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported opcode " + instruction.opcode);
+        }
+    }
+
+    private void invoke(Instruction instruction, State state)
+    {
+        for(int i = MethodWriter.argumentSlots(instruction.descriptor); i > 0; i--)
+            pop(state, instruction);
+
+        if(instruction.opcode != INVOKESTATIC)
+        {
+            String receiver = pop(state, instruction);
+
+            //A constructor call initializes every copy of the object
+            if(instruction.opcode == INVOKESPECIAL && instruction.name.equals("<init>") && receiver.startsWith("U"))
+            {
+                String initialized = "L" + (receiver.equals("UT") ? className : instruction.owner) + ";";
+
+                replace(state.locals, state.locals.length, receiver, initialized);
+                replace(state.stack, state.top, receiver, initialized);
+            }
+        }
+
+        String returnType = instruction.descriptor.substring(instruction.descriptor.indexOf(')') + 1);
+
+        if(!returnType.equals("V"))
+            push(state, typeOf(returnType));
+    }
+
+    private void merge(int index, State state)
+    {
+        State current = states[index];
+
+        if(current == null)
+        {
+            states[index] = new State(state);
+            worklist.add(index);
+            return;
+        }
+
+        if(current.top != state.top)
+            throw new IllegalStateException("Inconsistent stack height at offset "
+                + instructions.get(index).offset + " in " + name + descriptor);
+
+        boolean changed = false;
+
+        for(int i = 0; i < current.locals.length; i++)
+        {
+            String type = mergeTypes(current.locals[i], state.locals[i]);
+
+            changed |= !type.equals(current.locals[i]);
+            current.locals[i] = type;
+        }
+
+        for(int i = 0; i < current.top; i++)
+        {
+            String type = mergeTypes(current.stack[i], state.stack[i]);
+
+            if(type.equals("T"))
+                throw new IllegalStateException("Inconsistent stack types at offset "
+                    + instructions.get(index).offset + " in " + name + descriptor);
+
+            changed |= !type.equals(current.stack[i]);
+            current.stack[i] = type;
+        }
+
+        if(changed && !worklist.contains(index))
+            worklist.add(index);
+    }
+
+    private static String mergeTypes(String first, String second)
+    {
+        if(first.equals(second))
+            return first;
+
+        if(isReference(first) && isReference(second))
+            return "Ljava/lang/Object;";
+
+        return "T";
+    }
+
+    private static boolean isReference(String type)
+    {
+        return type.startsWith("L") || type.startsWith("[");
+    }
+
+    private static String typeOf(String descriptor)
+    {
+        switch(descriptor.charAt(0))
+        {
+            case 'Z':
+            case 'B':
+            case 'C':
+            case 'S':
+            case 'I':
+                return "I";
+
+            case 'L':
+            case '[':
+                return descriptor;
+
+            default:
+                throw new IllegalArgumentException("Unsupported type " + descriptor);
+        }
+    }
+
+    private int target(Instruction instruction)
+    {
+        Integer index = indexes.get(instruction.target);
+
+        if(index == null)
+            throw new IllegalStateException("Label " + instruction.label + " is not followed by an instruction");
+
+        return index;
+    }
+
+    private static boolean isUnconditional(int opcode)
+    {
+        return opcode == GOTO || opcode == IRETURN || opcode == ARETURN || opcode == RETURN;
+    }
+
+    private void push(State state, String type)
+    {
+        if(state.top == state.stack.length)
+            state.stack = Arrays.copyOf(state.stack, state.top * 2);
+
+        state.stack[state.top++] = type;
+        maxStack = Math.max(maxStack, state.top);
+    }
+
+    private String pop(State state, Instruction instruction)
+    {
+        if(state.top == 0)
+            throw new IllegalStateException("Stack underflow at offset " + instruction.offset + " in " + name + descriptor);
+
+        return state.stack[--state.top];
+    }
+
+    private static void replace(String[] types, int count, String type, String replacement)
+    {
+        for(int i = 0; i < count; i++)
+            if(types[i].equals(type))
+                types[i] = replacement;
+    }
+
+    //Trailing tops are implicit in a frame
+    private static String[] trim(String[] locals)
+    {
+        int count = locals.length;
+
+        while(count > 0 && locals[count - 1].equals("T"))
+            count--;
+
+        return Arrays.copyOf(locals, count);
+    }
+
+    private static void writeFrame(DataOutputStream out, ConstantPool constantPool, int delta, String[] previous,
+        String[] locals, String[] stack) throws IOException
+    {
+        if(Arrays.equals(previous, locals) && stack.length == 0)
+        {
+            if(delta < 64)
+                out.writeByte(delta);
+            else
+            {
+                out.writeByte(251);
+                out.writeShort(delta);
+            }
+
+            return;
+        }
+
+        if(Arrays.equals(previous, locals) && stack.length == 1)
+        {
+            if(delta < 64)
+                out.writeByte(64 + delta);
+            else
+            {
+                out.writeByte(247);
+                out.writeShort(delta);
+            }
+
+            writeType(out, constantPool, stack[0]);
+            return;
+        }
+
+        out.writeByte(255);
+        out.writeShort(delta);
+        out.writeShort(locals.length);
+
+        for(String type: locals)
+            writeType(out, constantPool, type);
+
+        out.writeShort(stack.length);
+
+        for(String type: stack)
+            writeType(out, constantPool, type);
+    }
+
+    private static void writeType(DataOutputStream out, ConstantPool constantPool, String type) throws IOException
+    {
+        switch(type)
+        {
+            case "T":
+                out.writeByte(0);
+                break;
+
+            case "I":
+                out.writeByte(1);
+                break;
+
+            case "UT":
+                out.writeByte(6);
+                break;
+
+            default:
+                if(type.startsWith("U"))
+                {
+                    out.writeByte(8);
+                    out.writeShort(Integer.parseInt(type.substring(1)));
+                }
+                else
+                {
+                    out.writeByte(7);
+                    out.writeShort(constantPool.classRef(type.startsWith("L") ? type.substring(1, type.length() - 1) : type));
+                }
+        }
+    }
+}
@@ -0,0 +1,325 @@
+package classfile;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+
+/**
+ * Bytecode of a single method. Branches may target labels that are placed later; their
+ * offsets are resolved when the method is finished, and the maximum stack depth and the
+ * stack map frames are then computed from the emitted instructions.
+ */
+public class MethodWriter implements Opcodes
+{
+    private ConstantPool constantPool;
+    private String className;
+    private int access;
+    private String name;
+    private String descriptor;
+
+    private byte[] code;
+    private int length;
+
+    private List<Instruction> instructions;
+    private HashMap<String, Integer> labels;
+    private int maxLocals;
+
+    //An emitted instruction, as needed to compute the frames
+    static class Instruction
+    {
+        int offset;
+        int opcode;
+        int operand;
+        String label;
+        int target;
+        String owner;
+        String name;
+        String descriptor;
+
+        Instruction(int offset, int opcode, int operand)
+        {
+            this.offset = offset;
+            this.opcode = opcode;
+            this.operand = operand;
+        }
+    }
+
+    public MethodWriter(ConstantPool constantPool, String className, int access, String name, String descriptor)
+    {
+        this.constantPool = constantPool;
+        this.className = className;
+        this.access = access;
+        this.name = name;
+        this.descriptor = descriptor;
+
+        this.code = new byte[256];
+        this.length = 0;
+
+        this.instructions = new ArrayList<Instruction>();
+        this.labels = new HashMap<String, Integer>();
+        this.maxLocals = argumentSlots(descriptor) + (isStatic() ? 0 : 1);
+    }
+
+    public void instruction(int opcode)
+    {
+        switch(opcode)
+        {
+            case ICONST_M1:
+            case ICONST_0:
+            case ICONST_1:
+            case ICONST_2:
+            case ICONST_3:
+            case ICONST_4:
+            case ICONST_5:
+            case DUP:
+            case IALOAD:
+            case POP:
+            case IADD:
+            case ISUB:
+            case IMUL:
+            case IDIV:
+            case IASTORE:
+            case IRETURN:
+            case ARETURN:
+            case RETURN:
+            case ARRAYLENGTH:
+                add(opcode, 0);
+                putByte(opcode);
+                break;
+
+            default:
+                throw new IllegalArgumentException("Unsupported opcode " + opcode);
+        }
+    }
+
+    //bipush, sipush and newarray
+    public void intInstruction(int opcode, int operand)
+    {
+        add(opcode, operand);
+        putByte(opcode);
+
+        if(opcode == SIPUSH)
+            putShort(operand);
+        else
+            putByte(operand);
+    }
+
+    public void constant(int value)
+    {
+        int index = constantPool.integer(value);
+
+        if(index < 256)
+        {
+            add(LDC, value);
+            putByte(LDC);
+            putByte(index);
+        }
+        else
+        {
+            add(LDC_W, value);
+            putByte(LDC_W);
+            putShort(index);
+        }
+    }
+
+    //iload, istore, aload and astore, using the short forms for the first four locals and
+    //a wide prefix with a two byte index past the first 256
+    public void varInstruction(int opcode, int index)
+    {
+        if(index < 0 || index > 0xFFFF)
+            throw new IllegalStateException("Local variable " + index + " is out of range");
+
+        add(opcode, index);
+
+        if(index <= 3)
+        {
+            switch(opcode)
+            {
+                case ILOAD:
+                    putByte(ILOAD_0 + index);
+                    break;
+
+                case ALOAD:
+                    putByte(ALOAD_0 + index);
+                    break;
+
+                case ISTORE:
+                    putByte(ISTORE_0 + index);
+                    break;
+
+                default:
+                    putByte(ASTORE_0 + index);
+            }
+        }
+        else if(index <= 0xFF)
+        {
+            putByte(opcode);
+            putByte(index);
+        }
+        else
+        {
+            putByte(WIDE);
+            putByte(opcode);
+            putShort(index);
+        }
+
+        maxLocals = Math.max(maxLocals, index + 1);
+    }
+
+    public void jumpInstruction(int opcode, String label)
+    {
+        add(opcode, 0).label = label;
+        putByte(opcode);
+        putShort(0);
+    }
+
+    public void label(String label)
+    {
+        if(labels.containsKey(label))
+            throw new IllegalStateException("Duplicate label " + label);
+
+        labels.put(label, length);
+    }
+
+    //new
+    public void typeInstruction(int opcode, String className)
+    {
+        add(opcode, 0).owner = className;
+        putByte(opcode);
+        putShort(constantPool.classRef(className));
+    }
+
+    public void fieldInstruction(int opcode, String owner, String name, String descriptor)
+    {
+        member(add(opcode, 0), owner, name, descriptor);
+        putByte(opcode);
+        putShort(constantPool.fieldRef(owner, name, descriptor));
+    }
+
+    public void methodInstruction(int opcode, String owner, String name, String descriptor)
+    {
+        member(add(opcode, 0), owner, name, descriptor);
+        putByte(opcode);
+        putShort(constantPool.methodRef(owner, name, descriptor));
+    }
+
+    public int getLength()
+    {
+        return length;
+    }
+
+    public void write(DataOutputStream out) throws IOException
+    {
+        //The code_length of a method is limited to 65535 bytes
+        if(length > 0xFFFF)
+            throw new IllegalStateException("Code of method " + name + " is too large");
+
+        resolveBranches();
+
+        Frames frames = new Frames(className, name, descriptor, isStatic(), maxLocals, instructions, length);
+        byte[] stackMapTable = frames.compute(code, constantPool);
+        int attributes = stackMapTable == null ? 0 : 1;
+        int attributesLength = stackMapTable == null ? 0 : 6 + stackMapTable.length;
+
+        out.writeShort(access);
+        out.writeShort(constantPool.utf8(name));
+        out.writeShort(constantPool.utf8(descriptor));
+
+        out.writeShort(1);
+        out.writeShort(constantPool.utf8("Code"));
+        out.writeInt(12 + length + attributesLength);
+        out.writeShort(frames.getMaxStack());
+        out.writeShort(maxLocals);
+        out.writeInt(length);
+        out.write(code, 0, length);
+        out.writeShort(0); //Exception table
+        out.writeShort(attributes);
+
+        if(stackMapTable != null)
+        {
+            out.writeShort(constantPool.utf8("StackMapTable"));
+            out.writeInt(stackMapTable.length);
+            out.write(stackMapTable);
+        }
+    }
+
+    private boolean isStatic()
+    {
+        return (access & ACC_STATIC) != 0;
+    }
+
+    private Instruction add(int opcode, int operand)
+    {
+        Instruction instruction = new Instruction(length, opcode, operand);
+
+        instructions.add(instruction);
+
+        return instruction;
+    }
+
+    private void member(Instruction instruction, String owner, String name, String descriptor)
+    {
+        instruction.owner = owner;
+        instruction.name = name;
+        instruction.descriptor = descriptor;
+    }
+
+    private void resolveBranches()
+    {
+        for(Instruction instruction: instructions)
+        {
+            if(instruction.label == null)
+                continue;
+
+            Integer target = labels.get(instruction.label);
+
+            if(target == null)
+                throw new IllegalStateException("Undefined label " + instruction.label);
+
+            int offset = target - instruction.offset;
+
+            if(offset < Short.MIN_VALUE || offset > Short.MAX_VALUE)
+                throw new IllegalStateException("Branch to " + instruction.label + " is too far");
+
+            instruction.target = target;
+            code[instruction.offset + 1] = (byte) (offset >> 8);
+            code[instruction.offset + 2] = (byte) offset;
+        }
+    }
+
+    private void putByte(int value)
+    {
+        if(length == code.length)
+            code = Arrays.copyOf(code, length * 2);
+
+        code[length++] = (byte) value;
+    }
+
+    private void putShort(int value)
+    {
+        putByte(value >> 8);
+        putByte(value);
+    }
+
+    //Number of local variable slots taken by the arguments of a method descriptor
+    public static int argumentSlots(String descriptor)
+    {
+        int slots = 0;
+
+        for(int i = 1; descriptor.charAt(i) != ')'; i++)
+        {
+            while(descriptor.charAt(i) == '[')
+                i++;
+
+            if(descriptor.charAt(i) == 'L')
+                i = descriptor.indexOf(';', i);
+
+            slots++;
+        }
+
+        return slots;
+    }
+}
@@ -0,0 +1,62 @@
+package classfile;
+
+/**
+ * JVM opcodes used by the code generator.
+ */
+public interface Opcodes
+{
+    int NOP = 0;
+    int ICONST_M1 = 2;
+    int ICONST_0 = 3;
+    int ICONST_1 = 4;
+    int ICONST_2 = 5;
+    int ICONST_3 = 6;
+    int ICONST_4 = 7;
+    int ICONST_5 = 8;
+    int BIPUSH = 16;
+    int SIPUSH = 17;
+    int LDC = 18;
+    int LDC_W = 19;
+    int ILOAD = 21;
+    int ALOAD = 25;
+    int ILOAD_0 = 26;
+    int ALOAD_0 = 42;
+    int IALOAD = 46;
+    int ISTORE = 54;
+    int ASTORE = 58;
+    int ISTORE_0 = 59;
+    int ASTORE_0 = 75;
+    int IASTORE = 79;
+    int POP = 87;
+    int DUP = 89;
+    int IADD = 96;
+    int ISUB = 100;
+    int IMUL = 104;
+    int IDIV = 108;
+    int IFEQ = 153;
+    int IFNE = 154;
+    int IF_ICMPLT = 161;
+    int IF_ICMPGE = 162;
+    int GOTO = 167;
+    int IRETURN = 172;
+    int ARETURN = 176;
+    int RETURN = 177;
+    int GETFIELD = 180;
+    int PUTFIELD = 181;
+    int INVOKEVIRTUAL = 182;
+    int INVOKESPECIAL = 183;
+    int INVOKESTATIC = 184;
+    int NEW = 187;
+    int NEWARRAY = 188;
+    int ARRAYLENGTH = 190;
+    int ATHROW = 191;
+    int WIDE = 196;
+
+    //newarray operand
+    int T_INT = 10;
+
+    //Access flags
+    int ACC_PUBLIC = 0x0001;
+    int ACC_STATIC = 0x0008;
+    int ACC_SUPER = 0x0020;
+}
@@ -0,0 +1,213 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * On-disk cache of compiled outputs, keyed by a SHA-256 hash of the source, the compiler
+ * version and the output mode. Entries are written to a temporary file and renamed into
+ * place, so several compilers can share one directory. When the cache grows past its size
+ * cap, the least recently used entries are removed until it is back under a low-water mark
+ * below the cap; a hit refreshes an entry's modification time, which serves as its last use.
+ *
+ * Listing a large cache costs more than a compilation, so the size of the cache is kept,
+ * roughly, in a file of its own that each put adds to, and the entries are only listed once
+ * it passes the cap. Updates from other processes may be lost or counted twice; the listing
+ * then writes the true size back.
+ */
+class BuildCache
+{
+    //Bump whenever the generated code changes, so entries of older compilers are not reused
+    private static final String COMPILER_VERSION = "JavaMM-3";
+    private static final String SUFFIX = ".entry";
+    private static final String SIZE = "size";
+    //Share of the cap pruning brings the cache down to, so the puts after it don't list it again
+    private static final double LOW_WATER = 0.9;
+    //Puts of the compilers in this JVM update the size one at a time
+    private static final Object SIZE_LOCK = new Object();
+
+    private Path directory;
+    private long maxBytes;
+
+    public static class Entry
+    {
+        public String className;
+        public byte[] output;
+
+        public Entry(String className, byte[] output)
+        {
+            this.className = className;
+            this.output = output;
+        }
+    }
+
+    public BuildCache(Options options) throws IOException
+    {
+        this.directory = Paths.get(options.cacheDirectory);
+        this.maxBytes = options.cacheSize;
+
+        Files.createDirectories(directory);
+    }
+
+    public String key(byte[] source, Options options)
+    {
+        try
+        {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            StringBuilder key = new StringBuilder();
+
+            digest.update((COMPILER_VERSION + "\0" + options.getMode() + "\0").getBytes(StandardCharsets.UTF_8));
+
+            for(byte b: digest.digest(source))
+                key.append(String.format("%02x", b));
+
+            return key.toString();
+        }
+        catch(NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //Returns the cached output, or null on a miss
+    public Entry get(String key)
+    {
+        Path file = directory.resolve(key + SUFFIX);
+
+        try(DataInputStream in = new DataInputStream(Files.newInputStream(file)))
+        {
+            String className = in.readUTF();
+            byte[] output = new byte[in.readInt()];
+
+            in.readFully(output);
+            Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis()));
+
+            return new Entry(className, output);
+        }
+        catch(IOException e)
+        {
+            //Missing, or removed by another compiler while being read
+            return null;
+        }
+    }
+
+    public void put(String key, String className, byte[] output) throws IOException
+    {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+
+        out.writeUTF(className);
+        out.writeInt(output.length);
+        out.write(output);
+
+        Path temporary = Files.createTempFile(directory, key, ".tmp");
+
+        try
+        {
+            Files.write(temporary, bytes.toByteArray());
+            Files.move(temporary, directory.resolve(key + SUFFIX), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+
+        synchronized(SIZE_LOCK)
+        {
+            long total = readSize();
+
+            if(total < 0 || total + bytes.size() > maxBytes)
+                prune();
+            else
+                writeSize(total + bytes.size());
+        }
+    }
+
+    //Size of the cache as last written, or -1 if it isn't known
+    private long readSize()
+    {
+        try
+        {
+            return Long.parseLong(new String(Files.readAllBytes(directory.resolve(SIZE)), StandardCharsets.UTF_8).trim());
+        }
+        catch(IOException | NumberFormatException e)
+        {
+            return -1;
+        }
+    }
+
+    private void writeSize(long total) throws IOException
+    {
+        Path temporary = Files.createTempFile(directory, SIZE, ".tmp");
+
+        try
+        {
+            Files.write(temporary, Long.toString(total).getBytes(StandardCharsets.UTF_8));
+            Files.move(temporary, directory.resolve(SIZE), StandardCopyOption.ATOMIC_MOVE,
+                StandardCopyOption.REPLACE_EXISTING);
+        }
+        finally
+        {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    //Lists the entries and, if they are past the size cap, removes the least recently used ones
+    //until the cache is under the low-water mark
+    private void prune() throws IOException
+    {
+        List<Path> entries = new ArrayList<Path>();
+        List<long[]> attributes = new ArrayList<long[]>();
+        long total = 0;
+
+        try(DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + SUFFIX))
+        {
+            for(Path file: files)
+            {
+                try
+                {
+                    long size = Files.size(file);
+
+                    attributes.add(new long[] {Files.getLastModifiedTime(file).toMillis(), size, entries.size()});
+                    entries.add(file);
+                    total += size;
+                }
+                catch(NoSuchFileException e)
+                {
+                    continue;
+                }
+            }
+        }
+
+        if(total > maxBytes)
+        {
+            attributes.sort((a, b) -> Long.compare(a[0], b[0]));
+
+            for(long[] entry: attributes)
+            {
+                if(total <= maxBytes * LOW_WATER)
+                    break;
+
+                Files.deleteIfExists(entries.get((int) entry[2]));
+                total -= entry[1];
+            }
+        }
+
+        writeSize(total);
+    }
+}
@@ -0,0 +1,111 @@
+package compiler;
+
+import classfile.ClassWriter;
+import classfile.MethodWriter;
+import classfile.Opcodes;
+
+/**
+ * Writes the generated class directly as a class file, skipping the Jasmin text.
+ */
+class ClassFileEmitter implements CodeEmitter, Opcodes
+{
+    private String sourceName;
+    private ClassWriter classWriter;
+    private MethodWriter method;
+    private byte[] classBytes;
+    private int instructions;
+
+    public ClassFileEmitter(String sourceName)
+    {
+        this.sourceName = sourceName;
+    }
+
+    public void beginClass(String className, String superName)
+    {
+        classWriter = new ClassWriter(className, superName, sourceName);
+    }
+
+    public void field(String name, String descriptor)
+    {
+        classWriter.field(0, name, descriptor);
+    }
+
+    //Locals are counted by the method writer itself
+    public void beginMethod(String name, String descriptor, boolean isStatic, int maxLocals)
+    {
+        method = classWriter.method(isStatic ? ACC_PUBLIC | ACC_STATIC : ACC_PUBLIC, name, descriptor);
+    }
+
+    public void endMethod()
+    {
+        method = null;
+    }
+
+    public int getInstructionCount()
+    {
+        return instructions;
+    }
+
+    public void endClass()
+    {
+        classBytes = classWriter.toByteArray();
+    }
+
+    public byte[] getClassBytes()
+    {
+        return classBytes;
+    }
+
+    public void instruction(int opcode)
+    {
+        instructions++;
+        method.instruction(opcode);
+    }
+
+    public void intInstruction(int opcode, int operand)
+    {
+        instructions++;
+        method.intInstruction(opcode, operand);
+    }
+
+    public void constant(int value)
+    {
+        instructions++;
+        method.constant(value);
+    }
+
+    public void varInstruction(int opcode, int index)
+    {
+        instructions++;
+        method.varInstruction(opcode, index);
+    }
+
+    public void jumpInstruction(int opcode, String label)
+    {
+        instructions++;
+        method.jumpInstruction(opcode, label);
+    }
+
+    public void label(String label)
+    {
+        method.label(label);
+    }
+
+    public void typeInstruction(int opcode, String className)
+    {
+        instructions++;
+        method.typeInstruction(opcode, className);
+    }
+
+    public void fieldInstruction(int opcode, String owner, String name, String descriptor)
+    {
+        instructions++;
+        method.fieldInstruction(opcode, owner, name, descriptor);
+    }
+
+    public void methodInstruction(int opcode, String owner, String name, String descriptor)
+    {
+        instructions++;
+        method.methodInstruction(opcode, owner, name, descriptor);
+    }
+}
@@ -0,0 +1,40 @@
+package compiler;
+
+/**
+ * Receives the class produced by the code generator, one declaration or instruction at a
+ * time. Opcodes are the ones in classfile.Opcodes.
+ */
+interface CodeEmitter
+{
+    void beginClass(String className, String superName);
+
+    void field(String name, String descriptor);
+
+    //maxLocals is negative when the number of locals is left for the backend to find
+    void beginMethod(String name, String descriptor, boolean isStatic, int maxLocals);
+
+    void endMethod();
+
+    //Number of instructions emitted so far, over all methods
+    int getInstructionCount();
+
+    void endClass();
+
+    void instruction(int opcode);
+
+    void intInstruction(int opcode, int operand);
+
+    void constant(int value);
+
+    void varInstruction(int opcode, int index);
+
+    void jumpInstruction(int opcode, String label);
+
+    void label(String label);
+
+    void typeInstruction(int opcode, String className);
+
+    void fieldInstruction(int opcode, String owner, String name, String descriptor);
+
+    void methodInstruction(int opcode, String owner, String name, String descriptor);
+}
@@ -0,0 +1,117 @@
+package compiler;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Hashtable;
+import java.util.List;
+
+import symbol.SymbolTable;
+import syntax.IncrementalParser;
+import syntax.LineMap;
+import syntax.NameTable;
+import syntax.Node;
+import syntax.ParseException;
+import syntax.Token;
+
+/**
+ * State of a single compilation unit, shared by the symbol table builder, the semantic
+ * analysis and the code generation. Independent units use independent contexts, so they
+ * can be compiled concurrently.
+ */
+class CompilationContext
+{
+    protected Hashtable<String, SymbolTable> symbolTables;
+    protected NameTable names;
+    protected String className;
+    protected int label;
+    protected String extendingClass;
+    protected Semantic semantic;
+    protected PrintStream out;
+    protected Options options;
+    protected String phase;
+    protected List<Diagnostic> diagnostics;
+    protected PhaseStats stats;
+    protected String sourceFile;
+    protected String source;
+    protected IncrementalParser incremental;
+    private LineMap lines;
+
+    public CompilationContext(Options options)
+    {
+        this(options, System.out);
+    }
+
+    public CompilationContext(Options options, PrintStream out)
+    {
+        this.symbolTables = new Hashtable<String, SymbolTable>();
+        this.names = new NameTable();
+        this.label = 0;
+        this.out = out;
+        this.options = options;
+        this.phase = "syntax";
+        this.diagnostics = new ArrayList<Diagnostic>();
+    }
+
+    //Records an error of the current phase and prints it
+    public void error(String message)
+    {
+        diagnostics.add(new Diagnostic(phase, message, -1, -1));
+        out.println(message);
+    }
+
+    //Records an error found at a node, pointing at the line and column where it begins
+    public void error(String message, Node node)
+    {
+        LineMap lines = node.getBeginOffset() < 0 ? null : lines();
+
+        if(lines == null)
+        {
+            error(message);
+            return;
+        }
+
+        int line = lines.getLine(node.getBeginOffset());
+        int column = lines.getColumn(node.getBeginOffset());
+
+        diagnostics.add(new Diagnostic(phase, message, line, column));
+        out.println(message + " at line " + line + ", column " + column + ".");
+    }
+
+    //Positions are kept as offsets, so the source is only split in lines once an error needs
+    //one. A source parsed from a file is read again, or null if it can't be.
+    public LineMap lines()
+    {
+        if(lines != null)
+            return lines;
+
+        try
+        {
+            if(source == null && sourceFile != null)
+                source = new String(Files.readAllBytes(Paths.get(sourceFile)));
+        }
+        catch(IOException e)
+        {
+            return null;
+        }
+
+        if(source != null)
+            lines = new LineMap(source);
+
+        return lines;
+    }
+
+    public void error(ParseException e)
+    {
+        Token next = e.currentToken == null ? null : e.currentToken.next;
+
+        if(next == null)
+            diagnostics.add(new Diagnostic("syntax", e.getMessage(), -1, -1));
+        else
+            diagnostics.add(new Diagnostic("syntax", e.getMessage(), next.beginLine, next.beginColumn));
+
+        out.println(e.toString());
+    }
+}
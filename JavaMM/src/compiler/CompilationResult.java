@@ -0,0 +1,53 @@
+package compiler;
+
+import java.util.List;
+
+/**
+ * Outcome of an in-memory compilation: the generated Jasmin code or class file, depending
+ * on the options, and the errors found on the way.
+ */
+public class CompilationResult
+{
+    private boolean success;
+    private String className;
+    private String jasminCode;
+    private byte[] classBytes;
+    private List<Diagnostic> diagnostics;
+
+    public CompilationResult(boolean success, String className, String jasminCode, byte[] classBytes,
+        List<Diagnostic> diagnostics)
+    {
+        this.success = success;
+        this.className = className;
+        this.jasminCode = jasminCode;
+        this.classBytes = classBytes;
+        this.diagnostics = diagnostics;
+    }
+
+    public boolean isSuccess()
+    {
+        return success;
+    }
+
+    public String getClassName()
+    {
+        return className;
+    }
+
+    //Null when class output was requested or the compilation failed
+    public String getJasminCode()
+    {
+        return jasminCode;
+    }
+
+    //Null unless class output was requested and the compilation succeeded
+    public byte[] getClassBytes()
+    {
+        return classBytes;
+    }
+
+    public List<Diagnostic> getDiagnostics()
+    {
+        return diagnostics;
+    }
+}
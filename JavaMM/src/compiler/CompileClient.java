@@ -0,0 +1,72 @@
+package compiler;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Thin client of CompileServer: sends the source files to compile and prints the
+ * messages and output paths it gets back.
+ */
+class CompileClient
+{
+    public static boolean send(Options options) throws IOException
+    {
+        List<File> sources = new ArrayList<File>();
+        int compiled = 0, replies = 0;
+
+        for(String input: options.inputs)
+        {
+            if(!Compiler.collectSources(input, sources))
+                return false;
+        }
+
+        try(SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            channel.connect(UnixDomainSocketAddress.of(options.socket));
+
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String line;
+
+            //The server resolves paths against its own directory, so they are sent absolute
+            for(File source: sources)
+            {
+                String outputFile = new File(Compiler.getOutputFile(source, options)).getAbsolutePath();
+
+                out.println("COMPILE\t" + options.getMode() + "\t" + source.getAbsolutePath() + "\t" + outputFile);
+            }
+
+            out.flush();
+            channel.shutdownOutput();
+
+            while((line = in.readLine()) != null)
+            {
+                if(line.startsWith("D "))
+                    System.out.println(line.substring(2));
+                else
+                {
+                    if(line.startsWith("OK "))
+                        compiled++;
+
+                    replies++;
+                    System.out.println(line);
+                }
+            }
+        }
+
+        System.out.println(compiled + " of " + sources.size() + " file(s) compiled");
+
+        return compiled == sources.size() && replies == sources.size();
+    }
+}
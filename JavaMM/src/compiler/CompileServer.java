@@ -0,0 +1,171 @@
+package compiler;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Long-running compiler listening on a Unix domain socket, so that class loading and JIT
+ * warm-up are paid once instead of on every compilation.
+ *
+ * Protocol (UTF-8 lines): the client sends "COMPILE\t<j|class|classfile>\t<input>\t<output>" for each
+ * file and then shuts down its output. For each request, in order, the server answers with the
+ * unit's messages, each prefixed by "D ", followed by "OK <output>" or "FAILED <input>". A
+ * malformed request is answered in its place with "FAILED Malformed request: <line>".
+ *
+ * Every unit is compiled with the options the server was started with, such as --max-errors
+ * or --stats, in the output mode of its request.
+ */
+class CompileServer
+{
+    public static void serve(Options options) throws IOException
+    {
+        Path socketPath = Paths.get(options.socket);
+        int jobs = options.jobs > 0 ? options.jobs : Runtime.getRuntime().availableProcessors();
+        ExecutorService virtual = virtualExecutor();
+
+        //Without virtual threads, a pool of a thread per job bounds the units in flight, so a
+        //queued request holds no thread; connections still get a thread each
+        ExecutorService connections = virtual != null ? virtual : Executors.newCachedThreadPool();
+        ExecutorService units = virtual != null ? virtual : Executors.newFixedThreadPool(jobs);
+        Semaphore inFlight = virtual != null ? new Semaphore(jobs) : null;
+
+        Files.deleteIfExists(socketPath);
+
+        try(ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> socketPath.toFile().delete()));
+
+            System.out.println("Compile server listening on " + socketPath + " (" + jobs + " job(s))");
+
+            while(true)
+            {
+                SocketChannel connection = server.accept();
+
+                connections.submit(() -> handle(connection, options, units, inFlight));
+            }
+        }
+    }
+
+    //Virtual threads when the runtime has them (JDK 21+), null otherwise
+    private static ExecutorService virtualExecutor()
+    {
+        try
+        {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch(ReflectiveOperationException e)
+        {
+            return null;
+        }
+    }
+
+    private static void handle(SocketChannel connection, Options serverOptions, ExecutorService executor, Semaphore inFlight)
+    {
+        try(SocketChannel channel = connection;
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8)))
+        {
+            List<Future<String>> replies = new ArrayList<Future<String>>();
+            List<String> inputs = new ArrayList<String>();
+            String line;
+
+            while((line = in.readLine()) != null)
+            {
+                String[] request = line.split("\t");
+
+                //Replies keep the order of the requests, malformed ones included
+                if(request.length != 4 || !request[0].equals("COMPILE"))
+                {
+                    replies.add(CompletableFuture.completedFuture("FAILED Malformed request: " + line + "\n"));
+                    inputs.add(line);
+                    continue;
+                }
+
+                Options options = serverOptions.copy();
+
+                options.setMode(request[1]);
+                replies.add(executor.submit(() -> compile(options, request[2], request[3], inFlight)));
+                inputs.add(request[2]);
+            }
+
+            for(int i = 0; i < replies.size(); i++)
+            {
+                //A unit the compiler failed on is answered on its own, the others still are
+                try
+                {
+                    out.print(replies.get(i).get());
+                }
+                catch(ExecutionException e)
+                {
+                    out.println("D Couldn't compile " + inputs.get(i) + ": " + e.getCause().toString());
+                    out.println("FAILED " + inputs.get(i));
+                }
+
+                out.flush();
+            }
+        }
+        catch(Exception e)
+        {
+            System.err.println("Compile server connection failed: " + e.toString());
+        }
+    }
+
+    private static String compile(Options options, String inputFile, String outputFile, Semaphore inFlight) throws InterruptedException
+    {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        CompilationContext context = new CompilationContext(options, new PrintStream(log, true));
+        StringBuilder reply = new StringBuilder();
+        boolean success;
+
+        //Virtual threads are one per request, so the units in flight are limited here
+        if(inFlight != null)
+            inFlight.acquire();
+
+        try
+        {
+            success = Compiler.compileUnit(context, new File(inputFile), outputFile);
+        }
+        finally
+        {
+            if(inFlight != null)
+                inFlight.release();
+        }
+
+        for(String message: log.toString().split("\n"))
+        {
+            if(!message.isEmpty())
+                reply.append("D ").append(message).append('\n');
+        }
+
+        if(success)
+            reply.append("OK ").append(outputFile).append('\n');
+        else
+            reply.append("FAILED ").append(inputFile).append('\n');
+
+        return reply.toString();
+    }
+}
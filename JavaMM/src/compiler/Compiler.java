@@ -2,91 +2,642 @@ package compiler;
 
 import syntax.*;
 import symbol.*;
-import java.util.Hashtable;
-import java.io.FileInputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.Supplier;
 
-class Compiler
+class Compiler implements JavaMMTreeConstants
 {
-    protected static Hashtable<String, SymbolTable> symbolTables;
-    protected static String className;
-    protected static int label;
-    protected static String extendingClass;
-    protected static Semantic semantic;
+    //Sources from this size on are memory-mapped rather than read
+    private static final long MAPPED_SIZE = 64 * 1024;
 
     public static void main(String[] args) throws Exception
     {
-        if (args.length < 2)
+        Options options = Options.parse(args);
+
+        if (options == null)
+        {
+            Options.printUsage();
+            System.exit(1);
+        }
+
+        if(options.server)
+            CompileServer.serve(options);
+        else if(options.client)
+        {
+            if(!CompileClient.send(options))
+                System.exit(1);
+        }
+        else if(options.watch != null)
+            new Watcher(options).watch();
+        else if(options.run)
+        {
+            if(!ProgramRunner.run(options))
+                System.exit(1);
+        }
+        else if(options.batch)
         {
-            System.out.println("Usage: JavaMMMain <input_filename> <output_filename>");
+            if(!compileBatch(options))
+                System.exit(1);
+        }
+        else if(!compile(new CompilationContext(options), options.inputs.get(0), options.inputs.get(1)))
             System.exit(1);
+    }
+
+    public static boolean compile(CompilationContext context, String inputFile, String outputFile) throws Exception
+    {
+        context.sourceFile = inputFile;
+
+        if(context.options.stats == null)
+            return compileFile(context, inputFile, outputFile);
+
+        context.stats = new PhaseStats(inputFile);
+
+        try
+        {
+            return compileFile(context, inputFile, outputFile);
+        }
+        finally
+        {
+            context.stats.print(context.out, context.options.stats);
         }
+    }
+
+    public static boolean compileFile(CompilationContext context, String inputFile, String outputFile) throws Exception
+    {
+        if(context.options.cacheDirectory != null)
+            return compileCached(context, inputFile, outputFile);
+
+        Node root = context.incremental != null ? parseIncremental(context, inputFile) : parse(context, inputFile);
+
+        if(!analyse(context, root))
+            return false;
+
+        return generate(context, root, outputFile) != null;
+    }
+
+    //On a cache hit the stored output is written without running any phase; otherwise the
+    //output of a clean compilation is stored for next time
+    public static boolean compileCached(CompilationContext context, String inputFile, String outputFile) throws Exception
+    {
+        BuildCache cache = new BuildCache(context.options);
+        byte[] source = Files.readAllBytes(Paths.get(inputFile));
+        String key = cache.key(source, context.options);
+        BuildCache.Entry entry = cache.get(key);
+        File output;
+
+        if(entry != null)
+        {
+            context.className = entry.className;
+            output = context.options.emitClass ? new File(outputFile, entry.className + ".class") : new File(outputFile);
+
+            Files.write(output.toPath(), entry.output);
+            context.out.println("Cache hit, output written: " + output.getPath());
+
+            return true;
+        }
+
+        Node root = parseSource(context, new String(source));
+
+        if(!analyse(context, root) || (output = generate(context, root, outputFile)) == null)
+            return false;
+
+        if(context.diagnostics.isEmpty() && output.isFile())
+            cache.put(key, context.className, Files.readAllBytes(output.toPath()));
+
+        return true;
+    }
+
+    //Writes the .j file, or <className>.class to the output directory in class mode, and
+    //returns it. Returns null if the class file couldn't be generated.
+    public static File generate(CompilationContext context, Node root, String outputFile) throws IOException
+    {
+        File output;
+
+        if(context.stats != null)
+            context.stats.begin("generation");
+
+        if(context.options.emitClass)
+        {
+            output = new File(outputFile, context.className + ".class");
+
+            if(!generateClass(context, root, outputFile))
+                output = null;
+        }
+        else
+        {
+            if(new Jasmin(context, outputFile).parse(root))
+                output = new File(outputFile);
+            else
+                output = null;
+        }
+
+        if(context.stats != null)
+        {
+            context.stats.end();
+            context.stats.bytesEmitted = output == null ? 0 : output.length();
+        }
+
+        return output;
+    }
+
+    //Builds the symbol tables and runs the semantic analysis on a parsed program. The tree
+    //of a program with syntax errors misses the statements they were in, so it isn't analysed.
+    public static boolean analyse(CompilationContext context, Node root)
+    {
+        PhaseStats stats = context.stats;
+        boolean built, analysed;
+
+        if(!context.diagnostics.isEmpty())
+            return false;
+
+        context.phase = "symbols";
+
+        if(stats != null)
+            stats.begin("symbols");
 
-        symbolTables = new Hashtable<String, SymbolTable>();
-        label = 0;
+        PhaseEvent event = Events.phase(context, "symbols");
 
-        JavaMM parser = new JavaMM(new FileInputStream(args[0]));
-        SimpleNode root = parser.Program();
+        built = buildSymbolTables(context, root);
+        Events.finish(event, context);
 
-        System.out.println("Syntax analisys done");
+        if(stats != null)
+        {
+            stats.end();
+
+            for(String table: context.symbolTables.keySet())
+                stats.countSymbols(table, context.symbolTables.get(table).getTable().size()
+                    + context.symbolTables.get(table).getArgs().size());
+        }
 
-        if(buildSymbolTables(root))
+        if(built)
         {
-            System.out.println("Symbol tables built");
-            //printSymbolTables();
+            context.out.println("Symbol tables built");
+            //printSymbolTables(context);
+
+            context.phase = "semantic";
+            context.semantic = new Semantic(context);
 
-            semantic = new Semantic();
+            if(stats != null)
+                stats.begin("semantic");
 
-            if(semantic.analyse(root))
-                System.out.println("Semantic analysis complete");
+            event = Events.phase(context, "semantic");
+            analysed = context.semantic.analyse(root);
+            Events.finish(event, context);
+
+            if(stats != null)
+                stats.end();
+
+            if(analysed)
+                context.out.println("Semantic analysis complete");
             else
             {
-                System.out.println("Semantic error");
-                return;
+                context.out.println("Semantic error");
+                return false;
             }
-                
-            Jasmin jasmin = new Jasmin(args[1]);
-            jasmin.parse(root);
+
+            context.phase = "generation";
+
+            return true;
         }
         else
-            System.out.println("Couldn't build symbol tables");
+        {
+            context.out.println("Couldn't build symbol tables");
+            return false;
+        }
+    }
+
+    //Writes <className>.class to outputDirectory
+    public static boolean generateClass(CompilationContext context, Node root, String outputDirectory)
+        throws IOException
+    {
+        byte[] classBytes = generateClassBytes(context, root);
+
+        if(classBytes == null)
+            return false;
+
+        File classFile = new File(outputDirectory, context.className + ".class");
+
+        Files.write(classFile.toPath(), classBytes);
+        context.out.println("Class file written: " + classFile.getPath());
+
+        return true;
+    }
+
+    //Either assembles the Jasmin code in memory or, with the classfile backend, emits the
+    //bytecode directly. Returns null if the class couldn't be generated.
+    public static byte[] generateClassBytes(CompilationContext context, Node root)
+    {
+        if(context.options.directBackend)
+        {
+            ClassFileEmitter emitter = new ClassFileEmitter(context.className + ".jmm");
+
+            //Frame computation rejects code the verifier would reject
+            try
+            {
+                new Jasmin(context, emitter).parse(root);
+            }
+            catch(IllegalStateException e)
+            {
+                context.error("Couldn't generate class file: " + e.getMessage());
+                return null;
+            }
+
+            return emitter.getClassBytes();
+        }
+
+        JasminEmitter jasminCode = new JasminEmitter();
+
+        if(!new Jasmin(context, jasminCode).parse(root))
+            return null;
+
+        return JasminAssembler.assemble(context, jasminCode.getCode().toString(), context.className + ".j");
+    }
+
+    public static Node parse(CompilationContext context, String inputFile) throws Exception
+    {
+        //Large ASCII sources are lexed straight from a mapping of the file; for small ones
+        //mapping costs more than reading
+        Path path = Paths.get(inputFile);
+        MappedCharStream stream = Files.size(path) >= MAPPED_SIZE ? MappedCharStream.open(path) : null;
+
+        //The file is unmapped as soon as it is parsed, so it can be saved over again
+        if(stream != null)
+        {
+            try
+            {
+                return parse(context, () -> ParserPool.acquire(stream.rewind()));
+            }
+            finally
+            {
+                stream.Done();
+            }
+        }
+
+        return parseSource(context, new String(Files.readAllBytes(path)));
+    }
+
+    public static Node parseSource(CompilationContext context, String source)
+    {
+        context.source = source;
+
+        return parse(context, () -> ParserPool.acquire(new StringReader(source)));
+    }
+
+    //Parses without tracking line and column if fast parsing is on. Positions are only
+    //needed for syntax errors, so on any error the input is parsed again from the start
+    //with tracking, and the errors reported are exactly those of a tracked parse. Syntax
+    //errors are recorded as diagnostics, and the tree of a source with any is incomplete.
+    private static Node parse(CompilationContext context, Supplier<JavaMM> input)
+    {
+        PhaseStats stats = context.stats;
+        JavaMM parser = named(context, input.get());
+        Token first = parser.token;
+        Node root = null;
+        ParseException failure = null;
+        TokenMgrError lexicalError = null;
+        boolean limitReached;
+
+        context.phase = "syntax";
+
+        if(stats != null)
+            stats.begin("parse");
+
+        PhaseEvent event = Events.phase(context, "parse");
+
+        try
+        {
+            if(context.options.fastParse && (root = parseFast(context, parser)) == null)
+            {
+                ParserPool.release(parser);
+                parser = named(context, input.get());
+                first = parser.token;
+            }
+
+            if(root == null)
+                root = program(context, parser);
+        }
+        catch(ParseException e)
+        {
+            failure = e;
+        }
+        catch(TokenMgrError e)
+        {
+            lexicalError = e;
+        }
+        finally
+        {
+            Events.finish(event, context);
+
+            if(stats != null)
+            {
+                stats.end();
+                stats.countTokens(first);
+            }
+
+            //Errors recovered from are reported even if the parse fails later on
+            for(ParseException e: parser.recoveredErrors)
+                context.error(e);
+
+            limitReached = parser.errorLimitReached;
+            ParserPool.release(parser);
+        }
+
+        //The parse stops at an error it can't go on after, at the end of the input or once
+        //--max-errors errors were found
+        if(failure != null)
+        {
+            context.error(failure);
+
+            if(limitReached)
+                context.error("too many errors");
+        }
+        else if(lexicalError != null)
+            context.error(lexicalError.getMessage());
+
+        if(!context.diagnostics.isEmpty())
+        {
+            context.out.println("Syntax error");
+            return root;
+        }
+
+        context.out.println("Syntax analisys done");
+
+        if(stats != null)
+            stats.countNodes(root);
+
+        return root;
+    }
+
+    //Parses again only the methods edited since the tree kept for the file was parsed, or
+    //the whole file if the edits aren't all inside methods or there's no tree kept yet
+    public static Node parseIncremental(CompilationContext context, String inputFile) throws Exception
+    {
+        String source = new String(Files.readAllBytes(Paths.get(inputFile)));
+        PhaseStats stats = context.stats;
+        Node root;
+
+        context.names = context.incremental.getNames();
+        context.phase = "syntax";
+
+        if(stats != null)
+            stats.begin("parse");
+
+        PhaseEvent event = Events.phase(context, "parse");
+        root = context.incremental.reparse(source);
+        Events.finish(event, context);
+
+        if(stats != null)
+            stats.end();
+
+        if(root == null)
+        {
+            root = parseSource(context, source);
+
+            if(context.diagnostics.isEmpty())
+                context.incremental.reset(source, root);
+
+            return root;
+        }
+
+        context.source = source;
+        context.out.println("Syntax analisys done (" + context.incremental.getReparsed() + " method(s) parsed again)");
+
+        if(stats != null)
+            stats.countNodes(root);
+
+        return root;
+    }
+
+    //Identifiers are interned into the context's table, which the symbol tables key on
+    private static JavaMM named(CompilationContext context, JavaMM parser)
+    {
+        parser.token_source.names = context.names;
+        parser.errorLimit = context.options.maxErrors;
+
+        return parser;
+    }
+
+    //Large programs may be parsed into a flat tree, which needs far less memory
+    private static Node program(CompilationContext context, JavaMM parser) throws ParseException
+    {
+        if(context.options.flatTree)
+            return parser.ProgramFlat().getRoot();
+
+        return parser.Program();
+    }
+
+    //The tree of a parse without positions, or null if the input has any syntax error
+    private static Node parseFast(CompilationContext context, JavaMM parser)
+    {
+        parser.trackPositions(false);
+
+        try
+        {
+            Node root = program(context, parser);
+
+            return parser.recoveredErrors.isEmpty() ? root : null;
+        }
+        catch(ParseException | TokenMgrError e)
+        {
+            return null;
+        }
+    }
+
+    public static boolean compileBatch(Options options)
+    {
+        List<File> sources = new ArrayList<File>();
+        List<ForkJoinTask<Boolean>> units = new ArrayList<ForkJoinTask<Boolean>>();
+        List<ByteArrayOutputStream> logs = new ArrayList<ByteArrayOutputStream>();
+        ForkJoinPool pool = new ForkJoinPool(options.jobs > 0 ? options.jobs : 1);
+        int compiled = 0;
+
+        for(String input: options.inputs)
+        {
+            if(!collectSources(input, sources))
+                return false;
+        }
+
+        for(File source: sources)
+        {
+            ByteArrayOutputStream log = new ByteArrayOutputStream();
+            CompilationContext context = new CompilationContext(options, new PrintStream(log, true));
+            String outputFile = getOutputFile(source, options);
+
+            logs.add(log);
+            units.add(pool.submit(() -> compileUnit(context, source, outputFile)));
+        }
+
+        //Reports are printed in input order, each unit's output kept together
+        for(int i = 0; i < units.size(); i++)
+        {
+            if(units.get(i).join())
+                compiled++;
+
+            System.out.print(logs.get(i).toString());
+        }
+
+        pool.shutdown();
+        System.out.println(compiled + " of " + sources.size() + " file(s) compiled");
+
+        return compiled == sources.size();
+    }
+
+    public static boolean compileUnit(CompilationContext context, File source, String outputFile)
+    {
+        long start = System.nanoTime();
+        boolean success;
+
+        context.out.println("--- " + source.getPath() + " ---");
+
+        try
+        {
+            success = compile(context, source.getPath(), outputFile);
+        }
+        catch(Exception e)
+        {
+            context.out.println("Couldn't compile " + source.getPath() + ": " + e.toString());
+            success = false;
+        }
+        catch(StackOverflowError e)
+        {
+            //The parser and the passes recurse on the nesting of the source
+            context.out.println("Couldn't compile " + source.getPath() + ": nesting too deep");
+            success = false;
+        }
+
+        long elapsed = (System.nanoTime() - start) / 1000000;
+
+        if(success)
+            context.out.println("[OK] " + source.getPath() + " -> " + outputFile + " (" + elapsed + " ms)\n");
+        else
+            context.out.println("[FAILED] " + source.getPath() + " (" + elapsed + " ms)\n");
+
+        return success;
+    }
+
+    public static boolean collectSources(String input, List<File> sources)
+    {
+        if(input.startsWith("@"))
+        {
+            try
+            {
+                for(String line: Files.readAllLines(Paths.get(input.substring(1))))
+                {
+                    line = line.trim();
+
+                    if(!line.isEmpty() && !collectSources(line, sources))
+                        return false;
+                }
+
+                return true;
+            }
+            catch(IOException e)
+            {
+                System.out.println("Couldn't read argument file " + input.substring(1));
+                return false;
+            }
+        }
+
+        File file = new File(input);
+
+        if(file.isDirectory())
+        {
+            File[] entries = file.listFiles();
+
+            Arrays.sort(entries);
+
+            for(File entry: entries)
+            {
+                if(entry.isDirectory() || entry.getName().endsWith(".jmm"))
+                    collectSources(entry.getPath(), sources);
+            }
+
+            return true;
+        }
+
+        if(!file.exists())
+        {
+            System.out.println("Couldn't find input " + input);
+            return false;
+        }
+
+        sources.add(file);
+        return true;
+    }
+
+    //In class mode the output is a directory, as the class file is named after the class
+    public static String getOutputFile(File source, Options options)
+    {
+        String outputDirectory = options.outputDirectory;
+        String name = source.getName();
+
+        if(options.emitClass)
+        {
+            if(outputDirectory != null)
+                return outputDirectory;
+
+            return source.getAbsoluteFile().getParent();
+        }
+
+        if(name.endsWith(".jmm"))
+            name = name.substring(0, name.length() - 4);
+
+        name += ".j";
+
+        if(outputDirectory != null)
+            return new File(outputDirectory, name).getPath();
+
+        return new File(source.getParentFile(), name).getPath();
     }
 
-    public static boolean buildSymbolTables(SimpleNode root)
+    public static boolean buildSymbolTables(CompilationContext context, Node root)
     {
         Node classNode;
 
-        if(root.toString().equals("Program"))
+        if(root.getId() == JJTPROGRAM)
         {
-            if(root.jjtGetNumChildren() != 0 && (classNode = root.jjtGetChild(0)).toString().equals("Class"))
+            if(root.jjtGetNumChildren() != 0 && (classNode = root.jjtGetChild(0)).getId() == JJTCLASS)
             {
-                if(classNode.toString().equals("Class"))
+                if(classNode.getId() == JJTCLASS)
                 {
                     boolean builtSymbolTable;
 
-                    symbolTables.put(classNode.getName(), new SymbolTable());
-                    className = classNode.getName();
+                    context.symbolTables.put(classNode.getName(), new SymbolTable());
+                    context.className = classNode.getName();
 
                     for(int i = 0; i < classNode.jjtGetNumChildren(); i++)
                     {
                         Node child = classNode.jjtGetChild(i);
 
-                        switch(child.toString())
+                        switch(child.getId())
                         {
-                            case "Var":
-                                builtSymbolTable = buildLocalSymbolTable(child, classNode, false, i);
+                            case JJTVAR:
+                                builtSymbolTable = buildLocalSymbolTable(context, child, classNode, false, i);
                                 break;
 
-                            case "Main":
-                                builtSymbolTable = buildMainSymbolTable(child, i);
+                            case JJTMAIN:
+                                builtSymbolTable = buildMainSymbolTable(context, child, i);
                                 break;
 
-                            case "Method":
-                                builtSymbolTable = buildFunctionSymbolTable(child);
+                            case JJTMETHOD:
+                                builtSymbolTable = buildFunctionSymbolTable(context, child);
                                 break;
 
-                            case "Extends":
-                                extendingClass = child.getName();
+                            case JJTEXTENDS:
+                                context.extendingClass = child.getName();
                                 builtSymbolTable = true;
                                 break;
 
@@ -101,7 +652,7 @@ class Compiler
                             if(child.getName() != null)
                                 name = child.getName();
 
-                            System.out.println("Error in building symbol table for " + child.toString() + " " + name);
+                            context.error("Error in building symbol table for " + child.toString() + " " + name);
                             return false;
                         }
                             
@@ -112,62 +663,62 @@ class Compiler
             }
             else
             {
-                System.out.println("Program doesn't have class");
+                context.error("Program doesn't have class");
                 return false;
             }
 
         }
         else
         {
-            System.out.println("Root node doesn't qualify as program: " + root.toString());
+            context.error("Root node doesn't qualify as program: " + root.toString());
             return false;
         }
 
         return true;
     }
 
-    public static boolean buildLocalSymbolTable(Node var, Node parentNode, boolean main, int index)
+    public static boolean buildLocalSymbolTable(CompilationContext context, Node var, Node parentNode, boolean main, int index)
     {
         SymbolTable classST;
         String name;
         boolean classVar = false;
         
-        if(parentNode.toString().equals("Class"))
+        if(parentNode.getId() == JJTCLASS)
         {
-            name = className;
+            name = context.className;
             classVar = true;
         } 
         else
             name  = getFunctionName(parentNode);
 
         if(!main)
-            classST = symbolTables.get(name);
+            classST = context.symbolTables.get(name);
         else
-            classST = symbolTables.get("main(1)");
+            classST = context.symbolTables.get("main(1)");
 
         if(classST == null)
         {
-            System.out.println("Couldn't build local symbol table for " + name);
+            context.error("Couldn't build local symbol table for " + name);
             return false;
         }
 
         Symbol newSymbol;
 
-        newSymbol = new Symbol(var.getName(), var.getType(), index, classVar);
+        newSymbol = new Symbol(var.getNameId(), var.getName(), var.getType(), index, classVar);
 
-        if(var.toString().equals("Arg"))
+        if(var.getId() == JJTARG)
         {
             if (!classST.putArg(newSymbol))
             {
-                System.out.println("Duplicate argument " + var.getName() + " of type " + var.getType());
+                context.error("Duplicate argument " + var.getName() + " of type " + var.getType());
                 return false;
             }
             else
             {
                 if(main)
-                    symbolTables.put("main(1)", classST);
+                    context.symbolTables.put("main(1)", classST);
                 else
-                    symbolTables.put(getFunctionName(parentNode), classST);
+                    context.symbolTables.put(getFunctionName(parentNode), classST);
 
                 return true;
             }
@@ -176,15 +727,15 @@ class Compiler
         {
             if (!classST.putSymbol(newSymbol))
             {
-                System.out.println("Duplicate local variable " + var.getName() + " of type " + var.getType());
+                context.error("Duplicate local variable " + var.getName() + " of type " + var.getType());
                 return false;
             }
             else
             {
                 if(main)
-                    symbolTables.put("main(1)", classST);
+                    context.symbolTables.put("main(1)", classST);
                 else
-                    symbolTables.put(getFunctionName(parentNode), classST);
+                    context.symbolTables.put(getFunctionName(parentNode), classST);
 
                 return true;
             }
@@ -200,41 +751,41 @@ class Compiler
             return funcName + 1 + ")";
 
         for(int i = 0; i < function.jjtGetNumChildren(); i++)
-            if(function.jjtGetChild(i).toString().equals("Arg"))
+            if(function.jjtGetChild(i).getId() == JJTARG)
                 nArgs++;
 
         return funcName + nArgs + ")";
     }
 
-    public static boolean buildFunctionSymbolTable(Node func)
+    public static boolean buildFunctionSymbolTable(CompilationContext context, Node func)
     {
         String funcName = getFunctionName(func);
-        SymbolTable funcTable = symbolTables.get(funcName);
+        SymbolTable funcTable = context.symbolTables.get(funcName);
 
         if(funcTable != null)
         {
-            System.out.println("Duplicate function " + funcName);
+            context.error("Duplicate function " + funcName);
             return false;
         }
         else
             funcTable = new SymbolTable();
 
         funcTable.setReturnType(func.getReturnType());
-        symbolTables.put(funcName, funcTable);
+        context.symbolTables.put(funcName, funcTable);
 
         for(int i = 0; i < func.jjtGetNumChildren(); i++)
         {
-            if(func.jjtGetChild(i).toString().equals("Arg") || func.jjtGetChild(i).toString().equals("Var"))
-                if(!buildLocalSymbolTable(func.jjtGetChild(i), func, false, i + 1))
+            if(func.jjtGetChild(i).getId() == JJTARG || func.jjtGetChild(i).getId() == JJTVAR)
+                if(!buildLocalSymbolTable(context, func.jjtGetChild(i), func, false, i + 1))
                     return false;
         }
 
         return true;
     }
 
-    public static boolean buildMainSymbolTable(Node main, int index)
+    public static boolean buildMainSymbolTable(CompilationContext context, Node main, int index)
     {
-        SymbolTable funcTable = symbolTables.get("main(1)");
+        SymbolTable funcTable = context.symbolTables.get("main(1)");
 
         if(funcTable != null)
             return false;
@@ -242,31 +793,31 @@ class Compiler
             funcTable = new SymbolTable();
 
         funcTable.setReturnType("void");
-        funcTable.putArg(new Symbol(main.getType(), "String[]", index, false)); //Type in main = argument identifier
-        symbolTables.put("main(1)", funcTable);
+        funcTable.putArg(new Symbol(context.names.intern(main.getType()), main.getType(), "String[]", index, false)); //Type in main = argument identifier
+        context.symbolTables.put("main(1)", funcTable);
 
         for(int i = 0; i < main.jjtGetNumChildren(); i++)
         {
-            if(main.jjtGetChild(i).toString().equals("Var"))
-                if(!buildLocalSymbolTable(main.jjtGetChild(i), main, true, i + 1))
+            if(main.jjtGetChild(i).getId() == JJTVAR)
+                if(!buildLocalSymbolTable(context, main.jjtGetChild(i), main, true, i + 1))
                     return false;
         }
 
         return true;
     }
 
-    public static void printSymbolTables()
+    public static void printSymbolTables(CompilationContext context)
     {
-        Set<String> keys = symbolTables.keySet();
+        Set<String> keys = context.symbolTables.keySet();
         SymbolTable table;
 
         for(String key: keys)
         {
-            System.out.println("--- " + key + " symbol table ---\n");
-            table = symbolTables.get(key);
+            context.out.println("--- " + key + " symbol table ---\n");
+            table = context.symbolTables.get(key);
             table.printArgs();
             table.printTable();
-            System.out.println("\n");
+            context.out.println("\n");
         }
     }
 }
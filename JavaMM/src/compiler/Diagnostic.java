@@ -0,0 +1,49 @@
+package compiler;
+
+/**
+ * An error reported while compiling, tagged with the phase that found it ("syntax",
+ * "symbols", "semantic" or "generation"). Line and column are -1 when unknown.
+ */
+public class Diagnostic
+{
+    private String phase;
+    private String message;
+    private int line;
+    private int column;
+
+    public Diagnostic(String phase, String message, int line, int column)
+    {
+        this.phase = phase;
+        this.message = message;
+        this.line = line;
+        this.column = column;
+    }
+
+    public String getPhase()
+    {
+        return phase;
+    }
+
+    public String getMessage()
+    {
+        return message;
+    }
+
+    public int getLine()
+    {
+        return line;
+    }
+
+    public int getColumn()
+    {
+        return column;
+    }
+
+    public String toString()
+    {
+        if(line < 0)
+            return phase + ": " + message;
+
+        return phase + " (" + line + ":" + column + "): " + message;
+    }
+}
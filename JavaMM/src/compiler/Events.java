@@ -0,0 +1,41 @@
+package compiler;
+
+import jdk.jfr.FlightRecorder;
+
+import syntax.Node;
+
+/**
+ * Starts the Flight Recorder events of the compiler, but only once Flight Recorder is
+ * running. Loading a jdk.jfr.Event subclass adds a few hundred ms to the startup of the
+ * JVM, so PhaseEvent and MethodEvent must not be touched by runs that can't record them:
+ * those get null events, which finish ignores. A recording started later, e.g. with jcmd,
+ * is picked up by the next event.
+ */
+final class Events
+{
+    private Events()
+    {
+    }
+
+    public static PhaseEvent phase(CompilationContext context, String phase)
+    {
+        return FlightRecorder.isInitialized() ? PhaseEvent.start(context, phase) : null;
+    }
+
+    public static MethodEvent method(String pass)
+    {
+        return FlightRecorder.isInitialized() ? MethodEvent.start(pass) : null;
+    }
+
+    public static void finish(PhaseEvent event, CompilationContext context)
+    {
+        if(event != null)
+            event.finish(context);
+    }
+
+    public static void finish(MethodEvent event, CompilationContext context, Node function, int instructions)
+    {
+        if(event != null)
+            event.finish(context, function, instructions);
+    }
+}
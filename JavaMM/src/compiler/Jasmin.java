@@ -2,107 +2,106 @@ package compiler;
 
 import java.io.File;
 import java.io.IOException;
-import java.io.PrintWriter;
-import java.util.Iterator;
-import java.util.Set;
-import java.util.Map.Entry;
 
+import classfile.Opcodes;
 import symbol.Symbol;
 import symbol.SymbolTable;
+import syntax.JavaMMTreeConstants;
 import syntax.Node;
-import syntax.SimpleNode;
 
-public class Jasmin extends Compiler
+public class Jasmin implements Opcodes, JavaMMTreeConstants
 {
-    private static PrintWriter jWriter;
+    protected CompilationContext context;
+    private CodeEmitter code;
+    private String outputFile;
 
-    public Jasmin(String outputFile)
+    public Jasmin(CompilationContext context, String outputFile)
     {
-        jWriter = getJFile(outputFile);
+        this(context, new JasminEmitter());
+        this.outputFile = outputFile;
     }
 
-    public void parse(SimpleNode root)
+    public Jasmin(CompilationContext context, CodeEmitter code)
     {
-        if(jWriter == null)
-            return;
+        this.context = context;
+        this.code = code;
+    }
+
+    //Generates the class and, given an output file, writes it only if no errors were found
+    public boolean parse(Node root)
+    {
+        int errors = context.diagnostics.size();
+        PhaseEvent event = Events.phase(context, "generation");
 
         toJVM(root);
+        Events.finish(event, context);
+        code.endClass();
 
-        System.out.println("JVM file generated");
-        jWriter.close();
-    }
+        if(context.diagnostics.size() > errors)
+        {
+            context.out.println("Couldn't generate JVM file");
+            return false;
+        }
 
-    public PrintWriter getJFile(String outputFile)
-    {
-        try
+        if(outputFile != null)
         {
-            PrintWriter print_writer;
+            File jasminFile = new File(outputFile);
 
-            File jasmin_file = new File(outputFile);
+            if(!jasminFile.exists())
+                context.out.println("Couldn't find file, creating new one...");
 
-            if(!jasmin_file.exists())
+            try
             {
-                System.out.println("Couldn't find file, creating new one...");
-
-                jasmin_file = new File(outputFile);
-                jasmin_file.createNewFile();
+                ((JasminEmitter) code).writeTo(jasminFile.toPath());
+            }
+            catch(IOException e)
+            {
+                context.error("Couldn't write .j file: " + e.getMessage());
+                return false;
             }
-                
-            print_writer = new PrintWriter(jasmin_file);
-
-            return print_writer;
-        }
-        catch(IOException e)
-        {
-            System.err.println("Couldn't open .j file");
-            return null;
         }
+
+        context.out.println("JVM file generated");
+
+        return true;
     }
 
-    public void toJVM(SimpleNode root)
+    public void toJVM(Node root)
     {
         Node classNode = root.jjtGetChild(0);
         String extension;
 
-        if(classNode.jjtGetNumChildren() > 0 && classNode.jjtGetChild(0).toString().equals("Extends"))
+        if(classNode.jjtGetNumChildren() > 0 && classNode.jjtGetChild(0).getId() == JJTEXTENDS)
             extension = classNode.jjtGetChild(0).getName();
         else
             extension = "java/lang/Object";
 
-        jWriter.println(".class public " + className);
-        jWriter.println(".super " + extension + "\n");
-
-        Set<Entry<String, Symbol>> varsSet;
-        Iterator<Entry<String, Symbol>> varsIterator;
-        Entry<String, Symbol> var;
+        code.beginClass(context.className, extension);
 
-        varsSet = symbolTables.get(className).getTable().entrySet();
-        varsIterator = varsSet.iterator();
+        for(Symbol var: context.symbolTables.get(context.className).getTable())
+            code.field(var.getName(), getJVMType(var.getType()));
 
-        while(varsIterator.hasNext())
-        {
-            var = varsIterator.next();
-
-            jWriter.println(".field '" + var.getKey() + "' " + getJVMType(var.getValue().getType()));
-        }
 
-
-        jWriter.println("\n.method public <init>()V");
-        jWriter.println("\taload_0");
-        jWriter.println("\tinvokenonvirtual " + extension + "/<init>()V");
-        jWriter.println("\treturn");
-        jWriter.println(".end method\n");
+        code.beginMethod("<init>", "()V", false, -1);
+        code.varInstruction(ALOAD, 0);
+        code.methodInstruction(INVOKESPECIAL, extension, "<init>", "()V");
+        code.instruction(RETURN);
+        code.endMethod();
 
         for (int i = 0; i < classNode.jjtGetNumChildren(); i++)
         {
             Node child = classNode.jjtGetChild(i);
 
-            switch (child.toString())
+            switch (child.getId())
             {
-                case "Main":
-                case "Method":
-                    label = 0;
+                case JJTMAIN:
+                case JJTMETHOD:
+                    MethodEvent event = Events.method("generation");
+                    int instructions = code.getInstructionCount();
+
+                    context.label = 0;
                     functionToJVM(child);
+                    Events.finish(event, context, child, code.getInstructionCount() - instructions);
                     break;
 
                 default:
@@ -117,21 +116,21 @@ public class Jasmin extends Compiler
         int countStack = 1;
         for(int i=0; i<classNode.jjtGetNumChildren(); i++) {
 
-            switch (classNode.jjtGetChild(i).toString())
+            switch (classNode.jjtGetChild(i).getId())
                 {
-                    case "Var":
+                    case JJTVAR:
                         countStack++;
                         break;
-                    case "ADD":
+                    case JJTADD:
                         countStack--;
                         break;
-                    case "SUB":
+                    case JJTSUB:
                         countStack--;
                         break;
-                    case "MUL":
+                    case JJTMUL:
                         countStack--;
                         break;
-                    case "DIV":
+                    case JJTDIV:
                         countStack--;
                         break;
                     default:
@@ -145,56 +144,53 @@ public class Jasmin extends Compiler
     {
         int children = function.jjtGetNumChildren();
 
-        String funcName = getFunctionName(function);
-
-        int i = 0;
+        String funcName = Compiler.getFunctionName(function);
 
-        jWriter.print(".method public ");
+        int i = 0, nLocals = -1;
+        String descriptor;
 
         if(funcName.equals("main(1)"))
-            jWriter.println("static main([Ljava/lang/String;)V");
+            descriptor = "([Ljava/lang/String;)V";
         else
         {
-            jWriter.print(function.getName() + "(");
+            StringBuilder builder = new StringBuilder("(");
 
             for(; i < children; i++)
             {
                 Node arg = function.jjtGetChild(i);
 
-                if(arg.toString().equals("Arg"))
-                    jWriter.print(getJVMType(arg.getType()));
+                if(arg.getId() == JJTARG)
+                    builder.append(getJVMType(arg.getType()));
                 else
                     break;            
             }
 
-            jWriter.print(")" + getJVMType(function.getReturnType()) + "\n");
+            descriptor = builder.append(')').append(getJVMType(function.getReturnType())).toString();
         }
 
-        SymbolTable function_table = symbolTables.get(funcName);
+        SymbolTable function_table = context.symbolTables.get(funcName);
 
         if(function_table != null)
         {
-            int nLocals = function_table.getTable().size() + function_table.getArgs().size();
-
-            jWriter.println("\t.limit stack " +  999);
+            nLocals = function_table.getTable().size() + function_table.getArgs().size();
 
             if(!function_table.getReturnType().equals("void"))
                 nLocals++;
-
-            jWriter.println("\t.limit locals " + nLocals + "\n");
         }
 
+        code.beginMethod(function.getName(), descriptor, funcName.equals("main(1)"), nLocals);
+
         for(; i < children; i++)
         {
             Node child = function.jjtGetChild(i);
 
-            switch(child.toString())
+            switch(child.getId())
             {
-                case "Var":
-                case "Arg":
+                case JJTVAR:
+                case JJTARG:
                     break;
 
-                case "Return":
+                case JJTRETURN:
                     returnToJVM(child, funcName);
                     break;
 
@@ -207,18 +203,18 @@ public class Jasmin extends Compiler
         {
             case "int":
             case "boolean":
-                jWriter.println("\tireturn");
+                code.instruction(IRETURN);
                 break;
 
             case "int[]":
-                jWriter.println("\tareturn");
+                code.instruction(ARETURN);
                 break;
 
             case "void":
-                jWriter.println("\treturn");
+                code.instruction(RETURN);
         }
 
-        jWriter.println(".end method\n");
+        code.endMethod();
     }
 
     public void returnToJVM(Node returnNode, String funcName)
@@ -228,25 +224,25 @@ public class Jasmin extends Compiler
 
     public void getJVMInt(int constant)
     {
-        if(constant <= 5)
+        if(constant >= -1 && constant <= 5)
         {
-            jWriter.println("\ticonst_" + constant);
+            code.instruction(ICONST_0 + constant);
             return;
         }
 
-        if(constant < 128)
+        if(constant >= -128 && constant < 128)
         {
-            jWriter.println("\tbipush " + constant);
+            code.intInstruction(BIPUSH, constant);
             return;
         }
 
-        if(constant < 32768)
+        if(constant >= -32768 && constant < 32768)
         {
-            jWriter.println("\tsipush " + constant);
+            code.intInstruction(SIPUSH, constant);
             return;
         }
 
-        jWriter.println("\tldc " + constant);       
+        code.constant(constant);
     }
 
     public String getJVMType(String type)
@@ -263,36 +259,36 @@ public class Jasmin extends Compiler
                 return "[I";
 
             default:
-                return type;
+                return "L" + type + ";";
         }
     }
 
     public void statementToJVM(Node statement, String funcName)
     {
-        switch (statement.toString())
+        switch (statement.getId())
         {
-            case "If":
+            case JJTIF:
                 ifToJVM(statement, funcName);
                 break;
 
-            case "While":
+            case JJTWHILE:
                 whileToJVM(statement, funcName);
                 break;
 
-            case "TERM":
+            case JJTTERM:
                 termToJVM(statement, funcName, false, true, null, false);
                 break;
 
-            case "EQUALS":
+            case JJTEQUALS:
                 equalsToJVM(statement, funcName);
                 break;
 
-            case "Else":
-            case "Then":
+            case JJTELSE:
+            case JJTTHEN:
                 break;
 
             default:
-                System.out.println("Unexpected statement type in JVM parsing: " + statement.toString());
+                context.error("Unexpected statement type in JVM parsing: " + statement.toString());
         }
     }
 
@@ -307,22 +303,22 @@ public class Jasmin extends Compiler
         for(int i = 0; i < then.jjtGetNumChildren(); i++)
             statementToJVM(then.jjtGetChild(i), funcName);
 
-        jWriter.println("\tgoto " + endLabel);
-        jWriter.println("\n" + elseLabel + ":");
+        code.jumpInstruction(GOTO, endLabel);
+        code.label(elseLabel);
 
         Node elseNode = ifNode.jjtGetChild(2);
 
         for(int i = 0; i < elseNode.jjtGetNumChildren(); i++)
             statementToJVM(elseNode.jjtGetChild(i), funcName);
 
-        jWriter.println("\n" + endLabel + ":");
+        code.label(endLabel);
     }
 
     public void whileToJVM(Node whileNode, String funcName)
     {
         String conditionLabel = generateRandomLabel(funcName), endLabel = generateRandomLabel(funcName);
 
-        jWriter.println("\n" + conditionLabel + ":");
+        code.label(conditionLabel);
         expressionToJVM(whileNode.jjtGetChild(0), funcName, endLabel, false);
 
         Node then = whileNode.jjtGetChild(1);
@@ -330,8 +326,8 @@ public class Jasmin extends Compiler
         for(int i = 0; i < then.jjtGetNumChildren(); i++)
             statementToJVM(then.jjtGetChild(i), funcName);
 
-        jWriter.println("\tgoto " + conditionLabel);
-        jWriter.println("\n" + endLabel + ":");
+        code.jumpInstruction(GOTO, conditionLabel);
+        code.label(endLabel);
     }
 
     public void termToJVM(Node term, String funcName, boolean store, boolean loadClass, String conditionalLabel, boolean not)
@@ -344,18 +340,18 @@ public class Jasmin extends Compiler
             switch(termName)
             {
                 case "true":
-                    jWriter.println("\ticonst_1");
+                    code.instruction(ICONST_1);
                     value = "boolean";
                     break;
 
                 case "false":
-                    jWriter.println("\ticonst_0");
+                    code.instruction(ICONST_0);
                     value = "boolean";
                     break;
 
                 case "this":
-                    jWriter.println("\taload_0");
-                    value = className;
+                    code.varInstruction(ALOAD, 0);
+                    value = context.className;
                     break;
 
                 default:
@@ -369,7 +365,7 @@ public class Jasmin extends Compiler
                     } //Variable
                     catch(NumberFormatException nfe)
                     {
-                        value = semantic.identifierEvaluatesTo(term, funcName, true, false);
+                        value = context.semantic.identifierEvaluatesTo(term, funcName, true, false);
                         variableToJVM(term, funcName, store, loadClass);
                     }
             }
@@ -381,28 +377,27 @@ public class Jasmin extends Compiler
         Node termSon = term.jjtGetChild(0);
         boolean noNewNorEnclosedExpr = false, newObject = false;
 
-        switch(termSon.toString())
+        switch(termSon.getId())
         {
-            case "ENCLOSED_EXPR":
+            case JJTENCLOSED_EXPR:
                 if(termSon.jjtGetNumChildren() != 0)
                 {
-                    value = semantic.evaluatesTo(termSon.jjtGetChild(0), funcName);
+                    value = context.semantic.evaluatesTo(termSon.jjtGetChild(0), funcName);
                     expressionToJVM(termSon.jjtGetChild(0), funcName, conditionalLabel, not);
                     break;
                 }
 
-            case "NEW":
+            case JJTNEW:
                 if(termSon.jjtGetNumChildren() == 0) //New object
                 {
                     value = termSon.getType();
-                    jWriter.println("\tnew " + termSon.getType());
-                    jWriter.println("\tdup");
-                    jWriter.print("\tinvokenonvirtual ");
+                    code.typeInstruction(NEW, termSon.getType());
+                    code.instruction(DUP);
 
-                    if(termSon.getType().equals(className))
-                        jWriter.println(className + "/<init>()V");
+                    if(termSon.getType().equals(context.className))
+                        code.methodInstruction(INVOKESPECIAL, context.className, "<init>", "()V");
                     else
-                        jWriter.println(termSon.getType() + "/" + termSon.getType() + "()V");
+                        code.methodInstruction(INVOKESPECIAL, termSon.getType(), termSon.getType(), "()V");
 
                     newObject = true;
                 }
@@ -411,7 +406,7 @@ public class Jasmin extends Compiler
                     value = "int[]";
 
                     expressionToJVM(termSon.jjtGetChild(0).jjtGetChild(0), funcName, null, false);
-                    jWriter.println("\tnewarray int");
+                    code.intInstruction(NEWARRAY, T_INT);
                 }
 
                 break;
@@ -428,7 +423,7 @@ public class Jasmin extends Compiler
             {
                 /*
                 if(newObject)
-                    jWriter.println("\tpop"); */
+                    code.instruction(POP); */
 
                 return;
             }
@@ -441,7 +436,7 @@ public class Jasmin extends Compiler
             if(noNewNorEnclosedExpr)
             {
                 if(newObject)
-                    jWriter.println("\tpop");
+                    code.instruction(POP);
 
                 return;
             }
@@ -451,23 +446,23 @@ public class Jasmin extends Compiler
 
         Node termSecondSon = term.jjtGetChild(childIndex);
 
-        switch(termSecondSon.toString())
+        switch(termSecondSon.getId())
         {
-            case "ArrayAccs":
+            case JJTARRAYACCS:
                 expressionToJVM(termSecondSon.jjtGetChild(0), funcName, null, false);
 
                 if(!store) 
                 {
-                    if(term.jjtGetParent().toString().equals("EQUALS") && term.jjtGetParent().jjtGetChild(0) == term)
+                    if(term.jjtGetParent().getId() == JJTEQUALS && term.jjtGetParent().jjtGetChild(0).equals(term))
                         break;
                     else
-                        jWriter.println("\tiaload");
+                        code.instruction(IALOAD);
                 }
                     
 
                 break;
 
-            case "Member":
+            case JJTMEMBER:
 
                 boolean staticMember;
 
@@ -480,14 +475,14 @@ public class Jasmin extends Compiler
                     staticMember = false;
                     
                 if(termSecondSon.getName().equals("length"))
-                    jWriter.println("\tarraylength");
+                    code.instruction(ARRAYLENGTH);
                 else
                 {
                     functionCallToJVM(termSecondSon, funcName, value, staticMember);
 
                     /*
                     if(conditionalLabel != null)
-                        jWriter.println("\tifeq " + conditionalLabel); */
+                        code.jumpInstruction(IFEQ, conditionalLabel); */
                 }
                     
                 
@@ -495,7 +490,7 @@ public class Jasmin extends Compiler
                 break;
 
             default:
-                System.out.println("Unexpected term's second son in JVM term evaluation in function " + funcName
+                context.error("Unexpected term's second son in JVM term evaluation in function " + funcName
                     + ": " + termSecondSon.toString());
         }
     }
@@ -506,9 +501,9 @@ public class Jasmin extends Compiler
         boolean localFunc;
         String returnType;
 
-        if(caller.equals(className) || caller.equals(extendingClass))
+        if(caller.equals(context.className) || caller.equals(context.extendingClass))
         {
-            SymbolTable funcTable = symbolTables.get(member.getName() + "(" + member.jjtGetNumChildren() + ")");
+            SymbolTable funcTable = context.symbolTables.get(member.getName() + "(" + member.jjtGetNumChildren() + ")");
 
             if(funcTable != null)
             {
@@ -518,8 +513,8 @@ public class Jasmin extends Compiler
             }
             else
             {
-                if(caller.equals(className) && extendingClass != null)
-                    caller = extendingClass;
+                if(caller.equals(context.className) && context.extendingClass != null)
+                    caller = context.extendingClass;
 
                 argTypes = new String[member.jjtGetNumChildren()];
                 localFunc = false;
@@ -536,27 +531,18 @@ public class Jasmin extends Compiler
         for(int i = 0; i < member.jjtGetNumChildren(); i++)
         {
             if(!localFunc)
-                argTypes[i] = semantic.evaluatesTo(member.jjtGetChild(i), funcName);
+                argTypes[i] = context.semantic.evaluatesTo(member.jjtGetChild(i), funcName);
 
             expressionToJVM(member.jjtGetChild(i), funcName, null, false);
         }
 
-        String cmd = "invoke";
-
-        if(staticMember)
-            cmd += "static ";
-        else
-            cmd += "virtual ";
-
-        cmd += caller + "/" + member.getName() + "(";
+        StringBuilder descriptor = new StringBuilder("(");
 
         for(int i = 0; i < argTypes.length; i++)
-        {
-            cmd += getJVMType(argTypes[i]);
-        }
-            
+            descriptor.append(getJVMType(argTypes[i]));
 
-        jWriter.print("\t" + cmd + ")" + returnType + "\n");
+        code.methodInstruction(staticMember ? INVOKESTATIC : INVOKEVIRTUAL, caller, member.getName(),
+            descriptor.append(')').append(returnType).toString());
 
         if(returnType.equals("I") || returnType.equals("Z") || returnType.equals("A"))
             pop(member.jjtGetParent());
@@ -564,13 +550,13 @@ public class Jasmin extends Compiler
 
     public void pop(Node node)
     {
-        switch(node.jjtGetParent().toString())
+        switch(node.jjtGetParent().getId())
         {
-            case "Then":
-            case "Else":
-            case "Method":
-            case "Main":
-                jWriter.println("\tpop");
+            case JJTTHEN:
+            case JJTELSE:
+            case JJTMETHOD:
+            case JJTMAIN:
+                code.instruction(POP);
         }
     }
 
@@ -578,50 +564,50 @@ public class Jasmin extends Compiler
     {
         Node memberParent; 
         
-        if(member.toString().equals("ENCLOSED_EXPR"))
+        if(member.getId() == JJTENCLOSED_EXPR)
             memberParent = member.jjtGetParent();
         else
             memberParent = member.jjtGetParent().jjtGetParent();
 
-        switch(memberParent.toString())
+        switch(memberParent.getId())
         {
-            case "ENCLOSED_EXPR":
+            case JJTENCLOSED_EXPR:
                 return getExpectedType(memberParent, funcName);
 
-            case "MUL":
-            case "DIV":
-            case "ADD":
-            case "SUB":
-            case "LOWER":
-            case "ArrayAccs":
+            case JJTMUL:
+            case JJTDIV:
+            case JJTADD:
+            case JJTSUB:
+            case JJTLOWER:
+            case JJTARRAYACCS:
                 return "I";
 
-            case "Member":
-                if(symbolTables.get(getFunctionName(memberParent)) != null)
+            case JJTMEMBER:
+                if(context.symbolTables.get(Compiler.getFunctionName(memberParent)) != null)
                     for(int i = 0; i < memberParent.jjtGetNumChildren(); i++)
                     {
-                        if(memberParent.jjtGetChild(i) == member)
-                            return getJVMType(symbolTables.get(getFunctionName(memberParent)).getArgsList()[i]);   
+                        if(memberParent.jjtGetChild(i).equals(member))
+                            return getJVMType(context.symbolTables.get(Compiler.getFunctionName(memberParent)).getArgsList()[i]);   
                     }      
                 else
                     return "I"; //??
 
-            case "TERM":
-                    if(memberParent.jjtGetParent().toString().equals("EQUALS"))
-                        return getJVMType(semantic.evaluatesTo(memberParent.jjtGetParent().jjtGetChild(1), funcName));
+            case JJTTERM:
+                    if(memberParent.jjtGetParent().getId() == JJTEQUALS)
+                        return getJVMType(context.semantic.evaluatesTo(memberParent.jjtGetParent().jjtGetChild(1), funcName));
                     else 
                         return "V";
 
-            case "EQUALS":
-                    return getJVMType(semantic.evaluatesTo(memberParent.jjtGetChild(0), funcName));
+            case JJTEQUALS:
+                    return getJVMType(context.semantic.evaluatesTo(memberParent.jjtGetChild(0), funcName));
 
-            case "While":
-            case "If":
-            case "AND":
+            case JJTWHILE:
+            case JJTIF:
+            case JJTAND:
                 return "Z";
 
-            case "Return":
-                    return getJVMType(symbolTables.get(funcName).getReturnType());
+            case JJTRETURN:
+                    return getJVMType(context.symbolTables.get(funcName).getReturnType());
 
             default:
                 return "V";
@@ -632,33 +618,33 @@ public class Jasmin extends Compiler
     {
         String label1, label2;
 
-        switch(expression.toString())
+        switch(expression.getId())
         {
-            case "ADD":
+            case JJTADD:
                 expressionToJVM(expression.jjtGetChild(0), funcName, conditionalLabel, false);
                 expressionToJVM(expression.jjtGetChild(1), funcName, conditionalLabel, false);
-                jWriter.println("\tiadd");
+                code.instruction(IADD);
                 break;
 
-            case "SUB":
+            case JJTSUB:
                 expressionToJVM(expression.jjtGetChild(0), funcName, conditionalLabel, false);
                 expressionToJVM(expression.jjtGetChild(1), funcName, conditionalLabel, false);
-                jWriter.println("\tisub");
+                code.instruction(ISUB);
                 break;
 
-            case "DIV":
+            case JJTDIV:
                 expressionToJVM(expression.jjtGetChild(0), funcName, conditionalLabel, false);
                 expressionToJVM(expression.jjtGetChild(1), funcName, conditionalLabel, false);
-                jWriter.println("\tidiv");
+                code.instruction(IDIV);
                 break;
 
-            case "MUL":
+            case JJTMUL:
                 expressionToJVM(expression.jjtGetChild(0), funcName, conditionalLabel, false);
                 expressionToJVM(expression.jjtGetChild(1), funcName, conditionalLabel, false);
-                jWriter.println("\timul");
+                code.instruction(IMUL);
                 break;
 
-            case "AND":
+            case JJTAND:
 
                 if(conditionalLabel != null)
                     label1 = conditionalLabel;
@@ -668,32 +654,32 @@ public class Jasmin extends Compiler
                 expressionToJVM(expression.jjtGetChild(0), funcName, conditionalLabel, not);
 
                 if(not)
-                    jWriter.println("\tifne " + label1);
+                    code.jumpInstruction(IFNE, label1);
                 else
-                    jWriter.println("\tifeq " + label1);
+                    code.jumpInstruction(IFEQ, label1);
 
                 expressionToJVM(expression.jjtGetChild(1), funcName, conditionalLabel, not);
 
                 if(not)
-                    jWriter.println("\tifne " + label1);
+                    code.jumpInstruction(IFNE, label1);
                 else
-                    jWriter.println("\tifeq " + label1);
+                    code.jumpInstruction(IFEQ, label1);
 
                 if(conditionalLabel == null)
                 {
                     label2 = generateRandomLabel(funcName);
 
-                    jWriter.println("\ticonst_1");
-                    jWriter.println("\tgoto " + label2);
-                    jWriter.println("\n" + label1 + ":");
-                    jWriter.println("\ticonst_0");
-                    jWriter.println("\n" + label2 + ":");
+                    code.instruction(ICONST_1);
+                    code.jumpInstruction(GOTO, label2);
+                    code.label(label1);
+                    code.instruction(ICONST_0);
+                    code.label(label2);
                 }
                 
                 break;
 
 
-            case "LOWER":
+            case JJTLOWER:
 
                 if(conditionalLabel != null)
                     label1 = conditionalLabel;
@@ -704,24 +690,24 @@ public class Jasmin extends Compiler
                 expressionToJVM(expression.jjtGetChild(1), funcName, conditionalLabel, not);
 
                 if(not)
-                    jWriter.println("\tif_icmplt " + label1);
+                    code.jumpInstruction(IF_ICMPLT, label1);
                 else
-                    jWriter.println("\tif_icmpge " + label1);
+                    code.jumpInstruction(IF_ICMPGE, label1);
 
                 if(conditionalLabel == null)
                 {
                     label2 = generateRandomLabel(funcName);
 
-                    jWriter.println("\ticonst_1");
-                    jWriter.println("\tgoto " + label2);
-                    jWriter.println("\n" + label1 + ":");
-                    jWriter.println("\ticonst_0");
-                    jWriter.println("\n" + label2 + ":");
+                    code.instruction(ICONST_1);
+                    code.jumpInstruction(GOTO, label2);
+                    code.label(label1);
+                    code.instruction(ICONST_0);
+                    code.label(label2);
                 }
                 
                 break;
 
-            case "NOT":
+            case JJTNOT:
 
                 if(conditionalLabel != null)
                     label1 = conditionalLabel;
@@ -730,44 +716,44 @@ public class Jasmin extends Compiler
 
                 expressionToJVM(expression.jjtGetChild(0), funcName, conditionalLabel, true);
 
-                if(expression.jjtGetChild(0).toString().equals("TERM"))
+                if(expression.jjtGetChild(0).getId() == JJTTERM)
                 {
                     if(expression.jjtGetChild(0).jjtGetNumChildren() > 0 
-                        && expression.jjtGetChild(0).jjtGetChild(0).toString().equals("ENCLOSED_EXPR"))
+                        && expression.jjtGetChild(0).jjtGetChild(0).getId() == JJTENCLOSED_EXPR)
                     {
                         if(expression.jjtGetChild(0).jjtGetChild(0).jjtGetChild(0).jjtGetNumChildren() <= 1)
-                            jWriter.println("\tifne " + label1);  
+                            code.jumpInstruction(IFNE, label1);
                     }
                     else
-                        jWriter.println("\tifne " + label1);  
+                        code.jumpInstruction(IFNE, label1);
                 }
                             
                 if(conditionalLabel == null)
                 {
                     label2 = generateRandomLabel(funcName);
 
-                    jWriter.println("\ticonst_1");
-                    jWriter.println("\tgoto " + label2);
-                    jWriter.println("\n" + label1 + ":");
-                    jWriter.println("\ticonst_0");
-                    jWriter.println("\n" + label2 + ":");
+                    code.instruction(ICONST_1);
+                    code.jumpInstruction(GOTO, label2);
+                    code.label(label1);
+                    code.instruction(ICONST_0);
+                    code.label(label2);
                 }
                 
                 break;
 
-            case "TERM":
+            case JJTTERM:
                 
                 termToJVM(expression, funcName, false, true, conditionalLabel, not);
 
                 if(conditionalLabel != null && !not 
-                    && (expression.jjtGetParent().toString().equals("If") 
-                        || expression.jjtGetParent().toString().equals("While")))
-                    jWriter.println("\tifeq " + conditionalLabel);
+                    && (expression.jjtGetParent().getId() == JJTIF 
+                        || expression.jjtGetParent().getId() == JJTWHILE))
+                    code.jumpInstruction(IFEQ, conditionalLabel);
                 
                 break;
 
             default:
-                System.out.println("Unexpected token to parse to JVM in function " + funcName + ": " + expression.toString());
+                context.error("Unexpected token to parse to JVM in function " + funcName + ": " + expression.toString());
                 return;
         }
     }
@@ -779,14 +765,14 @@ public class Jasmin extends Compiler
         //aload_0 if lhs is class member
         //if lhs is ArrayAccs then switch lhs with expression (1st lhs then expression) 
 
-        if(symbolTables.get(className).getTable().get(lhs.getName()) != null)
-            jWriter.println("\taload_0");
+        if(context.symbolTables.get(context.className).getTable().get(lhs.getNameId()) != null)
+            code.varInstruction(ALOAD, 0);
 
-        if(lhs.jjtGetNumChildren() > 0 && lhs.jjtGetChild(0).toString().equals("ArrayAccs"))
+        if(lhs.jjtGetNumChildren() > 0 && lhs.jjtGetChild(0).getId() == JJTARRAYACCS)
         {
             termToJVM(lhs, funcName, false, false, null, false);
             expressionToJVM(expression, funcName, null, false);
-            jWriter.println("\tiastore");
+            code.instruction(IASTORE);
         }
         else
         {
@@ -798,22 +784,22 @@ public class Jasmin extends Compiler
         {
             lhsChild  = lhs.jjtGetChild(0);
             
-            switch(lhsChild.toString())
+            switch(lhsChild.getId())
             {
-                case "Member":
-                    SymbolTable funcST = symbolTables.get(funcName);
+                case JJTMEMBER:
+                    SymbolTable funcST = context.symbolTables.get(funcName);
                     Symbol caller;
 
-                    caller = funcST.getTable().get(lhs.getName());
+                    caller = funcST.getTable().get(lhs.getNameId());
 
                     if(caller == null)
-                        caller = funcST.getArgs().get(lhs.getName());
+                        caller = funcST.getArgs().get(lhs.getNameId());
 
                     if(caller == null)
                     {
-                        funcST = symbolTables.get(className);
+                        funcST = context.symbolTables.get(context.className);
 
-                        caller = funcST.getTable().get(lhs.getName());
+                        caller = funcST.getTable().get(lhs.getNameId());
                     }
 
                     if(caller != null)
@@ -822,84 +808,61 @@ public class Jasmin extends Compiler
                         functionCallToJVM(lhsChild, funcName, lhs.getName(), true);
             }
         }
-
-        jWriter.print("\n");
     }
 
     public String generateRandomLabel(String funcName)
     {
-        label++;
+        context.label++;
 
-        return funcName + label;
+        return funcName + context.label;
     }
 
     public void variableToJVM(Node identifier, String funcName, boolean store, boolean loadClass)
     {
-        SymbolTable symbolTable = symbolTables.get(funcName);
+        SymbolTable symbolTable = context.symbolTables.get(funcName);
         Symbol variable;
-        String cmd;
 
         if(symbolTable != null)
         {
-            variable = symbolTable.getTable().get(identifier.getName());
+            variable = symbolTable.getTable().get(identifier.getNameId());
 
             if(variable == null)
             {
-                variable = symbolTable.getArgs().get(identifier.getName());
+                variable = symbolTable.getArgs().get(identifier.getNameId());
 
                 if(variable == null)
                 {
-                    symbolTable = symbolTables.get(className);
+                    symbolTable = context.symbolTables.get(context.className);
 
                     if(symbolTable != null)
                     {
-                        variable = symbolTable.getTable().get(identifier.getName());
+                        variable = symbolTable.getTable().get(identifier.getNameId());
 
                         if(variable != null)
                         {
                             if(loadClass)
-                                jWriter.println("\taload_0");
+                                code.varInstruction(ALOAD, 0);
 
                             if(store && !(identifier.jjtGetNumChildren() > 0 
-                                && identifier.jjtGetChild(0).toString().equals("ArrayAccs")))
-                                jWriter.println("\tputfield " + className + "/" + variable.getName() 
-                                    + " " + getJVMType(variable.getType()));
+                                && identifier.jjtGetChild(0).getId() == JJTARRAYACCS))
+                                code.fieldInstruction(PUTFIELD, context.className, variable.getName(),
+                                    getJVMType(variable.getType()));
                             else
-                                jWriter.println("\tgetfield " + className + "/" + variable.getName() 
-                                    + " " + getJVMType(variable.getType()));
+                                code.fieldInstruction(GETFIELD, context.className, variable.getName(),
+                                    getJVMType(variable.getType()));
                         }
                     }
 
                     return;
                 }
-                else
-                {
-                    if(store)
-                        cmd = "store_" + variable.getIndex();
-                    else
-                        cmd = "load_" + variable.getIndex();
-                }
-            }
-            else
-            {
-                if(store)
-                    cmd = "store " + variable.getIndex();
-                else
-                    cmd = "load " + variable.getIndex();
             }
 
-            switch(variable.getType())
-            {
-                case "int":
-                case "boolean":
-                    cmd = "\ti" + cmd;
-                    break;
-
-                default:
-                    cmd = "\ta" + cmd;
-            }
+            boolean integer = variable.getType().equals("int") || variable.getType().equals("boolean");
 
-            jWriter.println(cmd);
+            if(store)
+                code.varInstruction(integer ? ISTORE : ASTORE, variable.getIndex());
+            else
+                code.varInstruction(integer ? ILOAD : ALOAD, variable.getIndex());
         }
     }
 }
\ No newline at end of file
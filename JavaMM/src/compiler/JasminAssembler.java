@@ -0,0 +1,41 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
+
+import jasmin.ClassFile;
+
+/**
+ * Assembles Jasmin code with the bundled assembler (jasmin.jar) in the running JVM,
+ * without an intermediate .j file.
+ */
+class JasminAssembler
+{
+    //Returns the class file bytes, or null if the assembler reported errors
+    public static byte[] assemble(CompilationContext context, String jasminCode, String sourceName)
+    {
+        ClassFile classFile = new ClassFile();
+
+        try
+        {
+            classFile.readJasmin(new StringReader(jasminCode), sourceName, false);
+
+            if(classFile.errorCount() > 0)
+            {
+                context.error("Jasmin found " + classFile.errorCount() + " error(s) in the generated code");
+                return null;
+            }
+
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+            classFile.write(bytes);
+
+            return bytes.toByteArray();
+        }
+        catch(Exception e)
+        {
+            context.error("Couldn't assemble the generated code: " + e.toString());
+            return null;
+        }
+    }
+}
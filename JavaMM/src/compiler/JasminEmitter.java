@@ -0,0 +1,188 @@
+package compiler;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import classfile.Opcodes;
+
+/**
+ * Writes the generated class as Jasmin assembly into a buffer, which is written out in one
+ * go once the whole class has been generated.
+ */
+class JasminEmitter implements CodeEmitter, Opcodes
+{
+    private static final String[] MNEMONICS = new String[256];
+
+    static
+    {
+        MNEMONICS[ICONST_M1] = "iconst_m1";
+        MNEMONICS[ICONST_0] = "iconst_0";
+        MNEMONICS[ICONST_1] = "iconst_1";
+        MNEMONICS[ICONST_2] = "iconst_2";
+        MNEMONICS[ICONST_3] = "iconst_3";
+        MNEMONICS[ICONST_4] = "iconst_4";
+        MNEMONICS[ICONST_5] = "iconst_5";
+        MNEMONICS[BIPUSH] = "bipush";
+        MNEMONICS[SIPUSH] = "sipush";
+        MNEMONICS[ILOAD] = "iload";
+        MNEMONICS[ALOAD] = "aload";
+        MNEMONICS[IALOAD] = "iaload";
+        MNEMONICS[ISTORE] = "istore";
+        MNEMONICS[ASTORE] = "astore";
+        MNEMONICS[IASTORE] = "iastore";
+        MNEMONICS[POP] = "pop";
+        MNEMONICS[DUP] = "dup";
+        MNEMONICS[IADD] = "iadd";
+        MNEMONICS[ISUB] = "isub";
+        MNEMONICS[IMUL] = "imul";
+        MNEMONICS[IDIV] = "idiv";
+        MNEMONICS[IFEQ] = "ifeq";
+        MNEMONICS[IFNE] = "ifne";
+        MNEMONICS[IF_ICMPLT] = "if_icmplt";
+        MNEMONICS[IF_ICMPGE] = "if_icmpge";
+        MNEMONICS[GOTO] = "goto";
+        MNEMONICS[IRETURN] = "ireturn";
+        MNEMONICS[ARETURN] = "areturn";
+        MNEMONICS[RETURN] = "return";
+        MNEMONICS[GETFIELD] = "getfield";
+        MNEMONICS[PUTFIELD] = "putfield";
+        MNEMONICS[INVOKEVIRTUAL] = "invokevirtual";
+        MNEMONICS[INVOKESPECIAL] = "invokenonvirtual";
+        MNEMONICS[INVOKESTATIC] = "invokestatic";
+        MNEMONICS[NEW] = "new";
+        MNEMONICS[NEWARRAY] = "newarray";
+        MNEMONICS[ARRAYLENGTH] = "arraylength";
+    }
+
+    private StringBuilder out;
+    private int instructions;
+
+    public JasminEmitter()
+    {
+        this(new StringBuilder(8192));
+    }
+
+    //Appends to the given buffer, which callers may reuse between classes
+    public JasminEmitter(StringBuilder out)
+    {
+        this.out = out;
+    }
+
+    public void beginClass(String className, String superName)
+    {
+        out.append(".class public ").append(className).append('\n');
+        out.append(".super ").append(superName).append("\n\n");
+    }
+
+    public void field(String name, String descriptor)
+    {
+        out.append(".field '").append(name).append("' ").append(descriptor).append('\n');
+    }
+
+    public void beginMethod(String name, String descriptor, boolean isStatic, int maxLocals)
+    {
+        out.append("\n.method public ").append(isStatic ? "static " : "").append(name).append(descriptor).append('\n');
+
+        if(maxLocals >= 0)
+        {
+            out.append("\t.limit stack 999\n");
+            out.append("\t.limit locals ").append(maxLocals).append("\n\n");
+        }
+    }
+
+    public int getInstructionCount()
+    {
+        return instructions;
+    }
+
+    public CharSequence getCode()
+    {
+        return out;
+    }
+
+    //Writes the whole class at once, replacing the file if it exists
+    public void writeTo(Path file) throws IOException
+    {
+        ByteBuffer bytes = Charset.defaultCharset().encode(CharBuffer.wrap(out));
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.TRUNCATE_EXISTING))
+        {
+            while(bytes.hasRemaining())
+                channel.write(bytes);
+        }
+    }
+
+    public void endMethod()
+    {
+        out.append(".end method\n");
+    }
+
+    public void endClass()
+    {
+    }
+
+    public void instruction(int opcode)
+    {
+        emit(MNEMONICS[opcode]).append('\n');
+    }
+
+    public void intInstruction(int opcode, int operand)
+    {
+        if(opcode == NEWARRAY)
+            emit("newarray int").append('\n');
+        else
+            emit(MNEMONICS[opcode]).append(' ').append(operand).append('\n');
+    }
+
+    public void constant(int value)
+    {
+        emit("ldc ").append(value).append('\n');
+    }
+
+    public void varInstruction(int opcode, int index)
+    {
+        if(index <= 3)
+            emit(MNEMONICS[opcode]).append('_').append(index).append('\n');
+        else
+            emit(MNEMONICS[opcode]).append(' ').append(index).append('\n');
+    }
+
+    public void jumpInstruction(int opcode, String label)
+    {
+        emit(MNEMONICS[opcode]).append(' ').append(label).append('\n');
+    }
+
+    public void label(String label)
+    {
+        out.append('\n').append(label).append(":\n");
+    }
+
+    public void typeInstruction(int opcode, String className)
+    {
+        emit(MNEMONICS[opcode]).append(' ').append(className).append('\n');
+    }
+
+    public void fieldInstruction(int opcode, String owner, String name, String descriptor)
+    {
+        emit(MNEMONICS[opcode]).append(' ').append(owner).append('/').append(name).append(' ').append(descriptor)
+            .append('\n');
+    }
+
+    public void methodInstruction(int opcode, String owner, String name, String descriptor)
+    {
+        emit(MNEMONICS[opcode]).append(' ').append(owner).append('/').append(name).append(descriptor).append('\n');
+    }
+
+    //Starts an instruction line, which the caller completes
+    private StringBuilder emit(String mnemonic)
+    {
+        instructions++;
+        return out.append('\t').append(mnemonic);
+    }
+}
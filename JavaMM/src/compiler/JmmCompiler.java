@@ -0,0 +1,84 @@
+package compiler;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+import syntax.Node;
+
+/**
+ * Compiles Java-- source held in memory, for embedding the compiler in other programs.
+ * No files are read or written, except for the build cache when the options name one: the
+ * output and the errors are returned in the result, and the progress messages of the
+ * command line are discarded.
+ */
+public class JmmCompiler
+{
+    public static CompilationResult compile(CharSequence source, Options options)
+    {
+        CompilationContext context = new CompilationContext(options, new PrintStream(OutputStream.nullOutputStream()));
+
+        if(options.cacheDirectory == null)
+            return compile(context, source.toString());
+
+        //The cache directory, when given, is the only place touched
+        try
+        {
+            BuildCache cache = new BuildCache(options);
+            String key = cache.key(source.toString().getBytes(StandardCharsets.UTF_8), options);
+            BuildCache.Entry entry = cache.get(key);
+
+            if(entry != null)
+            {
+                if(options.emitClass)
+                    return new CompilationResult(true, entry.className, null, entry.output, context.diagnostics);
+
+                return new CompilationResult(true, entry.className, new String(entry.output, StandardCharsets.UTF_8), null,
+                    context.diagnostics);
+            }
+
+            CompilationResult result = compile(context, source.toString());
+
+            if(result.isSuccess())
+                cache.put(key, result.getClassName(), options.emitClass ? result.getClassBytes()
+                    : result.getJasminCode().getBytes(StandardCharsets.UTF_8));
+
+            return result;
+        }
+        catch(IOException e)
+        {
+            context.error("Couldn't use build cache: " + e.toString());
+            return result(context, false, null, null);
+        }
+    }
+
+    private static CompilationResult compile(CompilationContext context, String source)
+    {
+        Options options = context.options;
+        Node root = Compiler.parseSource(context, source);
+
+        //Syntax errors, even those the parser recovered from, fail the analysis
+        if(!Compiler.analyse(context, root))
+            return result(context, false, null, null);
+
+        if(options.emitClass)
+        {
+            byte[] classBytes = Compiler.generateClassBytes(context, root);
+
+            return result(context, classBytes != null, null, classBytes);
+        }
+
+        JasminEmitter jasminCode = new JasminEmitter();
+        boolean generated = new Jasmin(context, jasminCode).parse(root);
+
+        return result(context, generated, jasminCode.getCode().toString(), null);
+    }
+
+    private static CompilationResult result(CompilationContext context, boolean success, String jasminCode,
+        byte[] classBytes)
+    {
+        return new CompilationResult(success, context.className, success ? jasminCode : null,
+            success ? classBytes : null, context.diagnostics);
+    }
+}
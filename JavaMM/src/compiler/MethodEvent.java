@@ -0,0 +1,67 @@
+package compiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+import syntax.Node;
+
+/**
+ * Flight Recorder event spanning the semantic analysis or the code generation of one
+ * method. The nodes of the method are only counted while the event is being recorded.
+ */
+@Name("javamm.Method")
+@Label("Method Compilation")
+@Category("JavaMM")
+@Description("Semantic analysis or code generation of one method")
+class MethodEvent extends Event
+{
+    @Label("Pass")
+    String pass;
+
+    @Label("Class")
+    String className;
+
+    @Label("Method")
+    String method;
+
+    @Label("Nodes")
+    int nodes;
+
+    @Label("Instructions")
+    int instructions;
+
+    public static MethodEvent start(String pass)
+    {
+        MethodEvent event = new MethodEvent();
+
+        event.pass = pass;
+        event.begin();
+
+        return event;
+    }
+
+    public void finish(CompilationContext context, Node function, int instructions)
+    {
+        if(shouldCommit())
+        {
+            this.className = context.className;
+            this.method = Compiler.getFunctionName(function);
+            this.nodes = countNodes(function);
+            this.instructions = instructions;
+            commit();
+        }
+    }
+
+    private static int countNodes(Node node)
+    {
+        int count = 1;
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            count += countNodes(node.jjtGetChild(i));
+
+        return count;
+    }
+}
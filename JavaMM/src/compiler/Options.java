@@ -0,0 +1,300 @@
+package compiler;
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Options
+{
+    protected boolean batch = false;
+    protected String outputDirectory;
+    protected int jobs = 0;
+    protected boolean server = false;
+    protected boolean client = false;
+    protected String socket;
+    protected boolean emitClass = false;
+    protected boolean directBackend = false;
+    protected boolean run = false;
+    protected boolean fastParse = true;
+    protected boolean flatTree = false;
+    protected int maxErrors = 100;
+    protected String watch;
+    protected String cacheDirectory;
+    protected String stats;
+    protected long cacheSize = 256L << 20;
+    protected String runtime = "src/jasmin";
+    protected List<String> programArgs = new ArrayList<String>();
+    protected List<String> inputs = new ArrayList<String>();
+
+    public static Options parse(String[] args)
+    {
+        Options options = new Options();
+
+        for(int i = 0; i < args.length; i++)
+        {
+            //In run mode, whatever follows the source file is passed on to the program
+            if(options.run && !options.inputs.isEmpty())
+            {
+                options.programArgs.add(args[i]);
+                continue;
+            }
+
+            switch(args[i])
+            {
+                case "--run":
+                    options.run = true;
+                    options.emitClass = true;
+                    break;
+
+                case "--watch":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing directory after --watch");
+                        return null;
+                    }
+
+                    options.watch = args[i];
+                    break;
+
+                case "--cache":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing directory after --cache");
+                        return null;
+                    }
+
+                    options.cacheDirectory = args[i];
+                    break;
+
+                case "--cache-size":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing size after --cache-size");
+                        return null;
+                    }
+
+                    try
+                    {
+                        options.cacheSize = Long.parseLong(args[i]) << 20;
+                    }
+                    catch(NumberFormatException nfe)
+                    {
+                        options.cacheSize = 0;
+                    }
+
+                    if(options.cacheSize <= 0)
+                    {
+                        System.out.println("Invalid cache size in MB: " + args[i]);
+                        return null;
+                    }
+
+                    break;
+
+                case "--stats":
+                    if(++i == args.length || !(args[i].equals("table") || args[i].equals("json")))
+                    {
+                        System.out.println("--stats takes table or json");
+                        return null;
+                    }
+
+                    options.stats = args[i];
+                    break;
+
+                case "--runtime":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing directory after --runtime");
+                        return null;
+                    }
+
+                    options.runtime = args[i];
+                    break;
+
+                case "--batch":
+                    options.batch = true;
+                    break;
+
+                case "--server":
+                case "--client":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing socket path after " + args[i - 1]);
+                        return null;
+                    }
+
+                    options.server = args[i - 1].equals("--server");
+                    options.client = !options.server;
+                    options.socket = args[i];
+                    break;
+
+                case "--class":
+                    options.emitClass = true;
+                    break;
+
+                case "--no-fast-parse":
+                    options.fastParse = false;
+                    break;
+
+                case "--flat-ast":
+                    options.flatTree = true;
+                    break;
+
+                case "--max-errors":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing number of errors after --max-errors");
+                        return null;
+                    }
+
+                    try
+                    {
+                        options.maxErrors = Integer.parseInt(args[i]);
+                    }
+                    catch(NumberFormatException nfe)
+                    {
+                        options.maxErrors = 0;
+                    }
+
+                    if(options.maxErrors < 1)
+                    {
+                        System.out.println("Invalid number of errors: " + args[i]);
+                        return null;
+                    }
+
+                    break;
+
+                case "--backend":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing backend after --backend");
+                        return null;
+                    }
+
+                    switch(args[i])
+                    {
+                        case "jasmin":
+                            options.directBackend = false;
+                            break;
+
+                        case "classfile":
+                            options.directBackend = true;
+                            options.emitClass = true;
+                            break;
+
+                        default:
+                            System.out.println("Unknown backend: " + args[i]);
+                            return null;
+                    }
+
+                    break;
+
+                case "-d":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing directory after -d");
+                        return null;
+                    }
+
+                    options.outputDirectory = args[i];
+                    break;
+
+                case "-j":
+                case "--jobs":
+                    if(++i == args.length)
+                    {
+                        System.out.println("Missing number of jobs after " + args[i - 1]);
+                        return null;
+                    }
+
+                    try
+                    {
+                        options.jobs = Integer.parseInt(args[i]);
+                    }
+                    catch(NumberFormatException nfe)
+                    {
+                        options.jobs = 0;
+                    }
+
+                    if(options.jobs < 1)
+                    {
+                        System.out.println("Invalid number of jobs: " + args[i]);
+                        return null;
+                    }
+
+                    break;
+
+                default:
+                    options.inputs.add(args[i]);
+            }
+        }
+
+        if(options.server || options.watch != null)
+            return options.inputs.isEmpty() ? options : null;
+
+        if(options.batch || options.client)
+            return options.inputs.isEmpty() ? null : options;
+
+        if(options.run)
+            return options.inputs.size() == 1 ? options : null;
+
+        return options.inputs.size() < 2 ? null : options;
+    }
+
+    //Copy of the options, for one compilation to change the output mode of
+    public Options copy()
+    {
+        Options options = new Options();
+
+        options.batch = batch;
+        options.outputDirectory = outputDirectory;
+        options.jobs = jobs;
+        options.server = server;
+        options.client = client;
+        options.socket = socket;
+        options.emitClass = emitClass;
+        options.directBackend = directBackend;
+        options.run = run;
+        options.fastParse = fastParse;
+        options.flatTree = flatTree;
+        options.maxErrors = maxErrors;
+        options.watch = watch;
+        options.cacheDirectory = cacheDirectory;
+        options.stats = stats;
+        options.cacheSize = cacheSize;
+        options.runtime = runtime;
+        options.programArgs = new ArrayList<String>(programArgs);
+        options.inputs = new ArrayList<String>(inputs);
+
+        return options;
+    }
+
+    //Output mode, as sent in the compile server protocol: "j" for Jasmin code, "class" for a
+    //class file assembled by Jasmin and "classfile" for one written by the classfile backend
+    public String getMode()
+    {
+        if(directBackend)
+            return "classfile";
+
+        return emitClass ? "class" : "j";
+    }
+
+    public void setMode(String mode)
+    {
+        directBackend = mode.equals("classfile");
+        emitClass = directBackend || mode.equals("class");
+    }
+
+    public static void printUsage()
+    {
+        System.out.println("Usage: JavaMMMain [--class] [--backend <jasmin|classfile>] <input_filename> <output_filename|output_dir>");
+        System.out.println("       JavaMMMain --batch [--class] [--backend <jasmin|classfile>] [-d <output_dir>] [-j <jobs>] <file|dir|@argfile>...");
+        System.out.println("       JavaMMMain --run [--backend <jasmin|classfile>] [--runtime <dir>] <input_filename> [args...]");
+        System.out.println("       JavaMMMain --watch <dir> [--class] [--backend <jasmin|classfile>] [-d <output_dir>]");
+        System.out.println("       JavaMMMain --server <socket_path> [-j <jobs>] [--cache <dir>] [--stats <table|json>]");
+        System.out.println("       JavaMMMain --client <socket_path> [--class] [--backend <jasmin|classfile>] [-d <output_dir>] <file|dir|@argfile>...");
+        System.out.println("Every mode accepts --cache <dir> [--cache-size <MB>] to reuse earlier outputs.");
+        System.out.println("Single, batch, watch and server modes accept --stats <table|json> to report time and allocations per phase.");
+        System.out.println("Every mode accepts --no-fast-parse to track line and column from the start, instead of only after a syntax error.");
+        System.out.println("Every mode accepts --flat-ast to keep the syntax tree in flat arrays, for very large sources.");
+        System.out.println("Every mode accepts --max-errors <n> to stop parsing a file after n syntax errors (100 by default).");
+    }
+}
@@ -0,0 +1,46 @@
+package compiler;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Flight Recorder event spanning one phase of a compilation, started through Events.
+ */
+@Name("javamm.Phase")
+@Label("Compiler Phase")
+@Category("JavaMM")
+@Description("Parse, symbol table build, semantic analysis or code generation of one source")
+class PhaseEvent extends Event
+{
+    @Label("Phase")
+    String phase;
+
+    @Label("Source")
+    String source;
+
+    @Label("Class")
+    String className;
+
+    public static PhaseEvent start(CompilationContext context, String phase)
+    {
+        PhaseEvent event = new PhaseEvent();
+
+        event.phase = phase;
+        event.source = context.sourceFile;
+        event.begin();
+
+        return event;
+    }
+
+    public void finish(CompilationContext context)
+    {
+        if(shouldCommit())
+        {
+            className = context.className;
+            commit();
+        }
+    }
+}
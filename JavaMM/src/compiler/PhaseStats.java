@@ -0,0 +1,162 @@
+package compiler;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import syntax.Node;
+import syntax.Token;
+
+/**
+ * Wall time and allocated bytes of each phase of one compilation, with a few counters
+ * about its size. Phases must begin and end on the same thread, as allocations are
+ * counted per thread.
+ */
+class PhaseStats
+{
+    private static final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    private String file;
+    private LinkedHashMap<String, long[]> phases;
+    private LinkedHashMap<String, Integer> symbols;
+    private String phase;
+    private long start;
+    private long startAllocated;
+
+    protected int tokens;
+    protected int nodes;
+    protected long bytesEmitted;
+
+    public PhaseStats(String file)
+    {
+        this.file = file;
+        this.phases = new LinkedHashMap<String, long[]>();
+        this.symbols = new LinkedHashMap<String, Integer>();
+    }
+
+    public void begin(String phase)
+    {
+        this.phase = phase;
+        this.startAllocated = allocatedBytes();
+        this.start = System.nanoTime();
+    }
+
+    public void end()
+    {
+        long elapsed = System.nanoTime() - start;
+        long allocated = startAllocated < 0 ? -1 : allocatedBytes() - startAllocated;
+
+        phases.put(phase, new long[] {elapsed, allocated});
+    }
+
+    public void countTokens(Token first)
+    {
+        for(Token token = first.next; token != null && token.kind != 0; token = token.next)
+            tokens++;
+    }
+
+    public void countNodes(Node node)
+    {
+        nodes++;
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            countNodes(node.jjtGetChild(i));
+    }
+
+    public void countSymbols(String table, int count)
+    {
+        symbols.put(table, count);
+    }
+
+    public void print(PrintStream out, String format)
+    {
+        if(format.equals("json"))
+            out.println(toJson());
+        else
+            printTable(out);
+    }
+
+    private void printTable(PrintStream out)
+    {
+        out.println("Stats for " + file);
+        out.println(String.format("  %-12s %12s %16s", "phase", "time (ms)", "allocated (KB)"));
+
+        for(Map.Entry<String, long[]> entry: phases.entrySet())
+        {
+            long[] values = entry.getValue();
+
+            out.println(String.format("  %-12s %12.3f %16s", entry.getKey(), values[0] / 1e6,
+                values[1] < 0 ? "n/a" : String.valueOf(values[1] / 1024)));
+        }
+
+        out.println("  tokens " + tokens + ", nodes " + nodes + ", bytes emitted " + bytesEmitted);
+
+        if(!symbols.isEmpty())
+        {
+            StringBuilder line = new StringBuilder("  symbols:");
+
+            for(Map.Entry<String, Integer> entry: symbols.entrySet())
+                line.append(' ').append(entry.getKey()).append(' ').append(entry.getValue());
+
+            out.println(line);
+        }
+    }
+
+    private String toJson()
+    {
+        StringBuilder json = new StringBuilder("{\"file\":").append(quote(file)).append(",\"phases\":{");
+        boolean first = true;
+
+        for(Map.Entry<String, long[]> entry: phases.entrySet())
+        {
+            json.append(first ? "" : ",").append(quote(entry.getKey()))
+                .append(":{\"ns\":").append(entry.getValue()[0])
+                .append(",\"allocatedBytes\":").append(entry.getValue()[1]).append('}');
+            first = false;
+        }
+
+        json.append("},\"tokens\":").append(tokens).append(",\"nodes\":").append(nodes).append(",\"symbols\":{");
+        first = true;
+
+        for(Map.Entry<String, Integer> entry: symbols.entrySet())
+        {
+            json.append(first ? "" : ",").append(quote(entry.getKey())).append(':').append(entry.getValue());
+            first = false;
+        }
+
+        return json.append("},\"bytesEmitted\":").append(bytesEmitted).append('}').toString();
+    }
+
+    private static String quote(String value)
+    {
+        StringBuilder quoted = new StringBuilder("\"");
+
+        for(char c: value.toCharArray())
+        {
+            if(c == '"' || c == '\\')
+                quoted.append('\\').append(c);
+            else if(c < ' ')
+                quoted.append(String.format("\\u%04x", (int) c));
+            else
+                quoted.append(c);
+        }
+
+        return quoted.append('"').toString();
+    }
+
+    //Bytes allocated so far by the current thread, or -1 where the JVM can't tell
+    static long allocatedBytes()
+    {
+        if(threads instanceof com.sun.management.ThreadMXBean)
+        {
+            com.sun.management.ThreadMXBean sunThreads = (com.sun.management.ThreadMXBean) threads;
+
+            if(sunThreads.isThreadAllocatedMemorySupported() && sunThreads.isThreadAllocatedMemoryEnabled())
+                return sunThreads.getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,108 @@
+package compiler;
+
+import java.io.File;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+
+/**
+ * Compiles a program in memory and runs its main method in the running JVM. The class is
+ * defined by its own class loader, which also loads the runtime library classes (io,
+ * ioPlus, MathUtils) from the runtime directory: their methods are package-private, so
+ * they must share the program's runtime package.
+ */
+class ProgramRunner
+{
+    private static class ProgramClassLoader extends URLClassLoader
+    {
+        private String className;
+        private byte[] classBytes;
+
+        public ProgramClassLoader(URL runtime, String className, byte[] classBytes)
+        {
+            super(new URL[] {runtime}, ClassLoader.getPlatformClassLoader());
+            this.className = className;
+            this.classBytes = classBytes;
+        }
+
+        //The compiled class comes first, so that a stale class file of the same name in the
+        //runtime directory doesn't shadow it
+        protected Class<?> findClass(String name) throws ClassNotFoundException
+        {
+            if(name.equals(className))
+                return defineClass(name, classBytes, 0, classBytes.length);
+
+            return super.findClass(name);
+        }
+    }
+
+    public static boolean run(Options options) throws Exception
+    {
+        String inputFile = options.inputs.get(0);
+        File runtime = new File(options.runtime);
+
+        if(!runtime.isDirectory())
+        {
+            System.out.println("Couldn't find runtime directory " + runtime.getPath());
+            return false;
+        }
+
+        long start = System.nanoTime();
+        String source = new String(Files.readAllBytes(Paths.get(inputFile)));
+        CompilationResult result = JmmCompiler.compile(source, options);
+        long compileTime = System.nanoTime() - start;
+
+        if(!result.isSuccess())
+        {
+            for(Diagnostic diagnostic: result.getDiagnostics())
+                System.out.println(diagnostic);
+
+            System.out.println("Couldn't compile " + inputFile);
+            return false;
+        }
+
+        //Timings go to stderr, leaving stdout to the program
+        System.err.println("Compiled " + inputFile + " in " + toMillis(compileTime) + " ms");
+
+        try(ProgramClassLoader loader = new ProgramClassLoader(runtime.toURI().toURL(), result.getClassName(),
+            result.getClassBytes()))
+        {
+            String[] args = options.programArgs.toArray(new String[0]);
+
+            start = System.nanoTime();
+
+            try
+            {
+                Method main = loader.loadClass(result.getClassName()).getMethod("main", String[].class);
+
+                main.invoke(null, (Object) args);
+            }
+            catch(InvocationTargetException e)
+            {
+                System.out.flush();
+                e.getCause().printStackTrace();
+                return false;
+            }
+            catch(LinkageError | ReflectiveOperationException e)
+            {
+                System.out.println("Couldn't run " + result.getClassName() + ": " + e.toString());
+                return false;
+            }
+            finally
+            {
+                System.out.flush();
+                System.err.println("Ran " + result.getClassName() + " in " + toMillis(System.nanoTime() - start) + " ms");
+            }
+        }
+
+        return true;
+    }
+
+    private static String toMillis(long nanos)
+    {
+        return String.format("%.2f", nanos / 1e6);
+    }
+}
@@ -2,12 +2,19 @@ package compiler;
 
 import symbol.Symbol;
 import symbol.SymbolTable;
+import syntax.JavaMMTreeConstants;
 import syntax.Node;
-import syntax.SimpleNode;
 
-public class Semantic extends Compiler
+public class Semantic implements JavaMMTreeConstants
 {
-    public boolean analyse(SimpleNode root)
+    protected CompilationContext context;
+
+    public Semantic(CompilationContext context)
+    {
+        this.context = context;
+    }
+
+    public boolean analyse(Node root)
     {
         boolean continueAnalysis;
         Node classNode = root.jjtGetChild(0);
@@ -16,11 +23,14 @@ public class Semantic extends Compiler
         {
             Node child = classNode.jjtGetChild(i);
 
-            switch (child.toString())
+            switch (child.getId())
             {
-                case "Main":
-                case "Method":
+                case JJTMAIN:
+                case JJTMETHOD:
+                    MethodEvent event = Events.method("semantic");
+
                     continueAnalysis = analyseFunction(child);
+                    Events.finish(event, context, child, 0);
                     break;
 
                 default:
@@ -36,19 +46,19 @@ public class Semantic extends Compiler
 
     public boolean analyseFunction(Node func)
     {
-        String funcName = getFunctionName(func);
+        String funcName = Compiler.getFunctionName(func);
 
         for(int i = 0; i < func.jjtGetNumChildren(); i++)
         {
-            if(func.jjtGetChild(i).toString().equals("Var") || func.jjtGetChild(i).toString().equals("Arg"))
+            if(func.jjtGetChild(i).getId() == JJTVAR || func.jjtGetChild(i).getId() == JJTARG)
                 continue;
             else
             {
-                if(func.jjtGetChild(i).toString().equals("Return"))
+                if(func.jjtGetChild(i).getId() == JJTRETURN)
                 {
                     if(!isTheSameType(evaluatesTo(func.jjtGetChild(i).jjtGetChild(0), funcName), func.getReturnType()))
                     {
-                        System.out.println("Return value in function " + func.getName() + " does not meet function prototype");
+                        context.error("Return value in function " + func.getName() + " does not meet function prototype", func.jjtGetChild(i));
                         return false;
                     }
                     else
@@ -59,7 +69,7 @@ public class Semantic extends Compiler
                 {
                     if(!analyseStatement(func.jjtGetChild(i), funcName))
                     {
-                        System.out.println("Error in function " + func.getName() + " statement(s)");
+                        context.error("Error in function " + func.getName() + " statement(s)", func.jjtGetChild(i));
                         return false;
                     }
                 }
@@ -74,26 +84,26 @@ public class Semantic extends Compiler
     {
         boolean continueAnalysis;
 
-        switch (statement.toString())
+        switch (statement.getId())
         {
-            case "If":
+            case JJTIF:
                 continueAnalysis = analyseIf(statement, funcName);
                 break;
 
-            case "While":
+            case JJTWHILE:
                 continueAnalysis = analyseWhile(statement, funcName);
                 break;
 
-            case "TERM":
+            case JJTTERM:
                 continueAnalysis = !termEvaluatesTo(statement, funcName).equals("error");
                 break;
 
-            case "EQUALS":
+            case JJTEQUALS:
                 continueAnalysis = analyseEquals(statement, funcName);
                 break;
 
-            case "Else":
-            case "Then":
+            case JJTELSE:
+            case JJTTHEN:
                 if(statement.jjtGetNumChildren() == 1)
                     continueAnalysis = analyseStatement(statement.jjtGetChild(0), funcName);
                 else
@@ -102,17 +112,17 @@ public class Semantic extends Compiler
                 break;
 
             // Standalone arithmetic and boolean expressions not valid (?)
-            case "AND":
-            case "LOWER":
-            case "ADD":
-            case "SUB":
-            case "MUL":
-            case "DIV":
-                System.out.println("Standalone arithmetic or boolean expressions detected in " + funcName);
+            case JJTAND:
+            case JJTLOWER:
+            case JJTADD:
+            case JJTSUB:
+            case JJTMUL:
+            case JJTDIV:
+                context.error("Standalone arithmetic or boolean expressions detected in " + funcName);
                 return false;
 
             default:
-                System.out.println("Unknown statement type " + statement.toString() + " in function " + funcName);
+                context.error("Unknown statement type " + statement.toString() + " in function " + funcName);
                 return false;
         }
 
@@ -126,13 +136,13 @@ public class Semantic extends Compiler
     {
         if(ifNode.jjtGetNumChildren() < 3)
         {
-            System.out.println("If in " + funcName + " doesn't have enough children");
+            context.error("If in " + funcName + " doesn't have enough children");
             return false;
         }
 
         if(!isTheSameType(evaluatesTo(ifNode.jjtGetChild(0), funcName), "boolean"))
         {
-            System.out.println("if condition in function " + funcName + " doesn't evaluate to a boolean");
+            context.error("if condition in function " + funcName + " doesn't evaluate to a boolean");
             return false;
         }
 
@@ -142,7 +152,7 @@ public class Semantic extends Compiler
         {
             if (!analyseStatement(then.jjtGetChild(i), funcName))
             {
-                System.out.println("if 'then' statement is invalid in function " + funcName);
+                context.error("if 'then' statement is invalid in function " + funcName);
                 return false;
             }
         }
@@ -153,7 +163,7 @@ public class Semantic extends Compiler
         {
             if (!analyseStatement(elseNode.jjtGetChild(i), funcName))
             {
-                System.out.println("if 'then' statement is invalid in function " + funcName);
+                context.error("if 'then' statement is invalid in function " + funcName);
                 return false;
             }
         }
@@ -166,13 +176,13 @@ public class Semantic extends Compiler
     {
         if(whileNode.jjtGetNumChildren() < 2)
         {
-            System.out.println("While in " + funcName + " doesn't have enough children");
+            context.error("While in " + funcName + " doesn't have enough children");
             return false;
         }
 
         if(!isTheSameType(evaluatesTo(whileNode.jjtGetChild(0), funcName), "boolean"))
         {
-            System.out.println("while condition in function " + funcName + " doesn't evaluate to a boolean");
+            context.error("while condition in function " + funcName + " doesn't evaluate to a boolean");
             return false;
         }
 
@@ -182,7 +192,7 @@ public class Semantic extends Compiler
         {
             if (!analyseStatement(then.jjtGetChild(i), funcName))
             {
-                System.out.println("while 'then' statement is invalid in function " + funcName);
+                context.error("while 'then' statement is invalid in function " + funcName);
                 return false;
             }
         }
@@ -197,7 +207,7 @@ public class Semantic extends Compiler
 
         if(op1Value.equals("error") || op2Value.equals("error"))
         {
-            System.out.println("Error in equals operand(s) in function " + funcName);
+            context.error("Error in equals operand(s) in function " + funcName);
             return false;
         }
 
@@ -205,10 +215,10 @@ public class Semantic extends Compiler
             return true;
         else
         {
-            if(extendingClass != null && op1Value.equals(extendingClass) && op2Value.equals(className))
+            if(context.extendingClass != null && op1Value.equals(context.extendingClass) && op2Value.equals(context.className))
                 return true;
 
-            System.out.println("Equals operator types don't match in function "
+            context.error("Equals operator types don't match in function "
                 + funcName + ": " + op1Value + " vs " + op2Value);
 
             return false;
@@ -222,66 +232,66 @@ public class Semantic extends Compiler
 
     public String evaluatesTo(Node expression, String funcName)
     {
-        switch(expression.toString())
+        switch(expression.getId())
         {
-            case "ADD":
-            case "SUB":
-            case "DIV":
-            case "MUL":
+            case JJTADD:
+            case JJTSUB:
+            case JJTDIV:
+            case JJTMUL:
                 if(expression.jjtGetNumChildren() == 2
                     && isTheSameType(evaluatesTo(expression.jjtGetChild(0), funcName), "int")
                     && isTheSameType(evaluatesTo(expression.jjtGetChild(1), funcName), "int"))
                     return "int";
                 else
                 {
-                    System.out.println("Operand(s) in expression of type " + expression.toString()
+                    context.error("Operand(s) in expression of type " + expression.toString()
                         + " don't evaluate to integers in function " + funcName);
                     return "error";
                 }
 
 
-            case "AND":
+            case JJTAND:
                 if(expression.jjtGetNumChildren() == 2
                     && isTheSameType(evaluatesTo(expression.jjtGetChild(0), funcName), "boolean")
                     && isTheSameType(evaluatesTo(expression.jjtGetChild(1), funcName), "boolean"))
                     return "boolean";
                 else
                 {
-                    System.out.println("Operand(s) in expression of type AND don't evaluate to booleans in function "
+                    context.error("Operand(s) in expression of type AND don't evaluate to booleans in function "
                         + funcName);
                     return "error";
                 }
 
-            case "NOT":
+            case JJTNOT:
                 if(expression.jjtGetNumChildren() == 1 
                     && isTheSameType(evaluatesTo(expression.jjtGetChild(0), funcName), "boolean"))
                     return "boolean";
                 else
                 {
-                    System.out.println("Operand in negated expression doesn't evaluate to boolean in function "
+                    context.error("Operand in negated expression doesn't evaluate to boolean in function "
                         + funcName);
                     return "error";
                 }
 
 
-            case "LOWER":
+            case JJTLOWER:
                 if(expression.jjtGetNumChildren() == 2
                     && isTheSameType(evaluatesTo(expression.jjtGetChild(0), funcName), "int")
                     && isTheSameType(evaluatesTo(expression.jjtGetChild(1), funcName), "int"))
                     return "boolean";
                 else
                 {
-                    System.out.println("Operand(s) in expression of type LOWER don't evaluate to integers in function "
+                    context.error("Operand(s) in expression of type LOWER don't evaluate to integers in function "
                         + funcName);
                     return "error";
                 }
 
 
-            case "TERM":
+            case JJTTERM:
                 return termEvaluatesTo(expression, funcName);
 
             default:
-                System.out.println("Unexpected token to evaluate in function " + funcName + ": " + expression.toString());
+                context.error("Unexpected token to evaluate in function " + funcName + ": " + expression.toString());
                 return "error";
         }
     }
@@ -304,11 +314,11 @@ public class Semantic extends Compiler
 
                     if(funcName.equals("main"))
                     {
-                        System.out.println("This can't be used in static function main");
+                        context.error("This can't be used in static function main");
                         return "error";
                     }
                     
-                    value = className;
+                    value = context.className;
                     break;
 
                 default:
@@ -325,7 +335,7 @@ public class Semantic extends Compiler
 
                         if(value.equals("error"))
                         {
-                            System.out.println("Unexpected term in term evaluation in function " + funcName + ": "
+                            context.error("Unexpected term in term evaluation in function " + funcName + ": "
                                 + termName);
 
                             return "error";
@@ -338,7 +348,7 @@ public class Semantic extends Compiler
         {
             if(termName == null)
             {
-                System.out.println("Term has no name nor the expected number of children in function " + funcName
+                context.error("Term has no name nor the expected number of children in function " + funcName
                     + ": " + term.toString());
 
                 return "error";
@@ -350,9 +360,9 @@ public class Semantic extends Compiler
         Node termSon = term.jjtGetChild(0);
         boolean noNewNorEnclosedExpr = false;
 
-        switch(termSon.toString())
+        switch(termSon.getId())
         {
-            case "ENCLOSED_EXPR":
+            case JJTENCLOSED_EXPR:
                 if(termSon.jjtGetNumChildren() != 0)
                 {
                     value = evaluatesTo(termSon.jjtGetChild(0), funcName);
@@ -360,11 +370,11 @@ public class Semantic extends Compiler
                 }
                 else
                 {
-                    System.out.println("Enclosed expression is childless");
+                    context.error("Enclosed expression is childless");
                     return  "error";
                 }
 
-            case "NEW":
+            case JJTNEW:
                 if(termSon.jjtGetNumChildren() == 0) //New object
                 {
                     value = termSon.getType();
@@ -381,7 +391,7 @@ public class Semantic extends Compiler
                     }
                     else
                     {
-                        System.out.println("Array initialization failed in function " + funcName);
+                        context.error("Array initialization failed in function " + funcName);
                         return "error";
                     }
                 }
@@ -403,7 +413,7 @@ public class Semantic extends Compiler
         {
             if(noNewNorEnclosedExpr)
             {
-                System.out.println("Unknown term child in term evaluation in function " + funcName + ": "
+                context.error("Unknown term child in term evaluation in function " + funcName + ": "
                     + termSon.toString());
 
                 return "error";
@@ -414,23 +424,23 @@ public class Semantic extends Compiler
 
         Node termSecondSon = term.jjtGetChild(childIndex);
 
-        switch(termSecondSon.toString())
+        switch(termSecondSon.getId())
         {
-            case "ArrayAccs":
+            case JJTARRAYACCS:
                 if(identifierEvaluatesTo(termSecondSon.jjtGetParent(), funcName, true, true).equals("int[]")
                     && analyseArrayAccs(termSecondSon, funcName))
                     return "int";
                 else
                 {
-                    System.out.println("Array access failed in function " + funcName + ": " + value);
+                    context.error("Array access failed in function " + funcName + ": " + value);
                     return "error";
                 }
 
-            case "Member":
+            case JJTMEMBER:
                 return analyseFunctionCall(termSecondSon, funcName, value);
 
             default:
-                System.out.println("Unexpected term's second son in term evaluation in function " + funcName
+                context.error("Unexpected term's second son in term evaluation in function " + funcName
                     + ": " + termSecondSon.toString());
 
                 return "error";
@@ -439,13 +449,13 @@ public class Semantic extends Compiler
 
     public String analyseFunctionCall(Node member, String funcName, String callerType)
     {
-        boolean ownFunc = callerType.equals(className);
+        boolean ownFunc = callerType.equals(context.className);
         String calledFuncName = member.getName() + "(" + member.jjtGetNumChildren() + ")";
-        SymbolTable funcST = symbolTables.get(calledFuncName);
+        SymbolTable funcST = context.symbolTables.get(calledFuncName);
 
         if(callerType.equals("int") || callerType.equals("boolean"))
         {
-            System.out.println("int and boolean types don't have any members: function " + funcName);
+            context.error("int and boolean types don't have any members: function " + funcName);
             return "error";
         }
 
@@ -456,10 +466,10 @@ public class Semantic extends Compiler
         {
             if(ownFunc)
             {
-                if(extendingClass != null)
+                if(context.extendingClass != null)
                     return "all";
                 
-                System.out.println("Couldn't find class function " + calledFuncName + " in function " + funcName);
+                context.error("Couldn't find class function " + calledFuncName + " in function " + funcName);
                 return "error";
             }
             else
@@ -470,7 +480,7 @@ public class Semantic extends Compiler
 
         if(argProtos.length != member.jjtGetNumChildren())
         {
-            System.out.println("Number of arguments mismatch in member call in function " + funcName + ": Function has " + argProtos.length + " arguments");
+            context.error("Number of arguments mismatch in member call in function " + funcName + ": Function has " + argProtos.length + " arguments");
             return "error";
         }
 
@@ -478,7 +488,7 @@ public class Semantic extends Compiler
         {
             if(!argProtos[i].equals(evaluatesTo(member.jjtGetChild(i), funcName)))
             {
-                System.out.println("Call to function " + calledFuncName + " in function " + funcName
+                context.error("Call to function " + calledFuncName + " in function " + funcName
                 + " doesn't match function prototype");
                 return "error";
             }
@@ -490,37 +500,32 @@ public class Semantic extends Compiler
     //Returns the type of variable
     public String identifierEvaluatesTo(Node identifier, String funcName, boolean mustBeInit, boolean baseTerm)
     {
-        SymbolTable symbolTable = symbolTables.get(funcName);
+        SymbolTable symbolTable = context.symbolTables.get(funcName);
         Symbol variable;
-        boolean arg = false;
-        String key;
 
         if(symbolTable != null)
         {
-            variable = symbolTable.getTable().get(identifier.getName());
+            variable = symbolTable.getTable().get(identifier.getNameId());
 
             if(variable == null)
             {
-                variable = symbolTable.getArgs().get(identifier.getName());
-                arg = true;
+                variable = symbolTable.getArgs().get(identifier.getNameId());
 
                 if(variable == null)
                 {
-                    arg = false;
-                    symbolTable = symbolTables.get(className);
-                    key = className;
+                    symbolTable = context.symbolTables.get(context.className);
 
                     if(symbolTable != null)
                     {
-                        variable = symbolTable.getTable().get(identifier.getName());
+                        variable = symbolTable.getTable().get(identifier.getNameId());
 
                         if(variable == null)
                         {
                             if(identifier.jjtGetNumChildren() > 0
-                            && identifier.jjtGetChild(0).toString().equals("Member"))
+                            && identifier.jjtGetChild(0).getId() == JJTMEMBER)
                                 return "all";
 
-                            System.out.println("Couldn't find variable " + identifier.getName()
+                            context.error("Couldn't find variable " + identifier.getName()
                                 + " in function " + funcName);
 
                             return "error";
@@ -528,38 +533,25 @@ public class Semantic extends Compiler
                     }
                     else
                     {
-                        System.out.println("Couldn't find class " + className + " symbol table in function" + funcName);
+                        context.error("Couldn't find class " + context.className + " symbol table in function" + funcName);
                         return "error";
                     }
                 }
-                else
-                    key = funcName;
             }
-            else
-                key = funcName;
 
             if(!variable.getInit())
             {
                 if(mustBeInit)
                 {
-                    System.out.println("Variable " + variable.getName() + " was not initialized in function " + funcName);
+                    context.error("Variable " + variable.getName() + " was not initialized in function " + funcName);
                     return "error";
                 }
                 else
-                {
                     variable.setInit(true);
 
-                    if(arg)
-                        symbolTable.putArg(variable);
-                    else
-                        symbolTable.putSymbol(variable);
-
-                    symbolTables.put(key, symbolTable);
-                }
-
             }
 
-            if(!baseTerm && identifier.jjtGetNumChildren() > 0 && identifier.jjtGetChild(0).toString().equals("ArrayAccs")
+            if(!baseTerm && identifier.jjtGetNumChildren() > 0 && identifier.jjtGetChild(0).getId() == JJTARRAYACCS
                     && analyseArrayAccs(identifier.jjtGetChild(0), funcName))
                 return "int";
             else
@@ -567,7 +559,7 @@ public class Semantic extends Compiler
         }
         else
         {
-            System.out.println("Couldn't find function " + funcName + " in variable analysis");
+            context.error("Couldn't find function " + funcName + " in variable analysis");
             return "error";
         }
     }
@@ -576,7 +568,7 @@ public class Semantic extends Compiler
     {
         if(arrayAcs.jjtGetNumChildren() != 1)
         {
-            System.out.println("Array Access doesn't has expression associated");
+            context.error("Array Access doesn't has expression associated");
             return false;
         }
 
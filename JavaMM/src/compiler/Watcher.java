@@ -0,0 +1,171 @@
+package compiler;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import syntax.IncrementalParser;
+
+/**
+ * Watches a directory tree and recompiles each .jmm file when it changes, in the same
+ * JVM, so that class loading, JIT warm-up and the parsers are paid for only once.
+ */
+class Watcher
+{
+    //Events closer than this are handled together, as editors often write a file in several steps
+    private static final long DEBOUNCE_MS = 20;
+
+    private Options options;
+    private WatchService service;
+    private HashMap<Path, byte[]> compiled;
+    private HashMap<Path, IncrementalParser> parsers;
+
+    public Watcher(Options options)
+    {
+        this.options = options;
+        this.compiled = new HashMap<Path, byte[]>();
+        this.parsers = new HashMap<Path, IncrementalParser>();
+    }
+
+    public void watch() throws IOException, InterruptedException
+    {
+        Path root = Paths.get(options.watch);
+
+        if(!Files.isDirectory(root))
+        {
+            System.out.println("Couldn't find directory " + root);
+            return;
+        }
+
+        service = FileSystems.getDefault().newWatchService();
+        register(root);
+
+        //Everything is compiled once up front
+        List<File> sources = new ArrayList<File>();
+
+        Compiler.collectSources(root.toString(), sources);
+
+        for(File source: sources)
+            compile(source.toPath(), -1);
+
+        System.out.println("Watching " + root + " for changes");
+
+        while(true)
+        {
+            WatchKey key = service.take();
+            long firstEvent = System.nanoTime();
+            Set<Path> changed = new LinkedHashSet<Path>();
+
+            while(key != null)
+            {
+                collect(key, changed);
+                key = service.poll(DEBOUNCE_MS, TimeUnit.MILLISECONDS);
+            }
+
+            for(Path source: changed)
+                compile(source, firstEvent);
+        }
+    }
+
+    private void collect(WatchKey key, Set<Path> changed) throws IOException
+    {
+        Path directory = (Path) key.watchable();
+
+        for(WatchEvent<?> event: key.pollEvents())
+        {
+            //Events were lost, so every file is checked again
+            if(event.kind() == StandardWatchEventKinds.OVERFLOW)
+            {
+                try(Stream<Path> files = Files.walk(directory))
+                {
+                    files.filter(file -> file.toString().endsWith(".jmm")).forEach(changed::add);
+                }
+
+                continue;
+            }
+
+            Path path = directory.resolve((Path) event.context());
+
+            if(Files.isDirectory(path))
+            {
+                if(event.kind() == StandardWatchEventKinds.ENTRY_CREATE)
+                {
+                    register(path);
+
+                    try(Stream<Path> files = Files.walk(path))
+                    {
+                        files.filter(file -> file.toString().endsWith(".jmm")).forEach(changed::add);
+                    }
+                }
+            }
+            else if(path.toString().endsWith(".jmm"))
+                changed.add(path);
+        }
+
+        key.reset();
+    }
+
+    private void register(Path root) throws IOException
+    {
+        try(Stream<Path> directories = Files.walk(root))
+        {
+            for(Path directory: (Iterable<Path>) directories.filter(Files::isDirectory)::iterator)
+                directory.register(service, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_MODIFY);
+        }
+    }
+
+    private void compile(Path source, long changedAt) throws IOException
+    {
+        if(!Files.isRegularFile(source))
+            return;
+
+        //Saves that leave the file untouched, or repeat events, aren't compiled again. The
+        //contents are compared, as timestamps may be too coarse to tell two saves apart.
+        byte[] digest = digest(Files.readAllBytes(source));
+        byte[] previous = compiled.put(source, digest);
+
+        if(previous != null && Arrays.equals(previous, digest))
+            return;
+
+        File file = source.toFile();
+        CompilationContext context = new CompilationContext(options);
+
+        //The tree of each file is kept, so a save only parses the methods it changed again
+        if(!options.flatTree)
+            context.incremental = parsers.computeIfAbsent(source, path -> new IncrementalParser());
+
+        Compiler.compileUnit(context, file, Compiler.getOutputFile(file, options));
+
+        if(changedAt >= 0)
+            System.out.println("Output ready " + (System.nanoTime() - changedAt) / 1000000 + " ms after the change\n");
+    }
+
+    private static byte[] digest(byte[] contents)
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256").digest(contents);
+        }
+        catch(NoSuchAlgorithmException e)
+        {
+            throw new IllegalStateException(e);
+        }
+    }
+}
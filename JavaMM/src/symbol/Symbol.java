@@ -2,13 +2,15 @@ package symbol;
 
 public class Symbol
 {
+    private int nameId;
     private String name;
     private String type;
     private Boolean init = false;
     private int variableIndex;
 
-    public Symbol(String name, String type, int index, boolean init)
+    public Symbol(int nameId, String name, String type, int index, boolean init)
     {
+        this.nameId = nameId;
         this.name = name;
         this.type = type;
         this.variableIndex = index;
@@ -20,6 +22,11 @@ public class Symbol
         return name;
     }
 
+    public int getNameId()
+    {
+        return nameId;
+    }
+
     public String getType()
     {
         return type;
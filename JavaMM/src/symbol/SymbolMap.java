@@ -0,0 +1,89 @@
+package symbol;
+
+import java.util.Arrays;
+import java.util.Iterator;
+
+/**
+ * Symbols keyed by the NameTable id of their name, kept in the order they were added. Ids
+ * are small ints, so a lookup is an index computation and a few int compares, with no
+ * String hashing or boxing.
+ */
+public class SymbolMap implements Iterable<Symbol>
+{
+    private Symbol[] symbols = new Symbol[4];
+    private int count;
+
+    //Open addressing over the positions in symbols, stored plus one so zero is empty
+    private int[] slots = new int[8];
+
+    public Symbol get(int nameId)
+    {
+        int mask = slots.length - 1;
+
+        for(int slot = hash(nameId) & mask, index; (index = slots[slot]) != 0; slot = (slot + 1) & mask)
+        {
+            if(symbols[index - 1].getNameId() == nameId)
+                return symbols[index - 1];
+        }
+
+        return null;
+    }
+
+    //Adds the symbol unless one with the same name is there already
+    public boolean put(Symbol symbol)
+    {
+        int mask = slots.length - 1;
+        int slot = hash(symbol.getNameId()) & mask;
+
+        for(int index; (index = slots[slot]) != 0; slot = (slot + 1) & mask)
+        {
+            if(symbols[index - 1].getNameId() == symbol.getNameId())
+                return false;
+        }
+
+        if(count == symbols.length)
+            symbols = Arrays.copyOf(symbols, count * 2);
+
+        symbols[count] = symbol;
+        slots[slot] = ++count;
+
+        if(count * 2 > slots.length)
+            rehash();
+
+        return true;
+    }
+
+    public int size()
+    {
+        return count;
+    }
+
+    public Iterator<Symbol> iterator()
+    {
+        return Arrays.asList(symbols).subList(0, count).iterator();
+    }
+
+    private static int hash(int nameId)
+    {
+        int h = nameId * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+
+    private void rehash()
+    {
+        slots = new int[slots.length * 2];
+
+        int mask = slots.length - 1;
+
+        for(int i = 0; i < count; i++)
+        {
+            int slot = hash(symbols[i].getNameId()) & mask;
+
+            while(slots[slot] != 0)
+                slot = (slot + 1) & mask;
+
+            slots[slot] = i + 1;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+/* Maintained by hand, in the form JJTree generates with MULTI=true and NODE_USES_PARSER=true. Keep it in step with JavaMM.jjt. */
+package syntax;
+
+public
+class ASTClass extends SimpleNode {
+  public ASTClass(int id) {
+    super(id);
+  }
+
+  public ASTClass(JavaMM p, int id) {
+    super(p, id);
+  }
+
+
+  /** Accept the visitor. **/
+  public Object jjtAccept(JavaMMVisitor visitor, Object data) {
+
+    return
+    visitor.visit(this, data);
+  }
+}
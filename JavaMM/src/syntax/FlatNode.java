@@ -0,0 +1,120 @@
+package syntax;
+
+/**
+ * A node of a FlatTree, seen through the Node interface so the existing passes can walk
+ * flat trees. Views of the same node are equal, and the tree can only be read.
+ */
+public class FlatNode implements Node
+{
+    private final FlatTree tree;
+    private final int index;
+
+    FlatNode(FlatTree tree, int index)
+    {
+        this.tree = tree;
+        this.index = index;
+    }
+
+    public int getIndex()
+    {
+        return index;
+    }
+
+    public void jjtOpen()
+    {
+        throw new UnsupportedOperationException("Flat trees are read-only");
+    }
+
+    public void jjtClose()
+    {
+        throw new UnsupportedOperationException("Flat trees are read-only");
+    }
+
+    public void jjtSetParent(Node n)
+    {
+        throw new UnsupportedOperationException("Flat trees are read-only");
+    }
+
+    public Node jjtGetParent()
+    {
+        int parent = tree.parent(index);
+
+        return parent < 0 ? null : tree.node(parent);
+    }
+
+    public void jjtAddChild(Node n, int i)
+    {
+        throw new UnsupportedOperationException("Flat trees are read-only");
+    }
+
+    public Node jjtGetChild(int i)
+    {
+        return tree.node(tree.child(index, i));
+    }
+
+    public int jjtGetNumChildren()
+    {
+        return tree.children(index);
+    }
+
+    //Flat nodes have no ASTxxx class to dispatch on; passes over them switch on getId()
+    public Object jjtAccept(JavaMMVisitor visitor, Object data)
+    {
+        throw new UnsupportedOperationException("Visitors need a tree of SimpleNodes");
+    }
+
+    public int getId()
+    {
+        return tree.kind(index);
+    }
+
+    public String getName()
+    {
+        return text(tree.name(index));
+    }
+
+    public int getNameId()
+    {
+        return tree.name(index);
+    }
+
+    public String getType()
+    {
+        return getId() == JavaMMTreeConstants.JJTMETHOD ? null : text(tree.type(index));
+    }
+
+    public String getReturnType()
+    {
+        return getId() == JavaMMTreeConstants.JJTMETHOD ? text(tree.type(index)) : null;
+    }
+
+    public int getBeginOffset()
+    {
+        return tree.begin(index);
+    }
+
+    public int getEndOffset()
+    {
+        return tree.end(index);
+    }
+
+    public boolean equals(Object other)
+    {
+        return other instanceof FlatNode && ((FlatNode) other).tree == tree && ((FlatNode) other).index == index;
+    }
+
+    public int hashCode()
+    {
+        return index;
+    }
+
+    public String toString()
+    {
+        return JavaMMTreeConstants.jjtNodeName[getId()];
+    }
+
+    private String text(int id)
+    {
+        return id < 0 ? null : tree.getNames().get(id);
+    }
+}
@@ -0,0 +1,176 @@
+package syntax;
+
+import java.util.Arrays;
+
+/**
+ * Syntax tree stored as parallel int arrays instead of one object per node, for very large
+ * compilation units. Every node is a position in the arrays, holding its kind, parent, first
+ * child, next sibling, number of children, the NameTable ids of its name and type and the
+ * offsets of its first and last characters in the input.
+ *
+ * The parser adds each node once its parent is closed, so children come before their parent
+ * and the children of a node take consecutive positions, the first child last: child i of a
+ * node is at firstChild - i. Passes written against Node walk the tree through FlatNode
+ * views, which are made as they are asked for and not kept, so the tree costs no more than
+ * its arrays; two views of the same node are equal, but not the same object.
+ */
+public class FlatTree
+{
+    private NameTable names;
+    private int size;
+    private int root = -1;
+
+    private int[] kind;
+    private int[] parent;
+    private int[] firstChild;
+    private int[] nextSibling;
+    private int[] children;
+    private int[] name;
+    private int[] type;
+    private int[] begin;
+    private int[] end;
+
+    public FlatTree(NameTable names)
+    {
+        this(names, 1024);
+    }
+
+    public FlatTree(NameTable names, int capacity)
+    {
+        this.names = names;
+        kind = new int[capacity];
+        parent = new int[capacity];
+        firstChild = new int[capacity];
+        nextSibling = new int[capacity];
+        children = new int[capacity];
+        name = new int[capacity];
+        type = new int[capacity];
+        begin = new int[capacity];
+        end = new int[capacity];
+    }
+
+    //Adds a closed node whose children, linked from first, were added already
+    int add(SimpleNode node, int first, int next)
+    {
+        if(size == kind.length)
+            grow();
+
+        int index = size++;
+        int count = 0;
+
+        for(int child = first; child != -1; child = nextSibling[child], count++)
+            parent[child] = index;
+
+        kind[index] = node.id;
+        parent[index] = -1;
+        firstChild[index] = first;
+        nextSibling[index] = next;
+        children[index] = count;
+        name[index] = node.nameId >= 0 ? node.nameId : intern(node.name);
+        type[index] = intern(node.id == JavaMMTreeConstants.JJTMETHOD ? node.returnType : node.type);
+        begin[index] = first != -1 && begin[first] < node.begin ? begin[first] : node.begin;
+        end[index] = node.end;
+
+        return index;
+    }
+
+    //Ends the tree at its root, dropping the room left for more nodes
+    void setRoot(int root)
+    {
+        this.root = root;
+        resize(size);
+    }
+
+    public Node getRoot()
+    {
+        return root < 0 ? null : node(root);
+    }
+
+    public int size()
+    {
+        return size;
+    }
+
+    public NameTable getNames()
+    {
+        return names;
+    }
+
+    public FlatNode node(int index)
+    {
+        return new FlatNode(this, index);
+    }
+
+    public int kind(int index)
+    {
+        return kind[index];
+    }
+
+    public int parent(int index)
+    {
+        return parent[index];
+    }
+
+    public int firstChild(int index)
+    {
+        return firstChild[index];
+    }
+
+    public int nextSibling(int index)
+    {
+        return nextSibling[index];
+    }
+
+    public int children(int index)
+    {
+        return children[index];
+    }
+
+    public int child(int index, int i)
+    {
+        return firstChild[index] - i;
+    }
+
+    public int name(int index)
+    {
+        return name[index];
+    }
+
+    public int type(int index)
+    {
+        return type[index];
+    }
+
+    public int begin(int index)
+    {
+        return begin[index];
+    }
+
+    public int end(int index)
+    {
+        return end[index];
+    }
+
+    private int intern(String text)
+    {
+        return text == null ? -1 : names.intern(text);
+    }
+
+    private void grow()
+    {
+        resize(kind.length * 2);
+    }
+
+    private void resize(int capacity)
+    {
+        kind = Arrays.copyOf(kind, capacity);
+        parent = Arrays.copyOf(parent, capacity);
+        firstChild = Arrays.copyOf(firstChild, capacity);
+        nextSibling = Arrays.copyOf(nextSibling, capacity);
+        children = Arrays.copyOf(children, capacity);
+        name = Arrays.copyOf(name, capacity);
+        type = Arrays.copyOf(type, capacity);
+        begin = Arrays.copyOf(begin, capacity);
+        end = Arrays.copyOf(end, capacity);
+    }
+}
@@ -0,0 +1,263 @@
+package syntax;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Keeps the tree of one source between compilations and, when the source changes, parses
+ * again only the methods the changes fall in. Each edited Method or Main is found by its
+ * span in the kept tree and parsed on its own, starting at the Method or MainDeclaration
+ * production. The new body is then put in its place, while the fields, the class header
+ * and the other methods are kept as they are, with their offsets moved past the edits.
+ * The nodes in a method's body are only moved once it is walked, so the cost of a reparse
+ * is that of the edited methods, whatever the size of the class. A method whose signature
+ * didn't change keeps its node and its Arg nodes as well.
+ *
+ * Changes the methods can't take, like edits to fields or between methods, or a method
+ * that no longer parses on its own, are left to a full parse, whose tree is kept instead.
+ * The kept tree is updated in place, so it must not be shared with anything else.
+ */
+public class IncrementalParser implements JavaMMTreeConstants
+{
+    /** A change to the source: removed characters at offset replaced by inserted new ones. */
+    public static class Edit
+    {
+        public final int offset;
+        public final int removed;
+        public final int inserted;
+
+        public Edit(int offset, int removed, int inserted)
+        {
+            this.offset = offset;
+            this.removed = removed;
+            this.inserted = inserted;
+        }
+    }
+
+    private NameTable names = new NameTable();
+    private String source;
+    private SimpleNode root;
+    private int reparsed;
+
+    //Names of every tree kept, so the ids in reused nodes stay valid for the symbol tables
+    public NameTable getNames()
+    {
+        return names;
+    }
+
+    public Node getRoot()
+    {
+        return root;
+    }
+
+    //Methods parsed again by the last reparse
+    public int getReparsed()
+    {
+        return reparsed;
+    }
+
+    /** Keeps a tree parsed in full from source, with names, for the next reparse to start from. */
+    public void reset(String source, Node root)
+    {
+        this.source = source;
+        this.root = root instanceof SimpleNode ? (SimpleNode) root : null;
+    }
+
+    /** Reparses the source, taking everything between what it shares with the kept one as edited. */
+    public Node reparse(String source)
+    {
+        List<Edit> edits = new ArrayList<Edit>();
+
+        if(this.source != null && !this.source.equals(source))
+        {
+            int prefix = 0, suffix = 0;
+            int shorter = Math.min(this.source.length(), source.length());
+
+            while(prefix < shorter && this.source.charAt(prefix) == source.charAt(prefix))
+                prefix++;
+
+            while(suffix < shorter - prefix
+                && this.source.charAt(this.source.length() - 1 - suffix) == source.charAt(source.length() - 1 - suffix))
+                suffix++;
+
+            edits.add(new Edit(prefix, this.source.length() - prefix - suffix, source.length() - prefix - suffix));
+        }
+
+        return reparse(source, edits);
+    }
+
+    /**
+     * Applies the edits, in order and with offsets in the kept source, and returns the updated
+     * tree; or null, leaving the kept tree as it was, if the source needs a full parse.
+     */
+    public Node reparse(String source, List<Edit> edits)
+    {
+        reparsed = 0;
+
+        if(root == null || root.children == null || root.children.length == 0)
+            return null;
+
+        SimpleNode classNode = (SimpleNode) root.children[0];
+        Node[] members = classNode.children == null ? new Node[0] : classNode.children;
+        SimpleNode[] parsed = new SimpleNode[members.length];
+        int[] shift = new int[members.length];
+        int delta = 0, next = 0;
+
+        //Each edit must fall in a method, whose text in the new source is parsed on its own
+        for(int i = 0; i < members.length; i++)
+        {
+            SimpleNode member = (SimpleNode) members[i];
+            int change = 0;
+            boolean edited = false;
+
+            shift[i] = delta;
+
+            for(; next < edits.size() && edits.get(next).offset <= member.end; next++)
+            {
+                Edit edit = edits.get(next);
+
+                if(edit.offset < member.begin || edit.offset + edit.removed > member.end + 1
+                    || (member.id != JJTMETHOD && member.id != JJTMAIN))
+                    return null;
+
+                change += edit.inserted - edit.removed;
+                edited = true;
+            }
+
+            if(edited && (parsed[i] = parse(source, member.id, member.begin + delta, member.end + delta + change)) == null)
+                return null;
+
+            delta += change;
+        }
+
+        //Edits past the last method are after the class's closing brace
+        if(next < edits.size())
+            return null;
+
+        for(int i = 0; i < members.length; i++)
+        {
+            if(parsed[i] != null)
+            {
+                splice(classNode, i, parsed[i]);
+                reparsed++;
+            }
+            else if(shift[i] != 0)
+                ((SimpleNode) members[i]).moveOffsets(shift[i]);
+        }
+
+        classNode.end += delta;
+        root.end += delta;
+        this.source = source;
+
+        return root;
+    }
+
+    //Parses the text of a method on its own, or returns null if it isn't exactly one method
+    private SimpleNode parse(String source, int id, int begin, int end)
+    {
+        if(begin < 0 || end >= source.length() || end < begin)
+            return null;
+
+        JavaMM parser = ParserPool.acquire(new StringReader(source.substring(begin, end + 1)));
+
+        parser.token_source.names = names;
+        parser.trackPositions(false);
+
+        try
+        {
+            if(id == JJTMAIN)
+                parser.MainDeclaration();
+            else
+                parser.Method();
+
+            if(!parser.recoveredErrors.isEmpty() || parser.getToken(1).kind != JavaMMConstants.EOF)
+                return null;
+
+            SimpleNode method = (SimpleNode) parser.jjtree.rootNode();
+
+            method.moveOffsets(begin);
+
+            return method;
+        }
+        catch(ParseException | TokenMgrError e)
+        {
+            return null;
+        }
+        finally
+        {
+            ParserPool.release(parser);
+        }
+    }
+
+    //Puts a method parsed again in place of the class's member at index. If its signature is
+    //the same, the old node and its arguments are kept and only get the new body and offsets.
+    private void splice(SimpleNode classNode, int index, SimpleNode method)
+    {
+        SimpleNode old = (SimpleNode) classNode.children[index];
+        int args = sameSignature(old, method);
+
+        if(args < 0)
+        {
+            method.parent = classNode;
+            classNode.children[index] = method;
+            return;
+        }
+
+        old.settleOffsets();
+        method.settleOffsets();
+
+        for(int i = 0; i < count(method); i++)
+        {
+            if(i < args)
+            {
+                ((SimpleNode) old.children[i]).begin = ((SimpleNode) method.children[i]).begin;
+                ((SimpleNode) old.children[i]).end = ((SimpleNode) method.children[i]).end;
+                method.children[i] = old.children[i];
+            }
+            else
+                method.children[i].jjtSetParent(old);
+        }
+
+        old.children = method.children;
+        old.begin = method.begin;
+        old.end = method.end;
+    }
+
+    //Number of Arg children if both methods have the same name, return type and arguments,
+    //or -1 if they don't
+    private static int sameSignature(SimpleNode old, SimpleNode method)
+    {
+        if(old.id != method.id || !equal(old.name, method.name) || !equal(old.returnType, method.returnType)
+            || !equal(old.type, method.type))
+            return -1;
+
+        int args = 0;
+
+        while(args < count(old) && old.children[args].getId() == JJTARG)
+            args++;
+
+        if(count(method) < args || (args < count(method) && method.children[args].getId() == JJTARG))
+            return -1;
+
+        for(int i = 0; i < args; i++)
+        {
+            SimpleNode a = (SimpleNode) old.children[i], b = (SimpleNode) method.children[i];
+
+            if(b.id != JJTARG || !equal(a.name, b.name) || !equal(a.type, b.type))
+                return -1;
+        }
+
+        return args;
+    }
+
+    private static int count(SimpleNode node)
+    {
+        return node.children == null ? 0 : node.children.length;
+    }
+
+    private static boolean equal(String a, String b)
+    {
+        return a == null ? b == null : a.equals(b);
+    }
+}
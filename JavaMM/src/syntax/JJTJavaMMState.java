@@ -3,18 +3,29 @@
 package syntax;
 
 public class JJTJavaMMState {
-  private java.util.List<Node> nodes;
-  private java.util.List<Integer> marks;
+  /* The node and mark stacks are plain arrays, so pushing a node or a
+     mark allocates nothing once they are large enough. */
+  private Node[] nodes;
+  private int[] marks;
 
   private int sp;        // number of nodes on stack
   private int mk;        // current mark
+  private int msp;       // number of marks on stack
   private boolean node_created;
 
+  /* When set, nodes are added to this flat tree as their parent closes,
+     instead of being linked to it. For every node on the stack, firsts
+     holds the position of its first child in the tree, or -1. */
+  private FlatTree flat;
+  private int[] firsts;
+
   public JJTJavaMMState() {
-    nodes = new java.util.ArrayList<Node>();
-    marks = new java.util.ArrayList<Integer>();
+    nodes = new Node[64];
+    marks = new int[64];
+    firsts = new int[64];
     sp = 0;
     mk = 0;
+    msp = 0;
   }
 
   /* Determines whether the current node was actually closed and
@@ -27,36 +38,61 @@ public class JJTJavaMMState {
   /* Call this to reinitialize the node stack.  It is called
      automatically by the parser's ReInit() method. */
   public void reset() {
-    nodes.clear();
-    marks.clear();
+    java.util.Arrays.fill(nodes, 0, sp, null);
     sp = 0;
     mk = 0;
+    msp = 0;
+    flat = null;
+  }
+
+  /* Builds the next tree into the given flat tree. */
+  public void buildFlat(FlatTree tree) {
+    flat = tree;
+  }
+
+  /* Adds the root node to the flat tree, once the parse is over. */
+  public FlatTree finishFlat() {
+    FlatTree tree = flat;
+
+    tree.setRoot(tree.add((SimpleNode) nodes[0], firsts[0], -1));
+    flat = null;
+    return tree;
   }
 
   /* Returns the root node of the AST.  It only makes sense to call
      this after a successful parse. */
   public Node rootNode() {
-    return nodes.get(0);
+    return nodes[0];
   }
 
   /* Pushes a node on to the stack. */
   public void pushNode(Node n) {
-    nodes.add(n);
-    ++sp;
+    pushNode(n, -1);
+  }
+
+  private void pushNode(Node n, int first) {
+    if (sp == nodes.length) {
+      nodes = java.util.Arrays.copyOf(nodes, sp * 2);
+      firsts = java.util.Arrays.copyOf(firsts, sp * 2);
+    }
+    firsts[sp] = first;
+    nodes[sp++] = n;
   }
 
   /* Returns the node on the top of the stack, and remove it from the
      stack.  */
   public Node popNode() {
     if (--sp < mk) {
-      mk = marks.remove(marks.size()-1);
+      mk = marks[--msp];
     }
-    return nodes.remove(nodes.size()-1);
+    Node n = nodes[sp];
+    nodes[sp] = null;
+    return n;
   }
 
   /* Returns the node currently on the top of the stack. */
   public Node peekNode() {
-    return nodes.get(nodes.size()-1);
+    return nodes[sp - 1];
   }
 
   /* Returns the number of children on the stack in the current node
@@ -70,12 +106,15 @@ public class JJTJavaMMState {
     while (sp > mk) {
       popNode();
     }
-    mk = marks.remove(marks.size()-1);
+    mk = marks[--msp];
   }
 
 
   public void openNodeScope(Node n) {
-    marks.add(mk);
+    if (msp == marks.length) {
+      marks = java.util.Arrays.copyOf(marks, msp * 2);
+    }
+    marks[msp++] = mk;
     mk = sp;
     n.jjtOpen();
   }
@@ -86,15 +125,8 @@ public class JJTJavaMMState {
      made the children of the definite node.  Then the definite node
      is pushed on to the stack. */
   public void closeNodeScope(Node n, int num) {
-    mk = marks.remove(marks.size()-1);
-    while (num-- > 0) {
-      Node c = popNode();
-      c.jjtSetParent(n);
-      n.jjtAddChild(c, num);
-    }
-    n.jjtClose();
-    pushNode(n);
-    node_created = true;
+    mk = marks[--msp];
+    close(n, num);
   }
 
 
@@ -106,19 +138,51 @@ public class JJTJavaMMState {
   public void closeNodeScope(Node n, boolean condition) {
     if (condition) {
       int a = nodeArity();
-      mk = marks.remove(marks.size()-1);
-      while (a-- > 0) {
-        Node c = popNode();
+      mk = marks[--msp];
+      close(n, a);
+    } else {
+      mk = marks[--msp];
+      node_created = false;
+    }
+  }
+
+  /* Makes the top num nodes the children of n and pushes n. The
+     children array of a SimpleNode is allocated once, at its final
+     size, and filled straight from the stack. */
+  private void close(Node n, int num) {
+    int first = -1;
+
+    if (flat != null) {
+      while (num-- > 0) {
+        int firstChild = firsts[sp - 1];
+        first = flat.add((SimpleNode) popNode(), firstChild, first);
+      }
+    } else if (n instanceof SimpleNode && num > 0) {
+      Node[] children = new Node[num];
+
+      /* Pops the marks that popping the children one by one would */
+      for (int i = 0; i < num; i++) {
+        if (--sp < mk) {
+          mk = marks[--msp];
+        }
+      }
+      System.arraycopy(nodes, sp, children, 0, num);
+      java.util.Arrays.fill(nodes, sp, sp + num, null);
+
+      for (Node c : children) {
         c.jjtSetParent(n);
-        n.jjtAddChild(c, a);
       }
-      n.jjtClose();
-      pushNode(n);
-      node_created = true;
+      ((SimpleNode) n).children = children;
     } else {
-      mk = marks.remove(marks.size()-1);
-      node_created = false;
+      while (num-- > 0) {
+        Node c = popNode();
+        c.jjtSetParent(n);
+        n.jjtAddChild(c, num);
+      }
     }
+    n.jjtClose();
+    pushNode(n, first);
+    node_created = true;
   }
 }
 /* JavaCC - OriginalChecksum=cb5b5b4d2af03a6a71e058832e87f610 (do not edit this line) */
@@ -3,9 +3,112 @@
 
 package syntax;
     import java.io.FileInputStream;
+    import java.util.ArrayList;
+    import java.util.List;
 
     public class JavaMM/*@bgen(jjtree)*/implements JavaMMTreeConstants, JavaMMConstants {/*@bgen(jjtree)*/
-  protected static JJTJavaMMState jjtree = new JJTJavaMMState();public static void main(String[] args) throws Exception
+  protected JJTJavaMMState jjtree = new JJTJavaMMState();
+        //Syntax errors the parser recovered from, in the order they were found
+        public List<ParseException> recoveredErrors = new ArrayList<ParseException>();
+
+        public static final int DEFAULT_ERROR_LIMIT = 100;
+
+        //Most syntax errors reported before the parse gives up, counting the one it stops at
+        public int errorLimit = DEFAULT_ERROR_LIMIT;
+
+        //Set when the parse gave up because of the limit rather than at a single error
+        public boolean errorLimitReached;
+
+        //Records a syntax error the parse goes on after. At the end of the input or once the
+        //limit is reached the error is thrown instead, and every recovery point it passes on
+        //the way out throws it on.
+        void recover(ParseException e) throws ParseException
+        {
+            Token next = e.currentToken == null ? null : e.currentToken.next;
+            int last = recoveredErrors.size() - 1;
+
+            if(next == null || next.kind == EOF)
+                throw e;
+
+            if(last + 2 >= errorLimit)
+            {
+                errorLimitReached = true;
+                throw e;
+            }
+
+            //A token that ends several constructs at once is only reported once
+            if(last < 0 || recoveredErrors.get(last).currentToken.next != next)
+                recoveredErrors.add(e);
+        }
+
+        //Skips the rest of a statement or declaration with an error: past its ';', or up to
+        //the '}' closing the enclosing block or a "public" starting the next method
+        void skipStatement()
+        {
+            int depth = 0;
+
+            for(Token t = getToken(1); t.kind != EOF && t.kind != PUBLIC; t = getToken(1))
+            {
+                if(t.kind == RBRACE && depth == 0)
+                    return;
+
+                getNextToken();
+
+                if(t.kind == LBRACE)
+                    depth++;
+                else if(t.kind == RBRACE)
+                    depth--;
+
+                //An if statement goes on past the end of its then branch
+                if(depth == 0 && (t.kind == SEMI || t.kind == RBRACE) && getToken(1).kind != ELSE)
+                    return;
+            }
+        }
+
+        //Skips the rest of a method with an error, up to the next one or the class's '}'
+        void skipMethod()
+        {
+            for(Token t = getToken(1); t.kind != EOF && t.kind != PUBLIC; t = getToken(1))
+            {
+                if(t.kind == RBRACE && getToken(2).kind == EOF)
+                    return;
+
+                getNextToken();
+            }
+        }
+
+        //Without tracking, reading is faster but tokens and errors have no line and column
+        public void trackPositions(boolean track)
+        {
+            token_source.input_stream.setTrackLineColumn(track);
+        }
+
+        //Forgets the last parse, for a pooled parser: the tree it built, the tokens it read,
+        //the errors it found and the limit it was given. The parser must be given an input
+        //with ReInit before it parses again.
+        void clear()
+        {
+            jjtree.reset();
+            token = jj_nt = jj_scanpos = jj_lastpos = null;
+            java.util.Arrays.fill(jj_2_rtns, null);
+            recoveredErrors.clear();
+            errorLimit = DEFAULT_ERROR_LIMIT;
+            errorLimitReached = false;
+        }
+
+        //Parses into a flat tree, which takes far less memory than one node per object
+        public FlatTree ProgramFlat() throws ParseException
+        {
+            if(token_source.names == null)
+                token_source.names = new NameTable();
+
+            jjtree.buildFlat(new FlatTree(token_source.names));
+            Program();
+
+            return jjtree.finishFlat();
+        }
+
+        public static void main(String[] args) throws Exception
         {
             if(args.length < 1)
             {
@@ -16,13 +119,16 @@ package syntax;
             JavaMM parser = new JavaMM(new FileInputStream(args[0]));
             SimpleNode root = parser.Program();
 
+            for(ParseException e: parser.recoveredErrors)
+                System.out.println(e.toString());
+
             System.out.println("-----AST-----");
             root.dump(" ");
 
         }
 
-  static final public SimpleNode Program() throws ParseException {/*@bgen(jjtree) Program */
-  SimpleNode jjtn000 = new SimpleNode(JJTPROGRAM);
+  final public SimpleNode Program() throws ParseException {/*@bgen(jjtree) Program */
+  ASTProgram jjtn000 = new ASTProgram(this, JJTPROGRAM);
   boolean jjtc000 = true;
   jjtree.openNodeScope(jjtn000);
     try {
@@ -53,14 +159,14 @@ if (jjtc000) {
     throw new Error("Missing return statement in function");
   }
 
-  static final public void ClassDeclaration() throws ParseException {/*@bgen(jjtree) Class */
-                                 SimpleNode jjtn000 = new SimpleNode(JJTCLASS);
+  final public void ClassDeclaration() throws ParseException {/*@bgen(jjtree) Class */
+                                 ASTClass jjtn000 = new ASTClass(this, JJTCLASS);
                                  boolean jjtc000 = true;
                                  jjtree.openNodeScope(jjtn000);Token n;
     try {
       jj_consume_token(CLASS);
       n = jj_consume_token(IDENTIFIER);
-jjtn000.name = n.image;
+jjtn000.name = n.image; jjtn000.nameId = n.nameId;
       switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
       case EXT:{
         Extends();
@@ -84,7 +190,12 @@ jjtn000.name = n.image;
           jj_la1[1] = jj_gen;
           break label_1;
         }
-        VarDeclaration();
+        try {
+          VarDeclaration();
+        } catch (ParseException e) {
+recover(e);
+            skipStatement();
+        }
       }
       label_2:
       while (true) {
@@ -98,21 +209,26 @@ jjtn000.name = n.image;
           break label_2;
         }
         jj_consume_token(PUBLIC);
-        switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
-        case STAT:{
-          MainDeclaration();
-          break;
-          }
-        case BOOL:
-        case INT:
-        case IDENTIFIER:{
-          Method();
-          break;
+        try {
+          switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
+          case STAT:{
+            MainDeclaration();
+            break;
+            }
+          case BOOL:
+          case INT:
+          case IDENTIFIER:{
+            Method();
+            break;
+            }
+          default:
+            jj_la1[3] = jj_gen;
+            jj_consume_token(-1);
+            throw new ParseException();
           }
-        default:
-          jj_la1[3] = jj_gen;
-          jj_consume_token(-1);
-          throw new ParseException();
+        } catch (ParseException e) {
+recover(e);
+            skipMethod();
         }
       }
       jj_consume_token(RBRACE);
@@ -137,8 +253,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void Extends() throws ParseException {/*@bgen(jjtree) Extends */
-                 SimpleNode jjtn000 = new SimpleNode(JJTEXTENDS);
+  final public void Extends() throws ParseException {/*@bgen(jjtree) Extends */
+                 ASTExtends jjtn000 = new ASTExtends(this, JJTEXTENDS);
                  boolean jjtc000 = true;
                  jjtree.openNodeScope(jjtn000);Token n;
     try {
@@ -146,7 +262,7 @@ if (jjtc000) {
       n = jj_consume_token(IDENTIFIER);
 jjtree.closeNodeScope(jjtn000, true);
                            jjtc000 = false;
-jjtn000.name = n.image;
+jjtn000.name = n.image; jjtn000.nameId = n.nameId;
     } finally {
 if (jjtc000) {
         jjtree.closeNodeScope(jjtn000, true);
@@ -154,15 +270,15 @@ if (jjtc000) {
     }
   }
 
-  static final public void VarDeclaration() throws ParseException {/*@bgen(jjtree) Var */
-                             SimpleNode jjtn000 = new SimpleNode(JJTVAR);
+  final public void VarDeclaration() throws ParseException {/*@bgen(jjtree) Var */
+                             ASTVar jjtn000 = new ASTVar(this, JJTVAR);
                              boolean jjtc000 = true;
                              jjtree.openNodeScope(jjtn000);Token n; String t;
     try {
       t = Type();
 jjtn000.type = t;
       n = jj_consume_token(IDENTIFIER);
-jjtn000.name = n.image;
+jjtn000.name = n.image; jjtn000.nameId = n.nameId;
       jj_consume_token(SEMI);
     } catch (Throwable jjte000) {
 if (jjtc000) {
@@ -185,8 +301,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void MainDeclaration() throws ParseException {/*@bgen(jjtree) Main */
-                               SimpleNode jjtn000 = new SimpleNode(JJTMAIN);
+  final public void MainDeclaration() throws ParseException {/*@bgen(jjtree) Main */
+                               ASTMain jjtn000 = new ASTMain(this, JJTMAIN);
                                boolean jjtc000 = true;
                                jjtree.openNodeScope(jjtn000);Token n, t;
     try {
@@ -209,7 +325,12 @@ jjtn000.type = t.image;
         } else {
           break label_3;
         }
-        VarDeclaration();
+        try {
+          VarDeclaration();
+        } catch (ParseException e) {
+recover(e);
+            skipStatement();
+        }
       }
       label_4:
       while (true) {
@@ -257,15 +378,15 @@ if (jjtc000) {
     }
   }
 
-  static final public void Method() throws ParseException {/*@bgen(jjtree) Method */
-                SimpleNode jjtn000 = new SimpleNode(JJTMETHOD);
+  final public void Method() throws ParseException {/*@bgen(jjtree) Method */
+                ASTMethod jjtn000 = new ASTMethod(this, JJTMETHOD);
                 boolean jjtc000 = true;
                 jjtree.openNodeScope(jjtn000);Token n; String r;
     try {
       r = Type();
 jjtn000.returnType = r;
       n = jj_consume_token(IDENTIFIER);
-jjtn000.name = n.image;
+jjtn000.name = n.image; jjtn000.nameId = n.nameId;
       jj_consume_token(LPAREN);
       switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
       case BOOL:
@@ -301,7 +422,12 @@ jjtn000.name = n.image;
         } else {
           break label_6;
         }
-        VarDeclaration();
+        try {
+          VarDeclaration();
+        } catch (ParseException e) {
+recover(e);
+            skipStatement();
+        }
       }
       label_7:
       while (true) {
@@ -351,8 +477,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void Return() throws ParseException {/*@bgen(jjtree) Return */
-  SimpleNode jjtn000 = new SimpleNode(JJTRETURN);
+  final public void Return() throws ParseException {/*@bgen(jjtree) Return */
+  ASTReturn jjtn000 = new ASTReturn(this, JJTRETURN);
   boolean jjtc000 = true;
   jjtree.openNodeScope(jjtn000);
     try {
@@ -379,8 +505,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void Arg() throws ParseException {/*@bgen(jjtree) Arg */
-             SimpleNode jjtn000 = new SimpleNode(JJTARG);
+  final public void Arg() throws ParseException {/*@bgen(jjtree) Arg */
+             ASTArg jjtn000 = new ASTArg(this, JJTARG);
              boolean jjtc000 = true;
              jjtree.openNodeScope(jjtn000);Token n; String t;
     try {
@@ -389,7 +515,7 @@ jjtn000.type = t;
       n = jj_consume_token(IDENTIFIER);
 jjtree.closeNodeScope(jjtn000, true);
                                                   jjtc000 = false;
-jjtn000.name = n.image;
+jjtn000.name = n.image; jjtn000.nameId = n.nameId;
     } catch (Throwable jjte000) {
 if (jjtc000) {
         jjtree.clearNodeScope(jjtn000);
@@ -411,7 +537,7 @@ if (jjtc000) {
     }
   }
 
-  static final public String Type() throws ParseException {Token t, t1;
+  final public String Type() throws ParseException {Token t, t1;
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case INT:{
       t = jj_consume_token(INT);
@@ -447,72 +573,82 @@ if (jjtc000) {
     throw new Error("Missing return statement in function");
   }
 
-  static final public void Statement() throws ParseException {
-    switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
-    case LBRACE:{
-      jj_consume_token(LBRACE);
-      label_8:
-      while (true) {
-        switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
-        case LPAREN:
-        case LBRACE:
-        case SUB:
-        case NOT:
-        case TRUE:
-        case FALSE:
-        case THIS:
-        case NEW:
-        case IF:
-        case WHILE:
-        case LITERAL:
-        case IDENTIFIER:{
-          ;
-          break;
+  final public void Statement() throws ParseException {int arity = jjtree.nodeArity();
+    try {
+      switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
+      case LBRACE:{
+        jj_consume_token(LBRACE);
+        label_8:
+        while (true) {
+          switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
+          case LPAREN:
+          case LBRACE:
+          case SUB:
+          case NOT:
+          case TRUE:
+          case FALSE:
+          case THIS:
+          case NEW:
+          case IF:
+          case WHILE:
+          case LITERAL:
+          case IDENTIFIER:{
+            ;
+            break;
+            }
+          default:
+            jj_la1[10] = jj_gen;
+            break label_8;
           }
-        default:
-          jj_la1[10] = jj_gen;
-          break label_8;
+          Statement();
         }
-        Statement();
-      }
-      jj_consume_token(RBRACE);
-      break;
-      }
-    case WHILE:{
-      While();
-      break;
-      }
-    case IF:{
-      If();
-      break;
-      }
-    case LPAREN:
-    case SUB:
-    case NOT:
-    case TRUE:
-    case FALSE:
-    case THIS:
-    case NEW:
-    case LITERAL:
-    case IDENTIFIER:{
-      Stmt();
-      break;
+        jj_consume_token(RBRACE);
+        break;
+        }
+      case WHILE:{
+        While();
+        break;
+        }
+      case IF:{
+        If();
+        break;
+        }
+      case LPAREN:
+      case SUB:
+      case NOT:
+      case TRUE:
+      case FALSE:
+      case THIS:
+      case NEW:
+      case LITERAL:
+      case IDENTIFIER:{
+        Stmt();
+        break;
+        }
+      default:
+        jj_la1[11] = jj_gen;
+        jj_consume_token(-1);
+        throw new ParseException();
       }
-    default:
-      jj_la1[11] = jj_gen;
-      jj_consume_token(-1);
-      throw new ParseException();
+    } catch (ParseException e) {
+recover(e);
+
+        //What was built of the statement is dropped, so the tree only holds whole statements
+        while(jjtree.nodeArity() > arity)
+            jjtree.popNode();
+
+        skipStatement();
     }
   }
 
-  static final public void Stmt() throws ParseException {
+  final public void Stmt() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case IDENTIFIER:{
       lhs();
       switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
       case EQUAL:{
         jj_consume_token(EQUAL);
-SimpleNode jjtn001 = new SimpleNode(JJTEQUALS);
+ASTEQUALS jjtn001 = new ASTEQUALS(this, JJTEQUALS);
                      boolean jjtc001 = true;
                      jjtree.openNodeScope(jjtn001);
         try {
@@ -564,13 +700,13 @@ if (jjtc001) {
     }
   }
 
-  static final public void lhs() throws ParseException {/*@bgen(jjtree) TERM */
-                   SimpleNode jjtn000 = new SimpleNode(JJTTERM);
+  final public void lhs() throws ParseException {/*@bgen(jjtree) TERM */
+                   ASTTERM jjtn000 = new ASTTERM(this, JJTTERM);
                    boolean jjtc000 = true;
                    jjtree.openNodeScope(jjtn000);Token n;
     try {
       n = jj_consume_token(IDENTIFIER);
-jjtn000.name = n.image;
+jjtn000.name = n.image; jjtn000.nameId = n.nameId;
       switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
       case LBRACK:
       case DOT:{
@@ -615,8 +751,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void While() throws ParseException {/*@bgen(jjtree) While */
-  SimpleNode jjtn000 = new SimpleNode(JJTWHILE);
+  final public void While() throws ParseException {/*@bgen(jjtree) While */
+  ASTWhile jjtn000 = new ASTWhile(this, JJTWHILE);
   boolean jjtc000 = true;
   jjtree.openNodeScope(jjtn000);
     try {
@@ -626,7 +762,7 @@ if (jjtc000) {
         Expression();
         jj_consume_token(RPAREN);
       } catch (ParseException e) {
-System.out.println(e.toString());
+recover(e);
 
         error_skip_to(RPAREN);
       }
@@ -652,8 +788,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void If() throws ParseException {/*@bgen(jjtree) If */
-  SimpleNode jjtn000 = new SimpleNode(JJTIF);
+  final public void If() throws ParseException {/*@bgen(jjtree) If */
+  ASTIf jjtn000 = new ASTIf(this, JJTIF);
   boolean jjtc000 = true;
   jjtree.openNodeScope(jjtn000);
     try {
@@ -684,8 +820,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void Else() throws ParseException {/*@bgen(jjtree) Else */
-  SimpleNode jjtn000 = new SimpleNode(JJTELSE);
+  final public void Else() throws ParseException {/*@bgen(jjtree) Else */
+  ASTElse jjtn000 = new ASTElse(this, JJTELSE);
   boolean jjtc000 = true;
   jjtree.openNodeScope(jjtn000);
     try {
@@ -712,8 +848,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void Then() throws ParseException {/*@bgen(jjtree) Then */
-  SimpleNode jjtn000 = new SimpleNode(JJTTHEN);
+  final public void Then() throws ParseException {/*@bgen(jjtree) Then */
+  ASTThen jjtn000 = new ASTThen(this, JJTTHEN);
   boolean jjtc000 = true;
   jjtree.openNodeScope(jjtn000);
     try {
@@ -739,8 +875,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void Member() throws ParseException {/*@bgen(jjtree) Member */
-                SimpleNode jjtn000 = new SimpleNode(JJTMEMBER);
+  final public void Member() throws ParseException {/*@bgen(jjtree) Member */
+                ASTMember jjtn000 = new ASTMember(this, JJTMEMBER);
                 boolean jjtc000 = true;
                 jjtree.openNodeScope(jjtn000);Token n;
     try {
@@ -755,7 +891,7 @@ jjtn000.name = n.image;
         }
       case IDENTIFIER:{
         n = jj_consume_token(IDENTIFIER);
-jjtn000.name = n.image;
+jjtn000.name = n.image; jjtn000.nameId = n.nameId;
         jj_consume_token(LPAREN);
         switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
         case LPAREN:
@@ -817,8 +953,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void ArrayAccs() throws ParseException {/*@bgen(jjtree) ArrayAccs */
-  SimpleNode jjtn000 = new SimpleNode(JJTARRAYACCS);
+  final public void ArrayAccs() throws ParseException {/*@bgen(jjtree) ArrayAccs */
+  ASTArrayAccs jjtn000 = new ASTArrayAccs(this, JJTARRAYACCS);
   boolean jjtc000 = true;
   jjtree.openNodeScope(jjtn000);
     try {
@@ -846,15 +982,15 @@ if (jjtc000) {
     }
   }
 
-  static final public void Expression() throws ParseException {
+  final public void Expression() throws ParseException {
     EXPR();
   }
 
-  static final public void Expression_NO_ID() throws ParseException {
+  final public void Expression_NO_ID() throws ParseException {
     EXPR_NO_ID();
   }
 
-  static final public void EXPR() throws ParseException {
+  final public void EXPR() throws ParseException {
     EXPR_2();
     label_10:
     while (true) {
@@ -868,7 +1004,7 @@ if (jjtc000) {
         break label_10;
       }
       jj_consume_token(AND);
-SimpleNode jjtn001 = new SimpleNode(JJTAND);
+ASTAND jjtn001 = new ASTAND(this, JJTAND);
                       boolean jjtc001 = true;
                       jjtree.openNodeScope(jjtn001);
       try {
@@ -895,7 +1031,7 @@ if (jjtc001) {
     }
   }
 
-  static final public void EXPR_NO_ID() throws ParseException {
+  final public void EXPR_NO_ID() throws ParseException {
     EXPR_2_NO_ID();
     label_11:
     while (true) {
@@ -909,7 +1045,7 @@ if (jjtc001) {
         break label_11;
       }
       jj_consume_token(AND);
-SimpleNode jjtn001 = new SimpleNode(JJTAND);
+ASTAND jjtn001 = new ASTAND(this, JJTAND);
                             boolean jjtc001 = true;
                             jjtree.openNodeScope(jjtn001);
       try {
@@ -936,7 +1072,7 @@ if (jjtc001) {
     }
   }
 
-  static final public void EXPR_2() throws ParseException {
+  final public void EXPR_2() throws ParseException {
     EXPR_3();
     label_12:
     while (true) {
@@ -950,7 +1086,7 @@ if (jjtc001) {
         break label_12;
       }
       jj_consume_token(LOWER);
-SimpleNode jjtn001 = new SimpleNode(JJTLOWER);
+ASTLOWER jjtn001 = new ASTLOWER(this, JJTLOWER);
                         boolean jjtc001 = true;
                         jjtree.openNodeScope(jjtn001);
       try {
@@ -977,7 +1113,7 @@ if (jjtc001) {
     }
   }
 
-  static final public void EXPR_2_NO_ID() throws ParseException {
+  final public void EXPR_2_NO_ID() throws ParseException {
     EXPR_3_NO_ID();
     label_13:
     while (true) {
@@ -991,7 +1127,7 @@ if (jjtc001) {
         break label_13;
       }
       jj_consume_token(LOWER);
-SimpleNode jjtn001 = new SimpleNode(JJTLOWER);
+ASTLOWER jjtn001 = new ASTLOWER(this, JJTLOWER);
                               boolean jjtc001 = true;
                               jjtree.openNodeScope(jjtn001);
       try {
@@ -1018,7 +1154,7 @@ if (jjtc001) {
     }
   }
 
-  static final public void EXPR_3() throws ParseException {
+  final public void EXPR_3() throws ParseException {
     EXPR_4();
     label_14:
     while (true) {
@@ -1036,7 +1172,7 @@ if (jjtc001) {
     }
   }
 
-  static final public void EXPR_3_NO_ID() throws ParseException {
+  final public void EXPR_3_NO_ID() throws ParseException {
     EXPR_4_NO_ID();
     label_15:
     while (true) {
@@ -1054,11 +1190,11 @@ if (jjtc001) {
     }
   }
 
-  static final public void ADDSUB() throws ParseException {
+  final public void ADDSUB() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case ADD:{
       jj_consume_token(ADD);
-SimpleNode jjtn001 = new SimpleNode(JJTADD);
+ASTADD jjtn001 = new ASTADD(this, JJTADD);
             boolean jjtc001 = true;
             jjtree.openNodeScope(jjtn001);
       try {
@@ -1086,7 +1222,7 @@ if (jjtc001) {
       }
     case SUB:{
       jj_consume_token(SUB);
-SimpleNode jjtn002 = new SimpleNode(JJTSUB);
+ASTSUB jjtn002 = new ASTSUB(this, JJTSUB);
               boolean jjtc002 = true;
               jjtree.openNodeScope(jjtn002);
       try {
@@ -1119,11 +1255,11 @@ if (jjtc002) {
     }
   }
 
-  static final public void ADDSUB_NO_ID() throws ParseException {
+  final public void ADDSUB_NO_ID() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case ADD:{
       jj_consume_token(ADD);
-SimpleNode jjtn001 = new SimpleNode(JJTADD);
+ASTADD jjtn001 = new ASTADD(this, JJTADD);
             boolean jjtc001 = true;
             jjtree.openNodeScope(jjtn001);
       try {
@@ -1151,7 +1287,7 @@ if (jjtc001) {
       }
     case SUB:{
       jj_consume_token(SUB);
-SimpleNode jjtn002 = new SimpleNode(JJTSUB);
+ASTSUB jjtn002 = new ASTSUB(this, JJTSUB);
               boolean jjtc002 = true;
               jjtree.openNodeScope(jjtn002);
       try {
@@ -1184,7 +1320,7 @@ if (jjtc002) {
     }
   }
 
-  static final public void EXPR_4() throws ParseException {
+  final public void EXPR_4() throws ParseException {
     EXPR_5();
     label_16:
     while (true) {
@@ -1202,7 +1338,7 @@ if (jjtc002) {
     }
   }
 
-  static final public void EXPR_4_NO_ID() throws ParseException {
+  final public void EXPR_4_NO_ID() throws ParseException {
     EXPR_5_NO_ID();
     label_17:
     while (true) {
@@ -1220,11 +1356,11 @@ if (jjtc002) {
     }
   }
 
-  static final public void MULDIV() throws ParseException {
+  final public void MULDIV() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case MUL:{
       jj_consume_token(MUL);
-SimpleNode jjtn001 = new SimpleNode(JJTMUL);
+ASTMUL jjtn001 = new ASTMUL(this, JJTMUL);
             boolean jjtc001 = true;
             jjtree.openNodeScope(jjtn001);
       try {
@@ -1252,7 +1388,7 @@ if (jjtc001) {
       }
     case DIV:{
       jj_consume_token(DIV);
-SimpleNode jjtn002 = new SimpleNode(JJTDIV);
+ASTDIV jjtn002 = new ASTDIV(this, JJTDIV);
               boolean jjtc002 = true;
               jjtree.openNodeScope(jjtn002);
       try {
@@ -1285,11 +1421,11 @@ if (jjtc002) {
     }
   }
 
-  static final public void MULDIV_NO_ID() throws ParseException {
+  final public void MULDIV_NO_ID() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case MUL:{
       jj_consume_token(MUL);
-SimpleNode jjtn001 = new SimpleNode(JJTMUL);
+ASTMUL jjtn001 = new ASTMUL(this, JJTMUL);
             boolean jjtc001 = true;
             jjtree.openNodeScope(jjtn001);
       try {
@@ -1317,7 +1453,7 @@ if (jjtc001) {
       }
     case DIV:{
       jj_consume_token(DIV);
-SimpleNode jjtn002 = new SimpleNode(JJTDIV);
+ASTDIV jjtn002 = new ASTDIV(this, JJTDIV);
               boolean jjtc002 = true;
               jjtree.openNodeScope(jjtn002);
       try {
@@ -1350,7 +1486,7 @@ if (jjtc002) {
     }
   }
 
-  static final public void EXPR_5() throws ParseException {
+  final public void EXPR_5() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case LPAREN:
     case SUB:
@@ -1365,7 +1501,7 @@ if (jjtc002) {
       }
     case NOT:{
       jj_consume_token(NOT);
-SimpleNode jjtn001 = new SimpleNode(JJTNOT);
+ASTNOT jjtn001 = new ASTNOT(this, JJTNOT);
               boolean jjtc001 = true;
               jjtree.openNodeScope(jjtn001);
       try {
@@ -1398,7 +1534,7 @@ if (jjtc001) {
     }
   }
 
-  static final public void EXPR_5_NO_ID() throws ParseException {
+  final public void EXPR_5_NO_ID() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case LPAREN:
     case SUB:
@@ -1412,7 +1548,7 @@ if (jjtc001) {
       }
     case NOT:{
       jj_consume_token(NOT);
-SimpleNode jjtn001 = new SimpleNode(JJTNOT);
+ASTNOT jjtn001 = new ASTNOT(this, JJTNOT);
               boolean jjtc001 = true;
               jjtree.openNodeScope(jjtn001);
       try {
@@ -1445,8 +1581,8 @@ if (jjtc001) {
     }
   }
 
-  static final public void EXPR_6() throws ParseException {/*@bgen(jjtree) TERM */
-                      SimpleNode jjtn000 = new SimpleNode(JJTTERM);
+  final public void EXPR_6() throws ParseException {/*@bgen(jjtree) TERM */
+                      ASTTERM jjtn000 = new ASTTERM(this, JJTTERM);
                       boolean jjtc000 = true;
                       jjtree.openNodeScope(jjtn000);Token t, n; Boolean b = false;
     try {
@@ -1484,12 +1620,12 @@ jjtn000.name = t.image;
         }
       case IDENTIFIER:{
         t = jj_consume_token(IDENTIFIER);
-jjtn000.name = t.image;
+jjtn000.name = t.image; jjtn000.nameId = t.nameId;
         break;
         }
       case LPAREN:{
         jj_consume_token(LPAREN);
-SimpleNode jjtn001 = new SimpleNode(JJTENCLOSED_EXPR);
+ASTENCLOSED_EXPR jjtn001 = new ASTENCLOSED_EXPR(this, JJTENCLOSED_EXPR);
                  boolean jjtc001 = true;
                  jjtree.openNodeScope(jjtn001);
         try {
@@ -1556,8 +1692,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void EXPR_6_NO_ID() throws ParseException {/*@bgen(jjtree) TERM */
-                            SimpleNode jjtn000 = new SimpleNode(JJTTERM);
+  final public void EXPR_6_NO_ID() throws ParseException {/*@bgen(jjtree) TERM */
+                            ASTTERM jjtn000 = new ASTTERM(this, JJTTERM);
                             boolean jjtc000 = true;
                             jjtree.openNodeScope(jjtn000);Token t, n; Boolean b = false;
     try {
@@ -1595,7 +1731,7 @@ jjtn000.name = t.image;
         }
       case LPAREN:{
         jj_consume_token(LPAREN);
-SimpleNode jjtn001 = new SimpleNode(JJTENCLOSED_EXPR);
+ASTENCLOSED_EXPR jjtn001 = new ASTENCLOSED_EXPR(this, JJTENCLOSED_EXPR);
                  boolean jjtc001 = true;
                  jjtree.openNodeScope(jjtn001);
         try {
@@ -1662,7 +1798,7 @@ if (jjtc000) {
     }
   }
 
-  static final public void EXPR_7() throws ParseException {
+  final public void EXPR_7() throws ParseException {
     switch ((jj_ntk==-1)?jj_ntk_f():jj_ntk) {
     case LBRACK:{
       ArrayAccs();
@@ -1679,8 +1815,8 @@ if (jjtc000) {
     }
   }
 
-  static final public void NEW() throws ParseException {/*@bgen(jjtree) NEW */
-             SimpleNode jjtn000 = new SimpleNode(JJTNEW);
+  final public void NEW() throws ParseException {/*@bgen(jjtree) NEW */
+             ASTNEW jjtn000 = new ASTNEW(this, JJTNEW);
              boolean jjtc000 = true;
              jjtree.openNodeScope(jjtn000);Token n;
     try {
@@ -1725,16 +1861,16 @@ if (jjtc000) {
     }
   }
 
-  static void error_skip_to(int kind) throws ParseException {Token t;
+  void error_skip_to(int kind) throws ParseException {Token t;
 
     do
     {
       t = getNextToken();
     }
-    while (t.kind != kind);
+    while (t.kind != kind && t.kind != EOF);
   }
 
-  static private boolean jj_2_1(int xla)
+  private boolean jj_2_1(int xla)
  {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_1(); }
@@ -1742,7 +1878,7 @@ if (jjtc000) {
     finally { jj_save(0, xla); }
   }
 
-  static private boolean jj_2_2(int xla)
+  private boolean jj_2_2(int xla)
  {
     jj_la = xla; jj_lastpos = jj_scanpos = token;
     try { return !jj_3_2(); }
@@ -1750,38 +1886,38 @@ if (jjtc000) {
     finally { jj_save(1, xla); }
   }
 
-  static private boolean jj_3_2()
+  private boolean jj_3_2()
  {
     if (jj_3R_18()) return true;
     return false;
   }
 
-  static private boolean jj_3R_23()
+  private boolean jj_3R_23()
  {
     if (jj_scan_token(LBRACK)) return true;
     return false;
   }
 
-  static private boolean jj_3R_22()
+  private boolean jj_3R_22()
  {
     if (jj_scan_token(IDENTIFIER)) return true;
     return false;
   }
 
-  static private boolean jj_3R_18()
+  private boolean jj_3R_18()
  {
     if (jj_3R_19()) return true;
     if (jj_scan_token(IDENTIFIER)) return true;
     return false;
   }
 
-  static private boolean jj_3R_21()
+  private boolean jj_3R_21()
  {
     if (jj_scan_token(BOOL)) return true;
     return false;
   }
 
-  static private boolean jj_3R_20()
+  private boolean jj_3R_20()
  {
     if (jj_scan_token(INT)) return true;
     Token xsp;
@@ -1790,7 +1926,7 @@ if (jjtc000) {
     return false;
   }
 
-  static private boolean jj_3R_19()
+  private boolean jj_3R_19()
  {
     Token xsp;
     xsp = jj_scanpos;
@@ -1804,25 +1940,24 @@ if (jjtc000) {
     return false;
   }
 
-  static private boolean jj_3_1()
+  private boolean jj_3_1()
  {
     if (jj_3R_18()) return true;
     return false;
   }
 
-  static private boolean jj_initialized_once = false;
   /** Generated Token Manager. */
-  static public JavaMMTokenManager token_source;
-  static SimpleCharStream jj_input_stream;
+  public JavaMMTokenManager token_source;
+  SimpleCharStream jj_input_stream;
   /** Current token. */
-  static public Token token;
+  public Token token;
   /** Next token. */
-  static public Token jj_nt;
-  static private int jj_ntk;
-  static private Token jj_scanpos, jj_lastpos;
-  static private int jj_la;
-  static private int jj_gen;
-  static final private int[] jj_la1 = new int[41];
+  public Token jj_nt;
+  private int jj_ntk;
+  private Token jj_scanpos, jj_lastpos;
+  private int jj_la;
+  private int jj_gen;
+  final private int[] jj_la1 = new int[41];
   static private int[] jj_la1_0;
   static private int[] jj_la1_1;
   static {
@@ -1835,9 +1970,9 @@ if (jjtc000) {
    private static void jj_la1_init_1() {
       jj_la1_1 = new int[] {0x200,0x10000,0x0,0x10001,0x108be,0x0,0x10000,0x108be,0x0,0x10000,0x108be,0x108be,0x0,0x1081e,0x0,0x0,0x0,0x1081e,0x10400,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x0,0x1081e,0x81e,0x0,0x1081e,0x0,0x0,0x81e,0x0,0x0,0x10000,};
    }
-  static final private JJCalls[] jj_2_rtns = new JJCalls[2];
-  static private boolean jj_rescan = false;
-  static private int jj_gc = 0;
+  final private JJCalls[] jj_2_rtns = new JJCalls[2];
+  private boolean jj_rescan = false;
+  private int jj_gc = 0;
 
   /** Constructor with InputStream. */
   public JavaMM(java.io.InputStream stream) {
@@ -1845,13 +1980,6 @@ if (jjtc000) {
   }
   /** Constructor with InputStream and supplied encoding */
   public JavaMM(java.io.InputStream stream, String encoding) {
-    if (jj_initialized_once) {
-      System.out.println("ERROR: Second call to constructor of static parser.  ");
-      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
-      System.out.println("       during parser generation.");
-      throw new Error();
-    }
-    jj_initialized_once = true;
     try { jj_input_stream = new SimpleCharStream(stream, encoding, 1, 1); } catch(java.io.UnsupportedEncodingException e) { throw new RuntimeException(e); }
     token_source = new JavaMMTokenManager(jj_input_stream);
     token = new Token();
@@ -1862,11 +1990,11 @@ if (jjtc000) {
   }
 
   /** Reinitialise. */
-  static public void ReInit(java.io.InputStream stream) {
+  public void ReInit(java.io.InputStream stream) {
      ReInit(stream, null);
   }
   /** Reinitialise. */
-  static public void ReInit(java.io.InputStream stream, String encoding) {
+  public void ReInit(java.io.InputStream stream, String encoding) {
     try { jj_input_stream.ReInit(stream, encoding, 1, 1); } catch(java.io.UnsupportedEncodingException e) { throw new RuntimeException(e); }
     token_source.ReInit(jj_input_stream);
     token = new Token();
@@ -1879,13 +2007,6 @@ if (jjtc000) {
 
   /** Constructor. */
   public JavaMM(java.io.Reader stream) {
-    if (jj_initialized_once) {
-      System.out.println("ERROR: Second call to constructor of static parser. ");
-      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
-      System.out.println("       during parser generation.");
-      throw new Error();
-    }
-    jj_initialized_once = true;
     jj_input_stream = new SimpleCharStream(stream, 1, 1);
     token_source = new JavaMMTokenManager(jj_input_stream);
     token = new Token();
@@ -1896,7 +2017,7 @@ if (jjtc000) {
   }
 
   /** Reinitialise. */
-  static public void ReInit(java.io.Reader stream) {
+  public void ReInit(java.io.Reader stream) {
     jj_input_stream.ReInit(stream, 1, 1);
     token_source.ReInit(jj_input_stream);
     token = new Token();
@@ -1909,13 +2030,6 @@ if (jjtc000) {
 
   /** Constructor with generated Token Manager. */
   public JavaMM(JavaMMTokenManager tm) {
-    if (jj_initialized_once) {
-      System.out.println("ERROR: Second call to constructor of static parser. ");
-      System.out.println("       You must either use ReInit() or set the JavaCC option STATIC to false");
-      System.out.println("       during parser generation.");
-      throw new Error();
-    }
-    jj_initialized_once = true;
     token_source = tm;
     token = new Token();
     jj_ntk = -1;
@@ -1935,7 +2049,7 @@ if (jjtc000) {
     for (int i = 0; i < jj_2_rtns.length; i++) jj_2_rtns[i] = new JJCalls();
   }
 
-  static private Token jj_consume_token(int kind) throws ParseException {
+  private Token jj_consume_token(int kind) throws ParseException {
     Token oldToken;
     if ((oldToken = token).next != null) token = token.next;
     else token = token.next = token_source.getNextToken();
@@ -1961,8 +2075,8 @@ if (jjtc000) {
 
   @SuppressWarnings("serial")
   static private final class LookaheadSuccess extends java.lang.Error { }
-  static final private LookaheadSuccess jj_ls = new LookaheadSuccess();
-  static private boolean jj_scan_token(int kind) {
+  final private LookaheadSuccess jj_ls = new LookaheadSuccess();
+  private boolean jj_scan_token(int kind) {
     if (jj_scanpos == jj_lastpos) {
       jj_la--;
       if (jj_scanpos.next == null) {
@@ -1985,7 +2099,7 @@ if (jjtc000) {
 
 
 /** Get the next Token. */
-  static final public Token getNextToken() {
+  final public Token getNextToken() {
     if (token.next != null) token = token.next;
     else token = token.next = token_source.getNextToken();
     jj_ntk = -1;
@@ -1994,7 +2108,7 @@ if (jjtc000) {
   }
 
 /** Get the specific Token. */
-  static final public Token getToken(int index) {
+  final public Token getToken(int index) {
     Token t = token;
     for (int i = 0; i < index; i++) {
       if (t.next != null) t = t.next;
@@ -2003,20 +2117,20 @@ if (jjtc000) {
     return t;
   }
 
-  static private int jj_ntk_f() {
+  private int jj_ntk_f() {
     if ((jj_nt=token.next) == null)
       return (jj_ntk = (token.next=token_source.getNextToken()).kind);
     else
       return (jj_ntk = jj_nt.kind);
   }
 
-  static private java.util.List<int[]> jj_expentries = new java.util.ArrayList<int[]>();
-  static private int[] jj_expentry;
-  static private int jj_kind = -1;
-  static private int[] jj_lasttokens = new int[100];
-  static private int jj_endpos;
+  private java.util.List<int[]> jj_expentries = new java.util.ArrayList<int[]>();
+  private int[] jj_expentry;
+  private int jj_kind = -1;
+  private int[] jj_lasttokens = new int[100];
+  private int jj_endpos;
 
-  static private void jj_add_error_token(int kind, int pos) {
+  private void jj_add_error_token(int kind, int pos) {
     if (pos >= 100) return;
     if (pos == jj_endpos + 1) {
       jj_lasttokens[jj_endpos++] = kind;
@@ -2042,7 +2156,7 @@ if (jjtc000) {
   }
 
   /** Generate ParseException. */
-  static public ParseException generateParseException() {
+  public ParseException generateParseException() {
     jj_expentries.clear();
     boolean[] la1tokens = new boolean[51];
     if (jj_kind >= 0) {
@@ -2079,14 +2193,14 @@ if (jjtc000) {
   }
 
   /** Enable tracing. */
-  static final public void enable_tracing() {
+  final public void enable_tracing() {
   }
 
   /** Disable tracing. */
-  static final public void disable_tracing() {
+  final public void disable_tracing() {
   }
 
-  static private void jj_rescan_token() {
+  private void jj_rescan_token() {
     jj_rescan = true;
     for (int i = 0; i < 2; i++) {
     try {
@@ -2106,7 +2220,7 @@ if (jjtc000) {
     jj_rescan = false;
   }
 
-  static private void jj_save(int index, int xla) {
+  private void jj_save(int index, int xla) {
     JJCalls p = jj_2_rtns[index];
     while (p.gen > jj_gen) {
       if (p.next == null) { p = p.next = new JJCalls(); break; }
@@ -0,0 +1,32 @@
+/* Maintained by hand, in the form JJTree generates with VISITOR=true. Keep it in step with JavaMM.jjt. */
+package syntax;
+
+public interface JavaMMVisitor
+{
+  public Object visit(SimpleNode node, Object data);
+  public Object visit(ASTProgram node, Object data);
+  public Object visit(ASTClass node, Object data);
+  public Object visit(ASTExtends node, Object data);
+  public Object visit(ASTVar node, Object data);
+  public Object visit(ASTMain node, Object data);
+  public Object visit(ASTMethod node, Object data);
+  public Object visit(ASTReturn node, Object data);
+  public Object visit(ASTArg node, Object data);
+  public Object visit(ASTEQUALS node, Object data);
+  public Object visit(ASTTERM node, Object data);
+  public Object visit(ASTWhile node, Object data);
+  public Object visit(ASTIf node, Object data);
+  public Object visit(ASTElse node, Object data);
+  public Object visit(ASTThen node, Object data);
+  public Object visit(ASTMember node, Object data);
+  public Object visit(ASTArrayAccs node, Object data);
+  public Object visit(ASTAND node, Object data);
+  public Object visit(ASTLOWER node, Object data);
+  public Object visit(ASTADD node, Object data);
+  public Object visit(ASTSUB node, Object data);
+  public Object visit(ASTMUL node, Object data);
+  public Object visit(ASTDIV node, Object data);
+  public Object visit(ASTNOT node, Object data);
+  public Object visit(ASTENCLOSED_EXPR node, Object data);
+  public Object visit(ASTNEW node, Object data);
+}
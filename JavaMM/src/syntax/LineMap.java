@@ -0,0 +1,73 @@
+package syntax;
+
+import java.util.Arrays;
+
+/**
+ * Offsets where the lines of a source start, to turn the offsets kept by tokens and nodes
+ * into lines and columns only when one is needed, e.g. for a diagnostic. Lines and columns
+ * start at 1 and tabs are expanded the way SimpleCharStream does, so they match those of
+ * tokens read with tracking on.
+ */
+public class LineMap
+{
+    private CharSequence text;
+    private int[] lineStarts = new int[64];
+    private int lines = 1;
+    private int tabSize = 8;
+
+    public LineMap(CharSequence text)
+    {
+        this.text = text;
+
+        //A line starts after \n, or after a \r not followed by \n
+        for(int i = 0; i < text.length(); i++)
+        {
+            char c = text.charAt(i);
+
+            if(c == '\n' || (c == '\r' && (i + 1 == text.length() || text.charAt(i + 1) != '\n')))
+            {
+                if(lines == lineStarts.length)
+                    lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+
+                lineStarts[lines++] = i + 1;
+            }
+        }
+    }
+
+    public int getLine(int offset)
+    {
+        return lineOf(offset) + 1;
+    }
+
+    public int getColumn(int offset)
+    {
+        int column = 0;
+
+        for(int i = lineStarts[lineOf(offset)]; i <= offset && i < text.length(); i++)
+            column = text.charAt(i) == '\t' ? column + (tabSize - (column % tabSize)) : column + 1;
+
+        return column;
+    }
+
+    public int getLineCount()
+    {
+        return lines;
+    }
+
+    private int lineOf(int offset)
+    {
+        int low = 0, high = lines - 1;
+
+        while(low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+
+            if(lineStarts[middle] <= offset)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+
+        return low;
+    }
+}
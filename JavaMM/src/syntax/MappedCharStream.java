@@ -0,0 +1,386 @@
+package syntax;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Character stream over a memory-mapped ASCII file. Bytes are read straight from the
+ * mapping, with no Reader and no copy of the input, and instead of a line and column for
+ * every buffered character only the offsets where lines start are kept, found as the
+ * positions are asked for. Positions are the same as SimpleCharStream's, tabs included.
+ *
+ * The mapping is released by Done, rather than by the garbage collector whenever it runs,
+ * as the file can't be replaced while it is mapped on some systems, e.g. on Windows.
+ */
+public class MappedCharStream extends SimpleCharStream
+{
+    //sun.misc.Unsafe and its invokeCleaner, to unmap a buffer on the spot, if the runtime has them
+    private static Object unsafe;
+    private static Method invokeCleaner;
+
+    private MappedByteBuffer data;
+    private int length;
+    private int position = -1;
+    private int begin;
+    private byte[] image = new byte[64];
+
+    //Offsets where each line starts, known up to scanned, and the last tab seen
+    private int[] lineStarts = new int[64];
+    private int lines = 1;
+    private int scanned;
+    private int tabLine = -1;
+    private int tabOffset;
+    private int tabColumn;
+
+    //Last position found, as tokens ask for the same ones several times
+    private int foundOffset = -1;
+    private int foundLine;
+    private int foundColumn;
+
+    //Set by adjustBeginLineColumn: positions from adjusted on are moved by lineDelta, and
+    //those on the same line by columnDelta as well
+    private int adjusted = -1;
+    private int adjustedLine;
+    private int lineDelta;
+    private int columnDelta;
+
+    static
+    {
+        try
+        {
+            Class<?> type = Class.forName("sun.misc.Unsafe");
+            Field field = type.getDeclaredField("theUnsafe");
+
+            field.setAccessible(true);
+            unsafe = field.get(null);
+            invokeCleaner = type.getMethod("invokeCleaner", ByteBuffer.class);
+        }
+        catch(ReflectiveOperationException | RuntimeException e)
+        {
+            unsafe = null;
+            invokeCleaner = null;
+        }
+    }
+
+    private MappedCharStream(MappedByteBuffer data)
+    {
+        super((java.io.Reader) null, 1, 1, 1);
+        this.data = data;
+        this.length = data.limit();
+    }
+
+    /** Maps the file, or returns null if it isn't plain ASCII and must be decoded by a Reader. */
+    public static MappedCharStream open(Path file) throws IOException
+    {
+        MappedByteBuffer data;
+
+        try(FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            data = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if(isAscii(data))
+            return new MappedCharStream(data);
+
+        unmap(data);
+
+        return null;
+    }
+
+    private static boolean isAscii(MappedByteBuffer data)
+    {
+        int i = 0, length = data.limit();
+
+        for(; i + 8 <= length; i += 8)
+        {
+            if((data.getLong(i) & 0x8080808080808080L) != 0)
+                return false;
+        }
+
+        for(; i < length; i++)
+        {
+            if(data.get(i) < 0)
+                return false;
+        }
+
+        return true;
+    }
+
+    public char BeginToken() throws IOException
+    {
+        begin = -1;
+        char c = readChar();
+        begin = position;
+
+        return c;
+    }
+
+    public char readChar() throws IOException
+    {
+        if(position + 1 >= length)
+        {
+            if(begin == -1)
+                begin = position;
+
+            throw new IOException();
+        }
+
+        return (char) data.get(++position);
+    }
+
+    public void backup(int amount)
+    {
+        position -= amount;
+    }
+
+    public String GetImage()
+    {
+        int count = position - begin + 1;
+
+        if(count > image.length)
+            image = new byte[Math.max(count, image.length * 2)];
+
+        data.get(begin, image, 0, count);
+
+        return new String(image, 0, count, StandardCharsets.ISO_8859_1);
+    }
+
+    public char[] GetSuffix(int len)
+    {
+        char[] suffix = new char[len];
+
+        for(int i = 0; i < len; i++)
+            suffix[i] = (char) data.get(position - len + 1 + i);
+
+        return suffix;
+    }
+
+    public int getBeginLine()
+    {
+        locate(begin);
+        return foundLine;
+    }
+
+    public int getBeginColumn()
+    {
+        locate(begin);
+        return foundColumn;
+    }
+
+    public int getEndLine()
+    {
+        locate(position);
+        return foundLine;
+    }
+
+    public int getEndColumn()
+    {
+        locate(position);
+        return foundColumn;
+    }
+
+    public int getBeginOffset()
+    {
+        return begin;
+    }
+
+    public int getEndOffset()
+    {
+        return position;
+    }
+
+    @Deprecated
+    public int getLine()
+    {
+        return getEndLine();
+    }
+
+    @Deprecated
+    public int getColumn()
+    {
+        return getEndColumn();
+    }
+
+    //Like SimpleCharStream, moves the position of the token's first character and of every
+    //one read after it. Only the last adjustment is kept, as tokens take their positions as
+    //soon as they are read.
+    public void adjustBeginLineColumn(int newLine, int newCol)
+    {
+        adjusted = -1;
+        foundOffset = -1;
+        locate(begin);
+
+        adjusted = begin;
+        adjustedLine = foundLine;
+        lineDelta = newLine - foundLine;
+        columnDelta = newCol - foundColumn;
+        foundOffset = -1;
+    }
+
+    /** Goes back to the start of the file, to read it again. */
+    public MappedCharStream rewind()
+    {
+        position = -1;
+        foundOffset = -1;
+        adjusted = -1;
+        trackLineColumn = true;
+
+        return this;
+    }
+
+    /** Unmaps the file. The stream can't be read from afterwards. */
+    public void Done()
+    {
+        MappedByteBuffer mapping = data;
+
+        data = null;
+
+        if(mapping != null)
+            unmap(mapping);
+    }
+
+    //Without invokeCleaner, the mapping goes once the buffer is garbage collected
+    private static void unmap(MappedByteBuffer mapping)
+    {
+        if(invokeCleaner == null)
+            return;
+
+        try
+        {
+            invokeCleaner.invoke(unsafe, mapping);
+        }
+        catch(ReflectiveOperationException e)
+        {
+            invokeCleaner = null;
+        }
+    }
+
+    //Finds the line and column of the character at offset, then moves them if the offset
+    //is past an adjusted token
+    private void locate(int offset)
+    {
+        if(offset == foundOffset)
+            return;
+
+        foundOffset = offset;
+        find(offset);
+
+        if(adjusted >= 0 && offset >= adjusted && foundLine != 0)
+        {
+            if(foundLine == adjustedLine)
+                foundColumn += columnDelta;
+
+            foundLine += lineDelta;
+        }
+    }
+
+    //Finds the line and column of the character at offset in the file. Later offsets are
+    //found by scanning on from the last one, where only line breaks and tabs need a closer
+    //look; earlier ones by counting columns from the start of their line.
+    private void find(int offset)
+    {
+
+        //Nothing read yet, where SimpleCharStream reports an unset position
+        if(offset < 0 || !trackLineColumn)
+        {
+            foundLine = foundColumn = 0;
+            return;
+        }
+
+        if(offset < scanned - 1)
+        {
+            int line = lineOf(offset);
+            int column = 0;
+
+            for(int i = lineStarts[line]; i <= offset; i++)
+                column = nextColumn(column, data.get(i));
+
+            foundLine = line + 1;
+            foundColumn = column;
+            return;
+        }
+
+        for(; scanned <= offset; scanned++)
+        {
+            //Skips eight characters at a time while none is a control character; as all are
+            //ASCII, a byte below 14 is what borrows into its top bit
+            while(scanned + 8 <= offset)
+            {
+                long word = data.getLong(scanned);
+
+                if(((word - 0x0E0E0E0E0E0E0E0EL) & ~word & 0x8080808080808080L) != 0)
+                    break;
+
+                scanned += 8;
+            }
+
+            byte c = data.get(scanned);
+
+            if(c > '\r')
+                continue;
+
+            //A line starts after \n, or after a \r not followed by \n
+            if(c == '\n' || (c == '\r' && (scanned + 1 == length || data.get(scanned + 1) != '\n')))
+            {
+                if(lines == lineStarts.length)
+                    lineStarts = Arrays.copyOf(lineStarts, lines * 2);
+
+                lineStarts[lines++] = scanned + 1;
+            }
+            else if(c == '\t')
+            {
+                tabColumn = nextColumn(columnOf(scanned - 1, lines - 1), c);
+                tabOffset = scanned;
+                tabLine = lines - 1;
+            }
+        }
+
+        //The character at offset may itself have started the next line
+        int line = lineStarts[lines - 1] > offset ? lines - 2 : lines - 1;
+
+        foundLine = line + 1;
+        foundColumn = columnOf(offset, line);
+    }
+
+    //Column of a scanned offset on the given line, counted from the last tab before it if any
+    private int columnOf(int offset, int line)
+    {
+        if(tabLine == line && tabOffset <= offset)
+            return tabColumn + offset - tabOffset;
+
+        return offset - lineStarts[line] + 1;
+    }
+
+    private int nextColumn(int column, byte c)
+    {
+        if(c == '\t')
+            return column + (tabSize - (column % tabSize));
+
+        return column + 1;
+    }
+
+    private int lineOf(int offset)
+    {
+        int low = 0, high = lines - 1;
+
+        while(low < high)
+        {
+            int middle = (low + high + 1) >>> 1;
+
+            if(lineStarts[middle] <= offset)
+                low = middle;
+            else
+                high = middle - 1;
+        }
+
+        return low;
+    }
+}
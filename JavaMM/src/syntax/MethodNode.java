@@ -0,0 +1,53 @@
+package syntax;
+
+/**
+ * Base of the Method and Main nodes. When an incremental reparse moves a method past an
+ * edit, only the method's own offsets are moved at once; those of its body are moved the
+ * first time its children are asked for, so methods that are never walked again cost
+ * nothing to move.
+ */
+public abstract class MethodNode extends SimpleNode
+{
+    //Offsets the children are still to be moved by
+    private int pendingMove;
+
+    public MethodNode(int id)
+    {
+        super(id);
+    }
+
+    public MethodNode(JavaMM p, int id)
+    {
+        super(p, id);
+    }
+
+    public void moveOffsets(int delta)
+    {
+        begin += delta;
+        end += delta;
+        pendingMove += delta;
+    }
+
+    public void settleOffsets()
+    {
+        if(pendingMove != 0 && children != null)
+        {
+            for(Node child: children)
+                ((SimpleNode) child).moveOffsets(pendingMove);
+        }
+
+        pendingMove = 0;
+    }
+
+    public Node jjtGetChild(int i)
+    {
+        settleOffsets();
+        return children[i];
+    }
+
+    public Object childrenAccept(JavaMMVisitor visitor, Object data)
+    {
+        settleOffsets();
+        return super.childrenAccept(visitor, data);
+    }
+}
@@ -0,0 +1,82 @@
+package syntax;
+
+import java.util.Arrays;
+
+/**
+ * Names of a compilation, each stored once and numbered in the order they were first seen.
+ * The token manager interns every identifier it reads, so equal names share one String
+ * and an id that symbol tables can use as key instead of hashing the String again.
+ */
+public class NameTable
+{
+    private String[] names = new String[256];
+    private int count;
+
+    //Open addressing over the ids, stored plus one so that zero is an empty slot
+    private int[] slots = new int[512];
+
+    /** Returns the id of the name, adding it if it's new. */
+    public int intern(String name)
+    {
+        int mask = slots.length - 1;
+        int slot = name.hashCode() & mask;
+
+        for(int id; (id = slots[slot]) != 0; slot = (slot + 1) & mask)
+        {
+            if(names[id - 1].equals(name))
+                return id - 1;
+        }
+
+        if(count == names.length)
+            names = Arrays.copyOf(names, count * 2);
+
+        names[count] = name;
+        slots[slot] = ++count;
+
+        if(count * 2 > slots.length)
+            rehash();
+
+        return count - 1;
+    }
+
+    /** Returns the id of the name, or -1 if it was never interned. */
+    public int lookup(String name)
+    {
+        int mask = slots.length - 1;
+
+        for(int slot = name.hashCode() & mask, id; (id = slots[slot]) != 0; slot = (slot + 1) & mask)
+        {
+            if(names[id - 1].equals(name))
+                return id - 1;
+        }
+
+        return -1;
+    }
+
+    public String get(int id)
+    {
+        return names[id];
+    }
+
+    public int size()
+    {
+        return count;
+    }
+
+    private void rehash()
+    {
+        slots = new int[slots.length * 2];
+
+        int mask = slots.length - 1;
+
+        for(int id = 0; id < count; id++)
+        {
+            int slot = names[id].hashCode() & mask;
+
+            while(slots[slot] != 0)
+                slot = (slot + 1) & mask;
+
+            slots[slot] = id + 1;
+        }
+    }
+}
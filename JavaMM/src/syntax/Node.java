@@ -1,5 +1,5 @@
 /* Generated By:JJTree: Do not edit this line. Node.java Version 6.0 */
-/* JavaCCOptions:MULTI=false,NODE_USES_PARSER=false,VISITOR=false,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=,NODE_FACTORY=,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=true,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=,NODE_FACTORY=,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
 /* All AST nodes must implement this interface.  It provides basic
    machinery for constructing the parent and child relationships
    between nodes. */
@@ -33,13 +33,23 @@ interface Node {
   /** Return the number of children the node has. */
   public int jjtGetNumChildren();
 
+  /** Accept the visitor. **/
+  public Object jjtAccept(JavaMMVisitor visitor, Object data);
+
   public int getId();
 
   
   public String getName();
 
+  public int getNameId();
+
   public String getType();
 
   public String getReturnType();
+
+  /** Offsets in the input of the node's first and last characters. */
+  public int getBeginOffset();
+
+  public int getEndOffset();
 }
 /* JavaCC - OriginalChecksum=a2ab0195dbe3c1dbb53c0c14bd211605 (do not edit this line) */
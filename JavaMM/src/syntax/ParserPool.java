@@ -0,0 +1,78 @@
+package syntax;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Keeps idle parsers for reuse, reset with ReInit for every new input. The character
+ * buffers of a parser's stream are kept across inputs, so parsing on many threads needs
+ * neither locking nor a fresh set of buffers per file. The pool is not tied to threads,
+ * so short-lived threads reuse parsers as well.
+ */
+public class ParserPool
+{
+    private static final ConcurrentLinkedQueue<JavaMM> parsers = new ConcurrentLinkedQueue<JavaMM>();
+
+    /** Returns an idle parser, ready to parse the given input. */
+    public static JavaMM acquire(java.io.Reader input)
+    {
+        JavaMM parser = parsers.poll();
+
+        if(parser == null)
+            return new JavaMM(input);
+
+        SimpleCharStream stream = parser.jj_input_stream;
+
+        parser.clear();
+
+        //Parsers made for a stream of their own have no buffers to reuse
+        if(stream == null)
+        {
+            parser.jj_input_stream = new SimpleCharStream(input, 1, 1);
+            parser.token_source.ReInit(parser.jj_input_stream);
+            parser.ReInit(parser.token_source);
+
+            return parser;
+        }
+
+        //Passing the current size keeps ReInit from reallocating the buffers
+        stream.ReInit(input, 1, 1, stream.bufsize);
+        parser.token_source.ReInit(stream);
+        parser.ReInit(parser.token_source);
+
+        return parser;
+    }
+
+    /** Returns an idle parser, ready to read from the given stream instead of its own. */
+    public static JavaMM acquire(SimpleCharStream stream)
+    {
+        JavaMM parser = parsers.poll();
+
+        if(parser == null)
+            return new JavaMM(new JavaMMTokenManager(stream));
+
+        parser.clear();
+        parser.token_source.ReInit(stream);
+        parser.ReInit(parser.token_source);
+
+        return parser;
+    }
+
+    /**
+     * Gives a parser back to the pool once its parse is over. Idle parsers keep none of the
+     * tree, tokens or names of their last parse, so those can be collected.
+     */
+    public static void release(JavaMM parser)
+    {
+        //A stream given to acquire isn't kept, so mapped files can be unmapped
+        if(parser.token_source.input_stream != parser.jj_input_stream)
+            parser.token_source.input_stream = parser.jj_input_stream;
+
+        if(parser.jj_input_stream != null)
+            parser.trackPositions(true);
+
+        parser.token_source.names = null;
+        parser.clear();
+
+        parsers.offer(parser);
+    }
+}
@@ -1,5 +1,5 @@
 /* Generated By:JJTree: Do not edit this line. SimpleNode.java Version 6.0 */
-/* JavaCCOptions:MULTI=false,NODE_USES_PARSER=false,VISITOR=false,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=,NODE_FACTORY=,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
+/* JavaCCOptions:MULTI=true,NODE_USES_PARSER=true,VISITOR=true,TRACK_TOKENS=false,NODE_PREFIX=AST,NODE_EXTENDS=,NODE_FACTORY=,SUPPORT_CLASS_VISIBILITY_PUBLIC=true */
 
 package syntax;
 
@@ -13,9 +13,15 @@ class SimpleNode implements Node {
   protected JavaMM parser;
 
   protected String name;
+  protected int nameId = -1;
   protected String returnType;
   protected String type;
 
+  /* Offsets in the input of the first and last characters of the node,
+     which a LineMap turns into lines and columns when they are needed. */
+  protected int begin = -1;
+  protected int end = -1;
+
   public SimpleNode(int i) {
     id = i;
   }
@@ -26,9 +32,18 @@ class SimpleNode implements Node {
   }
 
   public void jjtOpen() {
+    begin = parser.getToken(1).beginOffset;
   }
 
+  /* A node opened after its first child, like an operator, begins where
+     that child does. The parser isn't needed any more once closed. */
   public void jjtClose() {
+    end = parser.token.endOffset;
+
+    if (children != null && children.length > 0 && children[0].getBeginOffset() < begin) {
+      begin = children[0].getBeginOffset();
+    }
+    parser = null;
   }
 
   public void jjtSetParent(Node n) { parent = n; }
@@ -56,6 +71,23 @@ class SimpleNode implements Node {
   public void jjtSetValue(Object value) { this.value = value; }
   public Object jjtGetValue() { return value; }
 
+  /** Accept the visitor. **/
+  public Object jjtAccept(JavaMMVisitor visitor, Object data)
+{
+    return visitor.visit(this, data);
+  }
+
+  /** Accept the visitor. **/
+  public Object childrenAccept(JavaMMVisitor visitor, Object data)
+{
+    if (children != null) {
+      for (int i = 0; i < children.length; ++i) {
+        children[i].jjtAccept(visitor, data);
+      }
+    }
+    return data;
+  }
+
   /* You can override these two methods in subclasses of SimpleNode to
      customize the way the node appears when the tree is dumped.  If
      your output uses more than one line you should override
@@ -115,6 +147,12 @@ class SimpleNode implements Node {
     return name;
   }
 
+  //Id of the name in the compilation's NameTable, or -1 if it isn't an identifier
+  public int getNameId()
+  {
+    return nameId;
+  }
+
   public String getType()
   {
     return type;
@@ -124,6 +162,34 @@ class SimpleNode implements Node {
   {
     return returnType;
   }
+
+  public int getBeginOffset()
+  {
+    return begin;
+  }
+
+  public int getEndOffset()
+  {
+    return end;
+  }
+
+  /* Moves the offsets of the node and of the nodes under it by delta. */
+  public void moveOffsets(int delta)
+  {
+    begin += delta;
+    end += delta;
+
+    if (children != null) {
+      for (Node c : children) {
+        ((SimpleNode) c).moveOffsets(delta);
+      }
+    }
+  }
+
+  /* Applies the moves a node put off to its children, if any. */
+  public void settleOffsets()
+  {
+  }
 }
 
 /* JavaCC - OriginalChecksum=6cb1bcf29a372068ead34f1d63760b8a (do not edit this line) */
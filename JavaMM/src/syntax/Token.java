@@ -36,6 +36,13 @@ public class Token implements java.io.Serializable {
    */
   public String image;
 
+  /** Offsets in the input of the first and last characters of this Token. */
+  public int beginOffset;
+  public int endOffset;
+
+  /** Id of an identifier's image in the token manager's NameTable, or -1. */
+  public int nameId = -1;
+
   /**
    * A reference to the next regular (non-special) token from the input
    * stream.  If this is the last token from the input stream, or if the
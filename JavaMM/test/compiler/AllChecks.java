@@ -0,0 +1,55 @@
+package compiler;
+
+/**
+ * Runs every check class, going on past one that throws, and exits with status 1 if any
+ * check failed.
+ */
+public class AllChecks
+{
+    public static void main(String[] args)
+    {
+        check("BatchCheck", BatchCheck::run);
+        check("ContextCheck", ContextCheck::run);
+        check("ParserPoolCheck", syntax.ParserPoolCheck::run);
+        check("ServerCheck", ServerCheck::run);
+        check("ClassOutputCheck", ClassOutputCheck::run);
+        check("BackendCheck", BackendCheck::run);
+        check("FrameCheck", FrameCheck::run);
+        check("ApiCheck", ApiCheck::run);
+        check("RunCheck", RunCheck::run);
+        check("WatchCheck", WatchCheck::run);
+        check("CacheCheck", CacheCheck::run);
+        check("StatsCheck", StatsCheck::run);
+        check("EventsCheck", EventsCheck::run);
+        check("GeneratorCheck", GeneratorCheck::run);
+        check("EmitterCheck", EmitterCheck::run);
+        check("MappedStreamCheck", syntax.MappedStreamCheck::run);
+        check("FastParseCheck", FastParseCheck::run);
+        check("InterningCheck", InterningCheck::run);
+        check("NodeClassCheck", syntax.NodeClassCheck::run);
+        check("FlatTreeCheck", FlatTreeCheck::run);
+        check("TreeShapeCheck", syntax.TreeShapeCheck::run);
+        check("RecoveryCheck", RecoveryCheck::run);
+        check("SpanCheck", syntax.SpanCheck::run);
+        check("IncrementalCheck", syntax.IncrementalCheck::run);
+
+        Check.exit();
+    }
+
+    private static void check(String name, Check.Action checks)
+    {
+        int failed = Check.getFailed();
+
+        try
+        {
+            checks.run();
+        }
+        catch(Throwable e)
+        {
+            Check.fail(name + " threw " + e);
+            e.printStackTrace();
+        }
+
+        System.out.println((Check.getFailed() == failed ? "ok     " : "FAILED ") + name);
+    }
+}
@@ -0,0 +1,59 @@
+package compiler;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * In-memory compilation: the code or class file comes back in the result, with nothing
+ * written to disk, and errors come back as diagnostics tagged with their phase and position.
+ */
+public class ApiCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        List<String> files = Arrays.asList(new File(".").list()), sources = Arrays.asList(new File("src/files").list());
+
+        for(String sample: Check.SAMPLES)
+        {
+            CompilationResult result = Check.compile(Check.source(sample), "j");
+
+            Check.isTrue(result.isSuccess() && result.getDiagnostics().isEmpty(), "in-memory compilation of " + sample);
+            Check.equal(Check.expected(sample + ".j"), result.getJasminCode(), "in-memory code of " + sample);
+            Check.equal(Check.expected(sample + ".j").split("\\s+")[2], result.getClassName(), "class name of " + sample);
+            Check.isTrue(result.getClassBytes() == null, "no class file in Jasmin mode for " + sample);
+
+            result = Check.compile(Check.source(sample), "class");
+
+            Check.isTrue(result.getJasminCode() == null && result.getClassBytes() != null, "class file in class mode for "
+                + sample);
+        }
+
+        //Errors the parser recovered from are all reported, with their positions
+        CompilationResult result = Check.compile(Check.source("SyntaticError"), "j");
+
+        Check.isTrue(!result.isSuccess() && result.getJasminCode() == null, "compilation with syntax errors fails");
+        Check.equal(2, result.getDiagnostics().size(), "syntax errors reported");
+        Check.equal("syntax", result.getDiagnostics().get(0).getPhase(), "phase of the first syntax error");
+        Check.equal(Arrays.asList(5, 23, 8, 15), Arrays.asList(result.getDiagnostics().get(0).getLine(),
+            result.getDiagnostics().get(0).getColumn(), result.getDiagnostics().get(1).getLine(),
+            result.getDiagnostics().get(1).getColumn()), "positions of the syntax errors");
+
+        result = Check.compile(Check.source("SemanticError"), "class");
+
+        Check.isTrue(!result.isSuccess() && result.getClassBytes() == null, "compilation with semantic errors fails");
+        Check.isTrue(!result.getDiagnostics().isEmpty(), "semantic errors reported");
+
+        for(Diagnostic diagnostic: result.getDiagnostics())
+            Check.equal("semantic", diagnostic.getPhase(), "phase of " + diagnostic);
+
+        Check.equal(files, Arrays.asList(new File(".").list()), "no file written to the working directory");
+        Check.equal(sources, Arrays.asList(new File("src/files").list()), "no file written next to the sources");
+    }
+}
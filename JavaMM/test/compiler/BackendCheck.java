@@ -0,0 +1,75 @@
+package compiler;
+
+/**
+ * Classfile backend: the class files it writes pass the verifier and behave as those
+ * assembled by Jasmin, locals past 255 are reached through the wide prefix, and a method
+ * whose code would pass the class file limit is reported instead of written.
+ */
+public class BackendCheck
+{
+    //Samples whose output doesn't depend on random numbers
+    private static final String[] DETERMINISTIC = {"FindMaximum", "HelloWorld", "QuickSort"};
+
+    //The code of Turing for its negated conditions doesn't verify, which the Jasmin backend
+    //doesn't find out and this one reports
+    private static final String UNVERIFIABLE = "Turing";
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: Check.SAMPLES)
+        {
+            CompilationResult result = Check.compile(Check.source(sample), "classfile");
+
+            if(sample.equals(UNVERIFIABLE))
+                Check.isTrue(!result.isSuccess(), "classfile backend rejects " + sample);
+            else
+            {
+                Check.isTrue(result.isSuccess(), "classfile backend compiles " + sample);
+                Check.load(result.getClassName(), result.getClassBytes());
+            }
+        }
+
+        for(String sample: DETERMINISTIC)
+        {
+            CompilationResult direct = Check.compile(Check.source(sample), "classfile");
+            CompilationResult assembled = Check.compile(Check.source(sample), "class");
+
+            Check.equal(Check.run(assembled.getClassName(), assembled.getClassBytes(), ""),
+                Check.run(direct.getClassName(), direct.getClassBytes(), ""), "output of " + sample);
+        }
+
+        //300 locals, each set and added up through the wide forms of istore and iload
+        StringBuilder declarations = new StringBuilder(), statements = new StringBuilder("sum = 0;");
+
+        for(int i = 0; i < 300; i++)
+        {
+            declarations.append("int v").append(i).append(';');
+            statements.append("v").append(i).append(" = ").append(i).append(';');
+            statements.append("sum = sum + v").append(i).append(';');
+        }
+
+        CompilationResult wide = Check.compile("class Wide { public static void main(String[] a) { int sum;" + declarations
+            + statements + " io.println(sum); } }", "classfile");
+
+        Check.isTrue(wide.isSuccess(), "classfile backend compiles 300 locals");
+        Check.equal("44850\n", Check.run(wide.getClassName(), wide.getClassBytes(), ""), "output with 300 locals");
+
+        //Some 120000 bytes of code in one method
+        StringBuilder body = new StringBuilder();
+
+        for(int i = 0; i < 20000; i++)
+            body.append("x = x + 1000;");
+
+        CompilationResult large = Check.compile("class Large { public static void main(String[] a) { int x; x = 0;" + body
+            + " } }", "classfile");
+
+        Check.isTrue(!large.isSuccess(), "classfile backend rejects a method too large");
+        Check.isTrue(large.getDiagnostics().toString().contains("too large"), "method too large reported");
+    }
+}
@@ -0,0 +1,52 @@
+package compiler;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Batch mode: the samples compiled together on several threads give the expected code, and
+ * a file that fails doesn't keep the others from being compiled or reported in order.
+ */
+public class BatchCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path output = Check.directory();
+        List<String> args = new ArrayList<String>(Arrays.asList("--batch", "-d", output.toString(), "-j", "4"));
+        boolean[] compiled = new boolean[1];
+
+        for(String sample: Check.SAMPLES)
+            args.add(Check.sourcePath(sample).toString());
+
+        String log = Check.output(() -> compiled[0] = Compiler.compileBatch(Check.options(args.toArray(new String[0]))));
+
+        Check.isTrue(compiled[0], "batch of the samples compiles");
+        Check.isTrue(log.contains(Check.SAMPLES.length + " of " + Check.SAMPLES.length + " file(s) compiled"),
+            "batch reports every sample compiled");
+
+        for(String sample: Check.SAMPLES)
+            Check.equal(Check.expected(sample + ".j"), new String(Files.readAllBytes(output.resolve(sample + ".j"))),
+                "batch output of " + sample);
+
+        //A file with errors, given through an argument file along with a good one
+        Path list = output.resolve("sources.txt");
+        String failing = Check.sourcePath("SyntaticError").toString(), good = Check.sourcePath("HelloWorld").toString();
+
+        Files.write(list, Arrays.asList(failing, good));
+        log = Check.output(() -> compiled[0] = Compiler.compileBatch(Check.options("--batch", "-d", output.toString(), "@" + list)));
+
+        Check.isTrue(!compiled[0], "batch with a failing file fails");
+        Check.isTrue(log.contains("1 of 2 file(s) compiled"), "batch reports the good file compiled");
+        Check.isTrue(log.indexOf("--- " + failing) >= 0 && log.indexOf("--- " + failing) < log.indexOf("--- " + good),
+            "batch reports the files in input order");
+    }
+}
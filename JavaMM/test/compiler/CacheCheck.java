@@ -0,0 +1,120 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Build cache: entries are keyed by the source and the output mode, a hit gives back the
+ * stored output without compiling, only clean compilations are stored, and the least
+ * recently used entries are removed past the size cap, with the cache only listed once the
+ * size it keeps passes the cap.
+ */
+public class CacheCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path directory = Check.directory();
+        Options options = options(directory, "j");
+        BuildCache cache = new BuildCache(options);
+        byte[] hello = Check.source("HelloWorld").getBytes(StandardCharsets.UTF_8);
+        String key = cache.key(hello, options);
+
+        Check.equal(key, cache.key(hello.clone(), options), "key of the same source");
+        Check.isTrue(!key.equals(cache.key(Check.source("Lazysort").getBytes(StandardCharsets.UTF_8), options)),
+            "key of another source");
+        Check.isTrue(!key.equals(cache.key(hello, options(directory, "class"))), "key of another output mode");
+        Check.isTrue(!key.equals(cache.key(hello, options(directory, "classfile"))), "key of another backend");
+
+        //A miss stores the output, which a hit then gives back
+        Check.isTrue(cache.get(key) == null, "miss on an empty cache");
+        Check.equal(Check.expected("HelloWorld.j"), JmmCompiler.compile(Check.source("HelloWorld"), options).getJasminCode(),
+            "output of a miss");
+        Check.equal(Check.expected("HelloWorld.j"), new String(cache.get(key).output, StandardCharsets.UTF_8),
+            "output stored on a miss");
+
+        cache.put(key, "HelloWorld", "stored".getBytes());
+        Check.equal("stored", JmmCompiler.compile(Check.source("HelloWorld"), options).getJasminCode(), "output of a hit");
+        Check.isTrue(JmmCompiler.compile(Check.source("HelloWorld"), options(directory, "class")).getClassBytes().length > 6,
+            "class mode misses on an entry of Jasmin mode");
+
+        Check.isTrue(!JmmCompiler.compile(Check.source("SemanticError"), options).isSuccess(), "failing source compiled");
+        Check.isTrue(cache.get(cache.key(Check.source("SemanticError").getBytes(StandardCharsets.UTF_8), options)) == null,
+            "failing source not stored");
+
+        //A hit of the command line writes the output without compiling
+        Path output = Check.directory();
+        String file = output.resolve("Lazysort.j").toString();
+
+        Check.isTrue(compile(options, "Lazysort", file).contains("JVM file generated"), "first compilation of Lazysort");
+        Files.delete(output.resolve("Lazysort.j"));
+        Check.isTrue(compile(options, "Lazysort", file).contains("Cache hit"), "second compilation of Lazysort");
+        Check.equal(Check.expected("Lazysort.j"), new String(Files.readAllBytes(output.resolve("Lazysort.j"))),
+            "output written on a hit");
+
+        //Three entries of 1000 bytes in a cache that fits two, the first used last
+        Path small = Check.directory();
+        Options capped = options(small, "j");
+
+        capped.cacheSize = 2500;
+        cache = new BuildCache(capped);
+
+        for(int i = 0; i < 2; i++)
+        {
+            cache.put("entry" + i, "C", new byte[1000]);
+            Files.setLastModifiedTime(small.resolve("entry" + i + ".entry"), FileTime.fromMillis(1000000L * (i + 1)));
+        }
+
+        Check.isTrue(cache.get("entry0") != null, "hit on the first entry");
+        cache.put("entry2", "C", new byte[1000]);
+
+        Check.isTrue(cache.get("entry0") != null && cache.get("entry2") != null, "recently used entries kept");
+        Check.isTrue(cache.get("entry1") == null, "least recently used entry removed");
+
+        //An entry the kept size doesn't count is only found once the puts pass the cap
+        Path listed = Check.directory();
+
+        capped.cacheDirectory = listed.toString();
+        cache = new BuildCache(capped);
+        cache.put("entry0", "C", new byte[1000]);
+        Files.write(listed.resolve("planted.entry"), new byte[5000]);
+        Files.setLastModifiedTime(listed.resolve("planted.entry"), FileTime.fromMillis(1000000L));
+        cache.put("entry1", "C", new byte[1000]);
+
+        Check.isTrue(Files.exists(listed.resolve("planted.entry")), "put under the cap doesn't list the cache");
+        cache.put("entry2", "C", new byte[1000]);
+
+        Check.isTrue(!Files.exists(listed.resolve("planted.entry")), "put past the cap prunes the cache");
+        Check.isTrue(cache.get("entry1") != null && cache.get("entry2") != null, "recent entries kept by pruning");
+    }
+
+    private static Options options(Path directory, String mode)
+    {
+        Options options = new Options();
+
+        options.cacheDirectory = directory.toString();
+        options.setMode(mode);
+
+        return options;
+    }
+
+    private static String compile(Options options, String sample, String outputFile) throws Exception
+    {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        CompilationContext context = new CompilationContext(options, new PrintStream(log, true));
+
+        Check.isTrue(Compiler.compileCached(context, Check.sourcePath(sample).toString(), outputFile), "compilation of "
+            + sample);
+
+        return log.toString();
+    }
+}
@@ -0,0 +1,218 @@
+package compiler;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.UncheckedIOException;
+import java.lang.reflect.InvocationTargetException;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.stream.Stream;
+
+/**
+ * Assertions and fixtures for the check programs in this folder. There is no test framework
+ * in the build: each check class has a main that runs its checks and exits with status 1 if
+ * any failed, and AllChecks runs all of them. They are run from the JavaMM folder, which
+ * holds the sample sources (src/files), the runtime classes (src/jasmin) and the expected
+ * outputs (test/data).
+ */
+public class Check
+{
+    //Samples that compile cleanly, each with its expected Jasmin code in test/data
+    public static final String[] SAMPLES = {"FindMaximum", "HelloWorld", "Lazysort", "MonteCarloPi", "QuickSort",
+        "Turing", "test"};
+
+    private static int passed;
+    private static int failed;
+
+    public interface Action
+    {
+        void run() throws Exception;
+    }
+
+    public static void isTrue(boolean condition, String what)
+    {
+        if(condition)
+            passed++;
+        else
+        {
+            failed++;
+            System.err.println("FAILED " + what);
+        }
+    }
+
+    public static void equal(Object expected, Object actual, String what)
+    {
+        boolean same = expected instanceof byte[] && actual instanceof byte[]
+            ? Arrays.equals((byte[]) expected, (byte[]) actual) : expected == null ? actual == null : expected.equals(actual);
+
+        if(same)
+            passed++;
+        else
+        {
+            failed++;
+            System.err.println("FAILED " + what + ": expected " + show(expected) + ", got " + show(actual));
+        }
+    }
+
+    public static void fail(String what)
+    {
+        isTrue(false, what);
+    }
+
+    public static int getFailed()
+    {
+        return failed;
+    }
+
+    //Prints the totals and exits with status 1 if any check failed, without waiting for the
+    //threads a check may have left running, such as those of the compile server
+    public static void exit()
+    {
+        System.out.println(passed + " check(s) passed, " + failed + " failed");
+        System.exit(failed > 0 ? 1 : 0);
+    }
+
+    public static String source(String sample) throws IOException
+    {
+        return new String(Files.readAllBytes(sourcePath(sample)));
+    }
+
+    public static Path sourcePath(String sample)
+    {
+        return Paths.get("src", "files", sample + ".jmm");
+    }
+
+    public static String expected(String file) throws IOException
+    {
+        return new String(Files.readAllBytes(Paths.get("test", "data", file)));
+    }
+
+    //Runs the action with System.out sent to a buffer, and returns what it printed
+    public static String output(Action action) throws Exception
+    {
+        PrintStream out = System.out;
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        System.setOut(new PrintStream(buffer, true));
+
+        try
+        {
+            action.run();
+        }
+        finally
+        {
+            System.setOut(out);
+        }
+
+        return buffer.toString();
+    }
+
+    //Compiles the source in memory, in the given output mode of the compile server protocol
+    public static CompilationResult compile(String source, String mode)
+    {
+        Options options = new Options();
+
+        options.setMode(mode);
+
+        return JmmCompiler.compile(source, options);
+    }
+
+    //Defines the class, with the runtime classes in src/jasmin alongside it, and runs its main
+    //with the given input, returning what it printed
+    public static String run(String className, byte[] classBytes, String input) throws Exception
+    {
+        InputStream in = System.in;
+
+        System.setIn(new ByteArrayInputStream(input.getBytes()));
+
+        try
+        {
+            return output(() ->
+            {
+                try
+                {
+                    load(className, classBytes).getMethod("main", String[].class).invoke(null, (Object) new String[0]);
+                }
+                catch(InvocationTargetException e)
+                {
+                    if(e.getCause() instanceof Error)
+                        throw (Error) e.getCause();
+
+                    throw (Exception) e.getCause();
+                }
+            });
+        }
+        finally
+        {
+            System.setIn(in);
+        }
+    }
+
+    //Defines and initializes the class, which has the verifier check its code
+    public static Class<?> load(String className, byte[] classBytes) throws Exception
+    {
+        URL runtime = Paths.get("src", "jasmin").toUri().toURL();
+        ClassLoader loader = new URLClassLoader(new URL[] {runtime}, ClassLoader.getPlatformClassLoader())
+        {
+            protected Class<?> findClass(String name) throws ClassNotFoundException
+            {
+                if(name.equals(className))
+                    return defineClass(name, classBytes, 0, classBytes.length);
+
+                return super.findClass(name);
+            }
+        };
+
+        return Class.forName(className, true, loader);
+    }
+
+    //An empty directory, deleted with its contents when the JVM exits
+    public static Path directory() throws IOException
+    {
+        Path directory = Files.createTempDirectory("javamm-check");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> delete(directory)));
+
+        return directory;
+    }
+
+    public static Options options(String... args)
+    {
+        Options options = Options.parse(args);
+
+        if(options == null)
+            throw new IllegalArgumentException("Invalid options " + Arrays.toString(args));
+
+        return options;
+    }
+
+    private static void delete(Path directory)
+    {
+        try(Stream<Path> files = Files.walk(directory))
+        {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+        catch(IOException | UncheckedIOException e)
+        {
+            //Left for the system to clean up, or a file deleted meanwhile by another hook
+        }
+    }
+
+    private static String show(Object value)
+    {
+        if(value instanceof byte[])
+            return ((byte[]) value).length + " byte(s)";
+
+        String text = String.valueOf(value);
+
+        return text.length() > 200 ? text.substring(0, 200) + "..." : text;
+    }
+}
@@ -0,0 +1,64 @@
+package compiler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Class output: the class files assembled in the compiler's JVM are those the Jasmin command
+ * line makes of the expected code, no .j file is left next to them, and a source that fails
+ * to compile writes nothing.
+ */
+public class ClassOutputCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        //A directory per sample, as some of them declare the same class
+        for(String sample: Check.SAMPLES)
+        {
+            Path output = Check.directory(), assembled = Check.directory();
+            String className = Check.expected(sample + ".j").split("\\s+")[2];
+
+            Check.isTrue(compile(sample, output), "class output of " + sample + " compiles");
+            Check.equal(assemble(sample, className, assembled), Files.readAllBytes(output.resolve(className + ".class")),
+                "class file of " + sample);
+            Check.isTrue(!Files.exists(output.resolve(className + ".j")), "no Jasmin file left for " + sample);
+        }
+
+        Path output = Check.directory();
+
+        Check.isTrue(!compile("SemanticError", output), "class output of a failing source fails");
+        Check.isTrue(!Files.exists(output.resolve("SemanticError.class")), "no class file for a failing source");
+    }
+
+    private static boolean compile(String sample, Path output)
+    {
+        CompilationContext context = new CompilationContext(Check.options("--class", Check.sourcePath(sample).toString(),
+            output.toString()), new PrintStream(OutputStream.nullOutputStream()));
+
+        return Compiler.compileUnit(context, Check.sourcePath(sample).toFile(), output.toString());
+    }
+
+    //Class file the Jasmin command line, run on its own, makes of the expected code saved as
+    //<className>.j, which is the source file name the compiler gives the assembler
+    private static byte[] assemble(String sample, String className, Path output) throws Exception
+    {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Path code = Files.write(output.resolve(className + ".j"), Check.expected(sample + ".j").getBytes());
+        Process jasmin = new ProcessBuilder(java, "-jar", "src/jasmin/jasmin.jar", "-d", output.toString(), code.toString())
+            .redirectErrorStream(true).start();
+
+        jasmin.getInputStream().readAllBytes();
+        jasmin.waitFor();
+
+        return Files.readAllBytes(output.resolve(className + ".class"));
+    }
+}
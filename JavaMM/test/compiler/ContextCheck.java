@@ -0,0 +1,80 @@
+package compiler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import syntax.Node;
+
+/**
+ * Compilation state lives in the context: the samples compiled at the same time on several
+ * threads, each with a context of its own, give the same code as one at a time, and the
+ * symbol tables of one compilation don't leak into another.
+ */
+public class ContextCheck
+{
+    private static final int THREADS = 8;
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<String>> outputs = new ArrayList<Future<String>>();
+
+        try
+        {
+            for(int i = 0; i < THREADS; i++)
+            {
+                for(String sample: Check.SAMPLES)
+                    outputs.add(executor.submit(() -> compile(Check.source(sample))));
+            }
+
+            for(int i = 0; i < outputs.size(); i++)
+            {
+                String sample = Check.SAMPLES[i % Check.SAMPLES.length];
+
+                Check.equal(Check.expected(sample + ".j"), outputs.get(i).get(), "concurrent output of " + sample);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        CompilationContext first = new CompilationContext(new Options(), quiet());
+        CompilationContext second = new CompilationContext(new Options(), quiet());
+
+        Compiler.analyse(first, Compiler.parseSource(first, Check.source("Lazysort")));
+        Compiler.analyse(second, Compiler.parseSource(second, Check.source("HelloWorld")));
+
+        Check.equal("Lazysort", first.className, "class of the first context");
+        Check.equal("HelloWorld", second.className, "class of the second context");
+        Check.isTrue(!second.symbolTables.containsKey("Lazysort"), "symbol tables of one context kept from another");
+    }
+
+    private static String compile(String source) throws Exception
+    {
+        CompilationContext context = new CompilationContext(new Options(), quiet());
+        Node root = Compiler.parseSource(context, source);
+        JasminEmitter code = new JasminEmitter();
+
+        if(!Compiler.analyse(context, root) || !new Jasmin(context, code).parse(root))
+            return null;
+
+        return code.getCode().toString();
+    }
+
+    private static PrintStream quiet()
+    {
+        return new PrintStream(OutputStream.nullOutputStream());
+    }
+}
@@ -0,0 +1,72 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import syntax.Node;
+
+/**
+ * Buffered Jasmin output: the .j file is written whole, replacing a longer one, only when the
+ * class was generated, and a buffer reused between classes gives the code of each.
+ */
+public class EmitterCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path directory = Check.directory();
+        Path output = directory.resolve("QuickSort.j");
+
+        Files.write(output, new byte[100000]);
+        Check.isTrue(generate("QuickSort", output.toString()), "generation over a longer file");
+        Check.equal(Check.expected("QuickSort.j"), new String(Files.readAllBytes(output)), "file replaced whole");
+
+        //Nothing is written when the source fails, and a write that fails is reported
+        Path failing = Files.write(directory.resolve("SemanticError.j"), "before".getBytes());
+        CompilationContext context = new CompilationContext(new Options(), new PrintStream(new ByteArrayOutputStream()));
+
+        Check.isTrue(!Compiler.compile(context, Check.sourcePath("SemanticError").toString(), failing.toString()),
+            "compilation of SemanticError");
+        Check.equal("before", new String(Files.readAllBytes(failing)), "file left alone by a failing source");
+
+        Check.isTrue(!generate("QuickSort", directory.resolve("missing").resolve("QuickSort.j").toString()),
+            "generation into a missing directory fails");
+
+        //One buffer for all the samples
+        StringBuilder buffer = new StringBuilder();
+
+        for(String sample: Check.SAMPLES)
+        {
+            context = new CompilationContext(new Options(), new PrintStream(new ByteArrayOutputStream()));
+
+            Node root = Compiler.parseSource(context, Check.source(sample));
+
+            buffer.setLength(0);
+            Check.isTrue(Compiler.analyse(context, root) && new Jasmin(context, new JasminEmitter(buffer)).parse(root),
+                "generation of " + sample + " into a reused buffer");
+            Check.equal(Check.expected(sample + ".j"), buffer.toString(), "code of " + sample + " in a reused buffer");
+        }
+    }
+
+    private static boolean generate(String sample, String outputFile) throws Exception
+    {
+        CompilationContext context = new CompilationContext(new Options(), new PrintStream(new ByteArrayOutputStream()));
+        Node root = Compiler.parseSource(context, Check.source(sample));
+
+        if(!Compiler.analyse(context, root))
+            return false;
+
+        boolean generated = new Jasmin(context, outputFile).parse(root);
+
+        Check.equal(generated, context.diagnostics.isEmpty(), "errors of the generation of " + sample);
+
+        return generated;
+    }
+}
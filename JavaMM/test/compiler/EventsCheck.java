@@ -0,0 +1,66 @@
+package compiler;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Flight Recorder events: a compilation without a recording doesn't load the event classes,
+ * and one during a recording records every phase and method.
+ */
+public class EventsCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        Process compiler = new ProcessBuilder(java, "-verbose:class", "-cp", System.getProperty("java.class.path"),
+            "compiler.Compiler", Check.sourcePath("Lazysort").toString(), Check.directory().resolve("Lazysort.j").toString())
+            .redirectErrorStream(true).start();
+        String classes = new String(compiler.getInputStream().readAllBytes());
+
+        Check.equal(0, compiler.waitFor(), "compilation without a recording");
+        Check.isTrue(classes.contains("compiler.Events "), "compiler runs through Events");
+        Check.isTrue(!classes.contains("compiler.PhaseEvent ") && !classes.contains("jdk.jfr.Event "),
+            "event classes not loaded without a recording");
+
+        Path file = Check.directory().resolve("compilation.jfr");
+
+        try(Recording recording = new Recording())
+        {
+            recording.enable("javamm.Phase");
+            recording.enable("javamm.Method");
+            recording.start();
+            Check.isTrue(Check.compile(Check.source("Lazysort"), "j").isSuccess(), "compilation during a recording");
+            recording.stop();
+            recording.dump(file);
+        }
+
+        List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Set<String> phases = new TreeSet<String>(), methods = new TreeSet<String>();
+
+        for(RecordedEvent event: events)
+        {
+            if(event.getEventType().getName().equals("javamm.Phase"))
+                phases.add(event.getString("phase"));
+            else if(event.getEventType().getName().equals("javamm.Method"))
+                methods.add(event.getString("pass") + " " + event.getString("className") + "." + event.getString("method"));
+        }
+
+        Check.equal(new TreeSet<String>(List.of("generation", "parse", "semantic", "symbols")), phases, "phases recorded");
+        Check.equal(new TreeSet<String>(List.of("generation Lazysort.beLazy(1)", "generation Lazysort.main(1)",
+            "generation Lazysort.quicksort(1)", "semantic Lazysort.beLazy(1)", "semantic Lazysort.main(1)",
+            "semantic Lazysort.quicksort(1)")), methods, "methods recorded");
+    }
+}
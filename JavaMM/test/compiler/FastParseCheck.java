@@ -0,0 +1,74 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.Random;
+
+import syntax.Node;
+import syntax.Trees;
+
+/**
+ * Fast parse: parsing without line and column tracking builds the trees of a tracked parse,
+ * and a source with errors, wherever they are, gets the diagnostics a tracked parse reports.
+ */
+public class FastParseCheck
+{
+    private static final int EDITS = 40;
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: Check.SAMPLES)
+        {
+            Check.equal(tree(Check.source(sample), false), tree(Check.source(sample), true), "tree of " + sample);
+            Check.equal(Check.expected(sample + ".j"), compile(Check.source(sample), true).getJasminCode(),
+                "code of " + sample);
+        }
+
+        for(String sample: new String[] {"SyntaticError", "SemanticError"})
+        {
+            Check.equal(compile(Check.source(sample), false).getDiagnostics().toString(),
+                compile(Check.source(sample), true).getDiagnostics().toString(), "diagnostics of " + sample);
+        }
+
+        //Stray tokens and characters anywhere in a source
+        String source = Check.source("Lazysort");
+        String[] strays = {"#", ";", "(", "}", "int", "= ="};
+        Random random = new Random(1);
+
+        for(int i = 0; i < EDITS; i++)
+        {
+            int at = random.nextInt(source.length());
+            String edited = source.substring(0, at) + " " + strays[i % strays.length] + " " + source.substring(at);
+            String expected = compile(edited, false).getDiagnostics().toString();
+
+            Check.isTrue(!expected.equals("[]"), "edit " + i + " fails");
+            Check.equal(expected, compile(edited, true).getDiagnostics().toString(), "diagnostics of edit " + i);
+        }
+    }
+
+    private static String tree(String source, boolean fast)
+    {
+        Options options = new Options();
+
+        options.fastParse = fast;
+
+        Node root = Compiler.parseSource(new CompilationContext(options, new PrintStream(new ByteArrayOutputStream())), source);
+
+        return Trees.dump(root, true);
+    }
+
+    private static CompilationResult compile(String source, boolean fast)
+    {
+        Options options = new Options();
+
+        options.fastParse = fast;
+
+        return JmmCompiler.compile(source, options);
+    }
+}
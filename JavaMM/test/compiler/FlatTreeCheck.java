@@ -0,0 +1,80 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import syntax.FlatNode;
+import syntax.NameTable;
+import syntax.Node;
+import syntax.Trees;
+
+/**
+ * Flat trees: the flat form of a source reads as the same tree as its object form, offsets
+ * included, with every name numbered, and compiles to the same code.
+ */
+public class FlatTreeCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: Check.SAMPLES)
+        {
+            Check.equal(tree(Check.source(sample), false), tree(Check.source(sample), true), "flat tree of " + sample);
+            Check.equal(Check.expected(sample + ".j"), compile(Check.source(sample), true).getJasminCode(),
+                "code of the flat tree of " + sample);
+        }
+
+        ProgramGenerator generator = new ProgramGenerator().configure("methods=50,statements=40,depth=6");
+        String program = generator.generate();
+
+        Check.equal(tree(program, false), tree(program, true), "flat tree of " + generator.describe());
+        Check.equal(compile(program, false).getJasminCode(), compile(program, true).getJasminCode(),
+            "code of the flat tree of " + generator.describe());
+
+        //Errors recovered from are those of the object form
+        Check.equal(compile(Check.source("SyntaticError"), false).getDiagnostics().toString(),
+            compile(Check.source("SyntaticError"), true).getDiagnostics().toString(), "errors of a flat parse");
+    }
+
+    private static String tree(String source, boolean flat)
+    {
+        Options options = new Options();
+
+        options.flatTree = flat;
+
+        CompilationContext context = new CompilationContext(options, new PrintStream(new ByteArrayOutputStream()));
+        Node root = Compiler.parseSource(context, source);
+
+        Check.equal(flat, root instanceof FlatNode, "form of the tree");
+
+        if(flat)
+            Check.isTrue(named(root, context.names), "names of the flat tree by id");
+
+        return Trees.dump(root, true, false);
+    }
+
+    //Whether every named node has the id of its name
+    private static boolean named(Node node, NameTable names)
+    {
+        boolean named = node.getName() == null || names.get(node.getNameId()).equals(node.getName());
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            named &= named(node.jjtGetChild(i), names);
+
+        return named;
+    }
+
+    private static CompilationResult compile(String source, boolean flat)
+    {
+        Options options = new Options();
+
+        options.flatTree = flat;
+
+        return JmmCompiler.compile(source, options);
+    }
+}
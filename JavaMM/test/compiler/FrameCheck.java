@@ -0,0 +1,56 @@
+package compiler;
+
+/**
+ * Stack map frames: the classfile backend writes version 52 class files, which the JVM only
+ * loads through the type-checking verifier, so every sample and generated program must come
+ * with frames it accepts, and run as the Jasmin version of it does. Code that can't verify
+ * is reported at compile time.
+ */
+public class FrameCheck
+{
+    private static final int PROGRAMS = 20;
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: Check.SAMPLES)
+        {
+            CompilationResult result = Check.compile(Check.source(sample), "classfile");
+
+            //See BackendCheck
+            if(sample.equals("Turing"))
+            {
+                Check.isTrue(result.getDiagnostics().toString().contains("Stack underflow"), "stack underflow in " + sample
+                    + " reported");
+                continue;
+            }
+
+            byte[] classBytes = result.getClassBytes();
+
+            Check.equal(52, (classBytes[6] & 0xFF) << 8 | classBytes[7] & 0xFF, "class file version of " + sample);
+            Check.isTrue(sample.equals("HelloWorld") || new String(classBytes, "ISO-8859-1").contains("StackMapTable"),
+                "frames of " + sample);
+            Check.load(result.getClassName(), classBytes);
+        }
+
+        //Branches, loops and calls mixed over locals of every type
+        for(int seed = 1; seed <= PROGRAMS; seed++)
+        {
+            ProgramGenerator generator = new ProgramGenerator();
+
+            generator.seed = seed;
+
+            String program = generator.generate();
+            CompilationResult direct = Check.compile(program, "classfile"), assembled = Check.compile(program, "class");
+
+            Check.isTrue(direct.isSuccess(), "classfile backend compiles program " + seed);
+            Check.equal(Check.run(assembled.getClassName(), assembled.getClassBytes(), ""),
+                Check.run(direct.getClassName(), direct.getClassBytes(), ""), "output of program " + seed);
+        }
+    }
+}
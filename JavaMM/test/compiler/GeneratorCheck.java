@@ -0,0 +1,68 @@
+package compiler;
+
+/**
+ * Program generator: a seed always gives the same program, the default one being kept in
+ * test/data so that scaling runs stay comparable, and the programs of any knobs pass the
+ * analysis and run.
+ */
+public class GeneratorCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Check.equal(Check.expected("Generated.jmm"), new ProgramGenerator().generate(), "program of the default knobs");
+        Check.equal(generate("seed=7"), generate("seed=7"), "program of the same seed");
+        Check.isTrue(!generate("seed=7").equals(generate("seed=8")), "programs of different seeds");
+
+        ProgramGenerator generator = new ProgramGenerator().configure("methods=3,statements=5,depth=2,fields=0,calls=0.5,seed=3");
+
+        Check.equal("methods=3,statements=5,depth=2,fields=0,calls=0.5,seed=3", generator.describe(), "knobs configured");
+
+        //Calls are kept rare where methods are long, as each may run the next ones many times over
+        String[] specs = {"methods=1", "methods=40", "fields=0", "fields=12", "statements=200,calls=0", "depth=8",
+            "depth=1,statements=0"};
+
+        for(String spec: specs)
+        {
+            String program = generate(spec);
+            CompilationResult result = Check.compile(program, "class");
+
+            Check.isTrue(result.isSuccess(), "program of " + spec + " compiles: " + result.getDiagnostics());
+            Check.equal(new ProgramGenerator().configure(spec).methods, count(program, "public int m"), "methods of " + spec);
+            Check.isTrue(result.isSuccess() && !Check.run(result.getClassName(), result.getClassBytes(), "").isEmpty(),
+                "program of " + spec + " runs");
+        }
+
+        Check.isTrue(!generate("fields=0,statements=500").contains(" f"), "program without fields reads none");
+
+        try
+        {
+            new ProgramGenerator().configure("speed=3");
+            Check.fail("unknown knob rejected");
+        }
+        catch(IllegalArgumentException e)
+        {
+            Check.isTrue(e.getMessage().contains("speed"), "unknown knob named");
+        }
+    }
+
+    private static String generate(String spec)
+    {
+        return new ProgramGenerator().configure(spec).generate();
+    }
+
+    private static int count(String text, String part)
+    {
+        int count = 0;
+
+        for(int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1))
+            count++;
+
+        return count;
+    }
+}
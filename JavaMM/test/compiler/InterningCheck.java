@@ -0,0 +1,114 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import symbol.Symbol;
+import symbol.SymbolMap;
+import syntax.JavaMMConstants;
+import syntax.JavaMMTokenManager;
+import syntax.NameTable;
+import syntax.Node;
+import syntax.SimpleCharStream;
+import syntax.Token;
+
+/**
+ * Interned names: each name gets one String and one id, in the order it was first seen, the
+ * lexer and the parser hand them out with identifiers, symbol maps find symbols by id in
+ * the order they were added, and fields are emitted in declaration order.
+ */
+public class InterningCheck
+{
+    private static final int NAMES = 10000;
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        NameTable names = new NameTable();
+        boolean same = true;
+
+        for(int i = 0; i < NAMES; i++)
+            same &= names.intern("name" + i) == i;
+
+        for(int i = 0; i < NAMES; i++)
+        {
+            String name = new String("name" + i);
+
+            same &= names.intern(name) == i && names.lookup(name) == i && names.get(i).equals(name) && names.get(i) != name;
+        }
+
+        Check.isTrue(same, "ids of " + NAMES + " names");
+        Check.equal(NAMES, names.size(), "names interned");
+        Check.equal(-1, names.lookup("missing"), "id of a name never interned");
+
+        //Identifiers share the String and id of their name
+        JavaMMTokenManager lexer = new JavaMMTokenManager(new SimpleCharStream(new StringReader(Check.source("Lazysort"))));
+        List<Token> identifiers = new ArrayList<Token>();
+
+        lexer.names = new NameTable();
+
+        for(Token token = lexer.getNextToken(); token.kind != JavaMMConstants.EOF; token = lexer.getNextToken())
+        {
+            if(token.kind == JavaMMConstants.IDENTIFIER)
+                identifiers.add(token);
+        }
+
+        same = true;
+
+        for(Token token: identifiers)
+            same &= lexer.names.get(token.nameId) == token.image;
+
+        Check.isTrue(same && !identifiers.isEmpty(), "identifiers interned by the lexer");
+
+        CompilationContext context = new CompilationContext(new Options(), new PrintStream(new ByteArrayOutputStream()));
+        Node root = Compiler.parseSource(context, Check.source("Lazysort"));
+
+        Check.isTrue(named(root, context.names), "nodes named by their id");
+
+        //Symbols found by id, in the order they were added
+        SymbolMap symbols = new SymbolMap();
+
+        same = true;
+
+        for(int i = 0; i < NAMES; i++)
+            same &= symbols.put(new Symbol(NAMES - i, "s" + i, "int", i, false));
+
+        same &= !symbols.put(new Symbol(NAMES, "again", "int", 0, false));
+
+        for(int i = 0; i < NAMES; i++)
+            same &= symbols.get(NAMES - i).getIndex() == i;
+
+        int index = 0;
+
+        for(Symbol symbol: symbols)
+            same &= symbol.getIndex() == index++;
+
+        Check.isTrue(same && symbols.get(0) == null, "symbols of a symbol map");
+        Check.equal(NAMES, symbols.size(), "symbols added");
+
+        String code = Check.compile("class Fields { int zebra; boolean apple; int[] mango; int banana;"
+            + " public static void main(String[] a) { } }", "j").getJasminCode();
+
+        Check.isTrue(code.indexOf("'zebra'") < code.indexOf("'apple'") && code.indexOf("'apple'") < code.indexOf("'mango'")
+            && code.indexOf("'mango'") < code.indexOf("'banana'"), "fields in declaration order");
+    }
+
+    //Whether every named node has the id of its name
+    private static boolean named(Node node, NameTable names)
+    {
+        boolean named = node.getName() == null || node.getNameId() < 0 || names.get(node.getNameId()) == node.getName();
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            named &= named(node.jjtGetChild(i), names);
+
+        return named;
+    }
+}
@@ -0,0 +1,73 @@
+package compiler;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Syntax error recovery: the parser goes on past an error to the next statement or method,
+ * reporting every error with its position, stops once --max-errors errors were found, and
+ * a source with any syntax error isn't analysed further and fails the command line.
+ */
+public class RecoveryCheck
+{
+    private static final String SOURCE = "class R {\n"
+        + " public int a() { int x; x = = 1; return x; }\n"
+        + " public int b() { int y; y = 2 +; return y; }\n"
+        + " public int c() { int z; z = 3; return z; }\n"
+        + " public static void main(String[] a) { int w; w = (1; w = 2 2; w = 3; }\n"
+        + "}\n";
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Check.equal(Arrays.asList("2:30", "3:33", "5:53", "5:61"), positions(compile(SOURCE, 100)), "errors in each method");
+        Check.equal(Arrays.asList("2:30", "3:33", "-1:-1"), positions(compile(SOURCE, 2)), "errors up to the limit");
+        Check.equal("too many errors", compile(SOURCE, 2).getDiagnostics().get(2).getMessage(), "limit reported");
+        Check.equal(Arrays.asList("2:30", "-1:-1"), positions(compile(SOURCE, 1)), "errors up to a limit of one");
+        //The parse stops at the last error allowed, not knowing whether more follow
+        Check.equal(Arrays.asList("2:30", "3:33", "5:53", "5:61", "-1:-1"), positions(compile(SOURCE, 4)),
+            "errors up to a limit just reached");
+
+        CompilationResult lexical = compile("class L { public static void main(String[] a) { int x; x = 1 # 2; } }", 100);
+
+        Check.isTrue(!lexical.isSuccess() && lexical.getDiagnostics().toString().contains("Lexical error at line 1, column 62"),
+            "lexical error reported");
+
+        //The command line stops after the syntax analysis and exits with status 1
+        String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        String output = Check.directory().resolve("SyntaticError.j").toString();
+        Process compiler = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"), "compiler.Compiler",
+            Check.sourcePath("SyntaticError").toString(), output).redirectErrorStream(true).start();
+        String log = new String(compiler.getInputStream().readAllBytes());
+
+        Check.equal(1, compiler.waitFor(), "exit status of a source with syntax errors");
+        Check.isTrue(log.contains("Syntax error") && !log.contains("Symbol tables built"),
+            "analysis stopped after the syntax errors");
+    }
+
+    private static CompilationResult compile(String source, int maxErrors)
+    {
+        Options options = new Options();
+
+        options.maxErrors = maxErrors;
+
+        return JmmCompiler.compile(source, options);
+    }
+
+    private static List<String> positions(CompilationResult result)
+    {
+        List<String> positions = new ArrayList<String>();
+
+        for(Diagnostic diagnostic: result.getDiagnostics())
+            positions.add(diagnostic.getLine() + ":" + diagnostic.getColumn());
+
+        return positions;
+    }
+}
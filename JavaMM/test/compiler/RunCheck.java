@@ -0,0 +1,92 @@
+package compiler;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Run mode: a program compiled in memory runs in the compiler's JVM as its class file does,
+ * ahead of a stale class file of the same name in the runtime directory, and a program that
+ * doesn't compile, or throws, fails the run.
+ */
+public class RunCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: new String[] {"FindMaximum", "HelloWorld", "QuickSort"})
+        {
+            CompilationResult result = Check.compile(Check.source(sample), "class");
+
+            Check.equal(Check.run(result.getClassName(), result.getClassBytes(), ""), run(Check.sourcePath(sample),
+                "src/jasmin"), "run output of " + sample);
+        }
+
+        //A runtime directory with a stale HelloWorld class in it
+        Path runtime = Check.directory(), directory = Check.directory();
+        CompilationResult stale = Check.compile("class HelloWorld { public static void main(String[] a) { io.println(7); } }",
+            "class");
+
+        try(DirectoryStream<Path> classes = Files.newDirectoryStream(Paths.get("src", "jasmin"), "*.class"))
+        {
+            for(Path file: classes)
+                Files.copy(file, runtime.resolve(file.getFileName()));
+        }
+
+        Files.write(runtime.resolve("HelloWorld.class"), stale.getClassBytes());
+        Check.equal(run(Check.sourcePath("HelloWorld"), "src/jasmin"), run(Check.sourcePath("HelloWorld"), runtime.toString()),
+            "compiled class ahead of a stale one");
+
+        Path failing = Files.write(directory.resolve("Failing.jmm"),
+            "class Failing { public static void main(String[] a) { int[] v; v = new int[1]; v[2] = 0; } }".getBytes());
+
+        Check.isTrue(!runs(Check.sourcePath("SemanticError"), "src/jasmin"), "run of a program that doesn't compile fails");
+        Check.isTrue(!runs(failing, "src/jasmin"), "run of a program that throws fails");
+        Check.isTrue(!runs(Check.sourcePath("HelloWorld"), directory.resolve("missing").toString()),
+            "run without the runtime directory fails");
+    }
+
+    private static String run(Path source, String runtime) throws Exception
+    {
+        StringBuilder output = new StringBuilder();
+
+        Check.isTrue(run(source, runtime, output), "run of " + source);
+
+        return output.toString();
+    }
+
+    private static boolean runs(Path source, String runtime) throws Exception
+    {
+        return run(source, runtime, new StringBuilder());
+    }
+
+    //Runs the source, adding what it printed to output, with the timings of the runner and
+    //the stack traces of the program discarded
+    private static boolean run(Path source, String runtime, StringBuilder output) throws Exception
+    {
+        PrintStream err = System.err;
+        boolean[] ran = new boolean[1];
+
+        System.setErr(new PrintStream(OutputStream.nullOutputStream()));
+
+        try
+        {
+            output.append(Check.output(() -> ran[0] = ProgramRunner.run(Check.options("--run", "--runtime", runtime,
+                source.toString()))));
+        }
+        finally
+        {
+            System.setErr(err);
+        }
+
+        return ran[0];
+    }
+}
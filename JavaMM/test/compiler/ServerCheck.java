@@ -0,0 +1,141 @@
+package compiler;
+
+import java.io.BufferedReader;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.Channels;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Compile server: replies come in the order of the requests, malformed ones answered in their
+ * place, every unit is compiled with the options the server was started with, and a unit the
+ * compiler can't handle fails on its own without taking the connection down.
+ */
+public class ServerCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path directory = Check.directory();
+        Path socket = directory.resolve("server.sock");
+        Options options = Check.options("--server", socket.toString(), "-j", "2", "--max-errors", "1");
+        Thread server = new Thread(() ->
+        {
+            try
+            {
+                CompileServer.serve(options);
+            }
+            catch(Exception e)
+            {
+                e.printStackTrace();
+            }
+        });
+
+        //Started with its banner kept out of the check output
+        server.setDaemon(true);
+        Check.output(() ->
+        {
+            server.start();
+
+            for(int i = 0; i < 100 && !Files.exists(socket); i++)
+                Thread.sleep(50);
+        });
+
+        //Nested deeply enough to overflow the stack of the parser
+        Path deep = directory.resolve("Deep.jmm");
+
+        Files.write(deep, ("class Deep { public static void main(String[] a) { int x; x = " + "(".repeat(100000) + "1"
+            + ")".repeat(100000) + "; } }").getBytes());
+
+        String hello = Check.sourcePath("HelloWorld").toAbsolutePath().toString();
+        String lazysort = Check.sourcePath("Lazysort").toAbsolutePath().toString();
+        String failing = Check.sourcePath("SyntaticError").toAbsolutePath().toString();
+        Path helloOutput = directory.resolve("HelloWorld.j");
+
+        List<String> replies = send(socket,
+            "COMPILE\tj\t" + hello + "\t" + helloOutput,
+            "HELLO",
+            "COMPILE\tclass\t" + lazysort + "\t" + directory,
+            "COMPILE\tj\t" + failing + "\t" + directory.resolve("SyntaticError.j"),
+            "COMPILE\tj\t" + deep + "\t" + directory.resolve("Deep.j"),
+            "COMPILE\tj\t" + hello + "\t" + helloOutput);
+        List<String> results = new ArrayList<String>();
+        String messages = "";
+
+        for(String reply: replies)
+        {
+            if(reply.startsWith("D "))
+                messages += reply + "\n";
+            else
+                results.add(reply);
+        }
+
+        Check.equal(Arrays.asList("OK " + helloOutput, "FAILED Malformed request: HELLO", "OK " + directory,
+            "FAILED " + failing, "FAILED " + deep, "OK " + helloOutput), results, "replies in request order");
+        Check.isTrue(messages.contains("too many errors"), "server options apply to every unit");
+        Check.isTrue(messages.contains("nesting too deep"), "unit too deep fails on its own");
+        Check.equal(Check.expected("HelloWorld.j"), new String(Files.readAllBytes(helloOutput)), "server output of HelloWorld");
+        Check.equal(0xCAFEBABE, magic(directory.resolve("Lazysort.class")), "server writes a class file in class mode");
+
+        //The server still answers once a connection has had a unit fail
+        replies = send(socket, "COMPILE\tj\t" + hello + "\t" + helloOutput);
+
+        Check.equal("OK " + helloOutput, replies.get(replies.size() - 1), "reply on a later connection");
+
+        //Requests queued behind the jobs don't hold a thread each
+        String[] requests = new String[400];
+        int threads = Thread.activeCount();
+
+        Arrays.fill(requests, "COMPILE\tj\t" + hello + "\t" + helloOutput);
+        replies = send(socket, requests);
+
+        Check.equal(400L, replies.stream().filter(reply -> reply.startsWith("OK ")).count(), "replies to many requests");
+        Check.isTrue(Thread.activeCount() - threads < 20, "threads of many requests bounded by the jobs");
+    }
+
+    private static List<String> send(Path socket, String... requests) throws Exception
+    {
+        List<String> replies = new ArrayList<String>();
+
+        try(SocketChannel channel = SocketChannel.open(StandardProtocolFamily.UNIX))
+        {
+            channel.connect(UnixDomainSocketAddress.of(socket));
+
+            PrintWriter out = new PrintWriter(new OutputStreamWriter(Channels.newOutputStream(channel), StandardCharsets.UTF_8));
+            BufferedReader in = new BufferedReader(new InputStreamReader(Channels.newInputStream(channel), StandardCharsets.UTF_8));
+            String line;
+
+            for(String request: requests)
+                out.println(request);
+
+            out.flush();
+            channel.shutdownOutput();
+
+            while((line = in.readLine()) != null)
+                replies.add(line);
+        }
+
+        return replies;
+    }
+
+    private static int magic(Path file) throws Exception
+    {
+        byte[] bytes = Files.readAllBytes(file);
+
+        return bytes.length < 4 ? 0 : (bytes[0] & 0xFF) << 24 | (bytes[1] & 0xFF) << 16 | (bytes[2] & 0xFF) << 8 | bytes[3] & 0xFF;
+    }
+}
@@ -0,0 +1,84 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import syntax.JavaMMTokenManager;
+import syntax.Node;
+import syntax.SimpleCharStream;
+
+/**
+ * Stats report: every phase is timed in order, the counters match the source and the output,
+ * and the JSON form is valid for any file name.
+ */
+public class StatsCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path output = Check.directory().resolve("Lazysort.j");
+        String json = compile("json", output), source = Check.sourcePath("Lazysort").toString();
+        CompilationContext context = new CompilationContext(new Options(), new PrintStream(new ByteArrayOutputStream()));
+        Node root = Compiler.parseSource(context, Check.source("Lazysort"));
+
+        json = json.substring(json.indexOf("{\"file\""), json.lastIndexOf('}') + 1);
+        Check.equal("{\"file\":\"" + source + "\",\"phases\":{\"parse\":{},\"symbols\":{},\"semantic\":{},\"generation\":{}},"
+            + "\"tokens\":" + tokens(Check.source("Lazysort")) + ",\"nodes\":" + nodes(root) + ",",
+            json.replaceAll("\\{\"ns\":\\d+,\"allocatedBytes\":-?\\d+\\}", "{}").replaceAll("\"symbols\":\\{\"[^}]*\\}.*", ""),
+            "phases and counters of Lazysort");
+        Check.isTrue(json.endsWith(",\"bytesEmitted\":" + Files.size(output) + "}"), "bytes emitted for Lazysort");
+
+        String table = compile("table", output);
+
+        Check.isTrue(table.contains("Stats for " + source), "table of Lazysort");
+        Check.isTrue(table.indexOf("  parse ") < table.indexOf("  symbols ") && table.indexOf("  symbols ") < table.indexOf(
+            "  semantic ") && table.indexOf("  semantic ") < table.indexOf("  generation "), "phases in order in the table");
+
+        //Names are escaped in the JSON form
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+        new PhaseStats("say \"hi\"\\\n").print(new PrintStream(buffer, true), "json");
+        Check.isTrue(buffer.toString().startsWith("{\"file\":\"say \\\"hi\\\"\\\\\\u000a\""), "file name escaped in JSON");
+    }
+
+    private static String compile(String format, Path output)
+    {
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        CompilationContext context = new CompilationContext(Check.options("--stats", format, Check.sourcePath("Lazysort")
+            .toString(), output.toString()), new PrintStream(log, true));
+
+        Check.isTrue(Compiler.compileUnit(context, Check.sourcePath("Lazysort").toFile(), output.toString()),
+            "compilation of Lazysort with " + format + " stats");
+
+        return log.toString();
+    }
+
+    private static int tokens(String source)
+    {
+        JavaMMTokenManager lexer = new JavaMMTokenManager(new SimpleCharStream(new StringReader(source)));
+        int count = 0;
+
+        while(lexer.getNextToken().kind != 0)
+            count++;
+
+        return count;
+    }
+
+    private static int nodes(Node node)
+    {
+        int count = 1;
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            count += nodes(node.jjtGetChild(i));
+
+        return count;
+    }
+}
@@ -0,0 +1,101 @@
+package compiler;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Watch mode: every source is compiled up front, and then again when its contents change,
+ * including those in directories created later. Saves that leave a file as it was don't
+ * compile it again.
+ */
+public class WatchCheck
+{
+    private static final long TIMEOUT_MS = 10000;
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path sources = Check.directory(), output = Check.directory();
+        Path hello = Files.write(sources.resolve("HelloWorld.jmm"), Check.source("HelloWorld").getBytes());
+        PrintStream out = System.out;
+        ByteArrayOutputStream log = new ByteArrayOutputStream();
+        Thread watcher = new Thread(() ->
+        {
+            try
+            {
+                new Watcher(Check.options("--watch", sources.toString(), "-d", output.toString())).watch();
+            }
+            catch(Exception e)
+            {
+                e.printStackTrace();
+            }
+        });
+
+        //The watcher prints to the standard output it finds when each file is compiled
+        System.setOut(new PrintStream(log, true));
+        watcher.setDaemon(true);
+
+        try
+        {
+            watcher.start();
+            Check.isTrue(await(() -> log.toString().contains("Watching")), "sources compiled up front");
+            Check.equal(Check.expected("HelloWorld.j"), new String(Files.readAllBytes(output.resolve("HelloWorld.j"))),
+                "output compiled up front");
+
+            //A directory created with a source already in it
+            Path directory = Files.createTempDirectory(sources.getParent(), "sorting");
+            Path lazysort = sources.resolve("sorting").resolve("Lazysort.jmm");
+
+            Files.write(directory.resolve("Lazysort.jmm"), Check.source("Lazysort").getBytes());
+            Files.move(directory, lazysort.getParent());
+            Check.isTrue(await(() -> Files.exists(output.resolve("Lazysort.j"))), "source in a new directory compiled");
+
+            //The same contents written again, then a change that is waited for
+            Files.write(hello, Check.source("HelloWorld").getBytes());
+            Files.write(lazysort, Check.source("SyntaticError").getBytes());
+            Check.isTrue(await(() -> log.toString().contains("[FAILED]")), "changed source compiled again");
+            Check.equal(1, count(log.toString(), "--- " + hello + " ---"), "unchanged source compiled again");
+
+            Files.write(lazysort, Check.source("Lazysort").getBytes());
+            Check.isTrue(await(() -> count(log.toString(), "[OK] " + lazysort) == 2), "fixed source compiled again");
+        }
+        finally
+        {
+            System.setOut(out);
+        }
+    }
+
+    //Waits for the condition, giving up after a while
+    private static boolean await(BooleanSupplier condition) throws InterruptedException
+    {
+        long end = System.currentTimeMillis() + TIMEOUT_MS;
+
+        while(!condition.getAsBoolean())
+        {
+            if(System.currentTimeMillis() > end)
+                return false;
+
+            Thread.sleep(20);
+        }
+
+        return true;
+    }
+
+    private static int count(String text, String part)
+    {
+        int count = 0;
+
+        for(int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1))
+            count++;
+
+        return count;
+    }
+}
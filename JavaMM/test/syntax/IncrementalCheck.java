@@ -0,0 +1,120 @@
+package syntax;
+
+import java.io.StringReader;
+import java.util.Arrays;
+import java.util.Random;
+
+import compiler.Check;
+
+/**
+ * Incremental reparse: after random edits to a source, the kept tree is that of a full parse
+ * of the edited source whenever the reparse takes the edit, only the edited method is parsed
+ * again, the body of a method moved past an edit is only moved once it is walked, and an edit
+ * outside the methods is left to a full parse with the kept tree untouched.
+ */
+public class IncrementalCheck
+{
+    private static final int EDITS = 500;
+    private static final String[] INSERTS = {" ", "\n", "x = 1;\n", "int", "}", "{", "(", "/* c */", "x", "1 + 2"};
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: Check.SAMPLES)
+            edits(sample);
+
+        //An edit in the first method moves the last one, but not its body until it is walked
+        String source = Check.source("Lazysort");
+        IncrementalParser incremental = new IncrementalParser();
+        int first = source.indexOf("public"), inserted = "int added;\n".length();
+        int body = source.indexOf('{', first) + 1;
+        String edited = source.substring(0, body) + "int added;\n" + source.substring(body);
+
+        incremental.reset(source, parse(source, incremental.getNames()));
+
+        SimpleNode classNode = (SimpleNode) incremental.getRoot().jjtGetChild(0);
+        SimpleNode last = (SimpleNode) classNode.children[classNode.children.length - 1];
+        int lastBody = last.children[last.children.length - 1].getBeginOffset();
+
+        Check.isTrue(incremental.reparse(edited, Arrays.asList(new IncrementalParser.Edit(body, 0, inserted))) != null,
+            "edit in a method is reparsed");
+        Check.equal(1, incremental.getReparsed(), "only the edited method is parsed again");
+        Check.equal(lastBody, last.children[last.children.length - 1].getBeginOffset(), "body of a moved method left alone");
+        Check.equal(lastBody + inserted, last.jjtGetChild(last.children.length - 1).getBeginOffset(),
+            "body of a moved method moved once walked");
+        Check.equal(Trees.dump(parse(edited, incremental.getNames()), true), Trees.dump(incremental.getRoot(), true),
+            "tree after an edit in a method");
+
+        //A new field isn't in any method
+        String tree = Trees.dump(incremental.getRoot(), true);
+        int field = edited.indexOf('{') + 1;
+
+        Check.isTrue(incremental.reparse(edited.substring(0, field) + "int y;" + edited.substring(field)) == null,
+            "edit outside the methods needs a full parse");
+        Check.equal(tree, Trees.dump(incremental.getRoot(), true), "kept tree untouched by a full parse");
+    }
+
+    //Random edits, each reparsed and, when taken, compared with a full parse of the same source
+    private static void edits(String sample) throws Exception
+    {
+        String source = Check.source(sample);
+        IncrementalParser incremental = new IncrementalParser();
+        Random random = new Random(1);
+        String mismatch = null;
+        int taken = 0;
+
+        incremental.reset(source, parse(source, incremental.getNames()));
+
+        for(int i = 0; i < EDITS && mismatch == null; i++)
+        {
+            int at = random.nextInt(source.length());
+            int removed = random.nextInt(4) == 0 ? Math.min(random.nextInt(5), source.length() - at) : 0;
+            String insert = random.nextInt(3) == 0 ? "" : INSERTS[random.nextInt(INSERTS.length)];
+            String next = source.substring(0, at) + insert + source.substring(at + removed);
+            Node full = parse(next, incremental.getNames());
+            Node reparsed = incremental.reparse(next);
+
+            if(reparsed != null)
+            {
+                taken++;
+
+                if(full == null || !Trees.dump(full, true).equals(Trees.dump(reparsed, true)))
+                    mismatch = "edit " + i + " at " + at + ": '" + insert + "' for " + removed;
+
+                source = next;
+            }
+            else if(full != null)
+            {
+                incremental.reset(next, full);
+                source = next;
+            }
+        }
+
+        Check.equal(null, mismatch, "incremental trees of " + sample);
+        Check.isTrue(taken > 0, "incremental reparses of " + sample);
+    }
+
+    //Full parse of the source, or null if it has errors
+    private static Node parse(String source, NameTable names)
+    {
+        JavaMM parser = new JavaMM(new StringReader(source));
+
+        parser.token_source.names = names;
+
+        try
+        {
+            Node root = parser.Program();
+
+            return parser.recoveredErrors.isEmpty() ? root : null;
+        }
+        catch(ParseException | TokenMgrError e)
+        {
+            return null;
+        }
+    }
+}
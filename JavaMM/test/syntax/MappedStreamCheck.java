@@ -0,0 +1,127 @@
+package syntax;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import compiler.Check;
+
+/**
+ * Mapped character stream: the lexer reads the same tokens, at the same positions, from a
+ * mapping of a file as from a reader over it, whatever its line ends, also after a position
+ * adjustment and after a rewind. Files that aren't ASCII aren't mapped, and Done releases
+ * the mapping at once.
+ */
+public class MappedStreamCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path directory = Check.directory();
+        String lazysort = Check.source("Lazysort").replace("\r\n", "\n");
+
+        for(String sample: Check.SAMPLES)
+            same(Check.sourcePath(sample));
+
+        same(Files.write(directory.resolve("CarriageReturns.jmm"), lazysort.replace("\n", "\r").getBytes()));
+        same(Files.write(directory.resolve("LineFeeds.jmm"), lazysort.replace("\n", "\r\n").getBytes()));
+        same(Files.write(directory.resolve("Tabs.jmm"), lazysort.replace("    ", "\t").getBytes()));
+
+        //Tokens after an adjustment are moved as those of SimpleCharStream are
+        Path file = Check.sourcePath("Lazysort");
+
+        for(int at: new int[] {0, 3, 17, 100})
+        {
+            MappedCharStream original = MappedCharStream.open(file), adjusted = MappedCharStream.open(file);
+            JavaMMTokenManager expected = lexer(original), actual = lexer(adjusted);
+            int line = 0, column = 0, newLine = 40 + at, newColumn = 7;
+            boolean same = true;
+
+            for(int i = 0; ; i++)
+            {
+                Token token = expected.getNextToken(), moved = actual.getNextToken();
+
+                if(i > at)
+                {
+                    same &= moved.beginLine == token.beginLine + newLine - line && moved.endLine == token.endLine + newLine - line
+                        && moved.beginColumn == token.beginColumn + (token.beginLine == line ? newColumn - column : 0)
+                        && moved.endColumn == token.endColumn + (token.endLine == line ? newColumn - column : 0);
+                }
+
+                if(token.kind == JavaMMConstants.EOF)
+                    break;
+
+                if(i == at)
+                {
+                    line = token.beginLine;
+                    column = token.beginColumn;
+                    adjusted.adjustBeginLineColumn(newLine, newColumn);
+                    Check.equal(newLine + ":" + newColumn, adjusted.getBeginLine() + ":" + adjusted.getBeginColumn(),
+                        "adjusted position of token " + at);
+                }
+            }
+
+            Check.isTrue(same, "tokens moved after an adjustment at token " + at);
+
+            //A rewind drops the adjustment
+            Check.equal(tokens(lexer(original.rewind())), tokens(lexer(adjusted.rewind())), "tokens after a rewind");
+            original.Done();
+            adjusted.Done();
+        }
+
+        Check.isTrue(MappedCharStream.open(Files.write(directory.resolve("Accents.jmm"), "class Ol\u00e1 {}"
+            .getBytes("UTF-8"))) == null, "file that isn't ASCII not mapped");
+
+        //Linux lists the mappings of a process in /proc/self/maps
+        Path maps = Paths.get("/proc/self/maps");
+        Path mapped = Files.write(directory.resolve("Unmapped.jmm"), lazysort.getBytes());
+        MappedCharStream stream = MappedCharStream.open(mapped);
+
+        if(Files.exists(maps))
+        {
+            Check.isTrue(new String(Files.readAllBytes(maps)).contains(mapped.toString()), "file mapped when opened");
+            stream.Done();
+            Check.isTrue(!new String(Files.readAllBytes(maps)).contains(mapped.toString()), "file unmapped when done");
+        }
+    }
+
+    //Compares the tokens of the file read through a mapping and through a reader
+    private static void same(Path file) throws Exception
+    {
+        MappedCharStream stream = MappedCharStream.open(file);
+        String text = new String(Files.readAllBytes(file));
+
+        Check.equal(tokens(lexer(new SimpleCharStream(new StringReader(text), 1, 1, 4096))), tokens(lexer(stream)),
+            "tokens of " + file.getFileName());
+        stream.Done();
+    }
+
+    private static JavaMMTokenManager lexer(SimpleCharStream stream)
+    {
+        JavaMMTokenManager lexer = new JavaMMTokenManager(stream);
+
+        lexer.names = new NameTable();
+
+        return lexer;
+    }
+
+    private static String tokens(JavaMMTokenManager lexer)
+    {
+        StringBuilder tokens = new StringBuilder();
+
+        for(Token token = lexer.getNextToken(); ; token = lexer.getNextToken())
+        {
+            tokens.append(token.kind).append(' ').append(token.image).append(' ').append(token.beginLine).append(':')
+                .append(token.beginColumn).append('-').append(token.endLine).append(':').append(token.endColumn).append('\n');
+
+            if(token.kind == JavaMMConstants.EOF)
+                return tokens.toString();
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package syntax;
+
+import java.io.StringReader;
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import compiler.Check;
+
+/**
+ * Typed nodes: the parser builds each node as the class named after its kind, and a visitor
+ * gets each node through the visit method of that class.
+ */
+public class NodeClassCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: Check.SAMPLES)
+        {
+            JavaMM parser = new JavaMM(new StringReader(Check.source(sample)));
+            List<Node> nodes = new ArrayList<Node>();
+
+            parser.token_source.names = new NameTable();
+
+            Node root = parser.Program();
+
+            collect(root, nodes);
+
+            boolean typed = true;
+
+            for(Node node: nodes)
+                typed &= node.getClass().getSimpleName().equals("AST" + JavaMMTreeConstants.jjtNodeName[node.getId()]);
+
+            Check.isTrue(typed, "node classes of " + sample);
+
+            //Every visit method records the class it was declared for, and goes on to the children
+            List<Node> visited = new ArrayList<Node>();
+            List<String> dispatched = new ArrayList<String>();
+            JavaMMVisitor[] visitor = new JavaMMVisitor[1];
+
+            visitor[0] = (JavaMMVisitor) Proxy.newProxyInstance(JavaMMVisitor.class.getClassLoader(),
+                new Class<?>[] {JavaMMVisitor.class}, (proxy, method, arguments) ->
+                {
+                    visited.add((Node) arguments[0]);
+                    dispatched.add(method.getParameterTypes()[0].getSimpleName());
+
+                    return ((SimpleNode) arguments[0]).childrenAccept(visitor[0], arguments[1]);
+                });
+
+            root.jjtAccept(visitor[0], null);
+
+            List<String> classes = new ArrayList<String>();
+
+            for(Node node: nodes)
+                classes.add(node.getClass().getSimpleName());
+
+            Check.equal(nodes, visited, "nodes visited in " + sample);
+            Check.equal(classes, dispatched, "visit methods called for " + sample);
+        }
+    }
+
+    private static void collect(Node node, List<Node> nodes)
+    {
+        nodes.add(node);
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            collect(node.jjtGetChild(i), nodes);
+    }
+}
@@ -0,0 +1,128 @@
+package syntax;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import compiler.Check;
+
+/**
+ * Pooled parsers: a parser reused from the pool, on one thread or many, builds the same tree
+ * as a new one, keeps nothing of its last parse once released, and starts every parse with
+ * the default error limit and no errors.
+ */
+public class ParserPoolCheck
+{
+    private static final int THREADS = 8;
+
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(int round = 0; round < 2; round++)
+        {
+            for(String sample: Check.SAMPLES)
+                Check.equal(fresh(Check.source(sample)), pooled(Check.source(sample)), "pooled parse of " + sample);
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        List<Future<String>> trees = new ArrayList<Future<String>>();
+
+        try
+        {
+            for(int i = 0; i < THREADS * 4; i++)
+            {
+                String sample = Check.SAMPLES[i % Check.SAMPLES.length];
+
+                trees.add(executor.submit(() -> pooled(Check.source(sample))));
+            }
+
+            for(int i = 0; i < trees.size(); i++)
+            {
+                String sample = Check.SAMPLES[i % Check.SAMPLES.length];
+
+                Check.equal(fresh(Check.source(sample)), trees.get(i).get(), "concurrent pooled parse of " + sample);
+            }
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        //A parse that stops at the error limit leaves nothing behind once released
+        JavaMM parser = ParserPool.acquire(new StringReader(Check.source("SyntaticError")));
+
+        parser.token_source.names = new NameTable();
+        parser.errorLimit = 1;
+
+        try
+        {
+            parser.Program();
+            Check.fail("parse stops at the error limit");
+        }
+        catch(ParseException e)
+        {
+            Check.isTrue(parser.errorLimitReached, "parse reports the error limit reached");
+        }
+
+        ParserPool.release(parser);
+
+        Check.isTrue(parser.jjtree.rootNode() == null, "released parser drops its tree");
+        Check.isTrue(parser.token == null && parser.jj_nt == null, "released parser drops its tokens");
+        Check.isTrue(parser.token_source.names == null, "released parser drops its names");
+        Check.isTrue(parser.recoveredErrors.isEmpty(), "released parser drops its errors");
+
+        //Even a limit set on a parser after it was released is gone once it is acquired again
+        parser.errorLimit = 1;
+        parser.errorLimitReached = true;
+
+        List<JavaMM> acquired = new ArrayList<JavaMM>();
+        JavaMM again;
+
+        do
+        {
+            again = ParserPool.acquire(new StringReader(Check.source("HelloWorld")));
+            acquired.add(again);
+        }
+        while(again != parser && acquired.size() < 1000);
+
+        Check.isTrue(again == parser, "released parser is reused");
+        Check.equal(JavaMM.DEFAULT_ERROR_LIMIT, again.errorLimit, "error limit of a reused parser");
+        Check.isTrue(!again.errorLimitReached, "reused parser starts below the error limit");
+
+        for(JavaMM idle: acquired)
+            ParserPool.release(idle);
+    }
+
+    private static String fresh(String source) throws ParseException
+    {
+        JavaMM parser = new JavaMM(new StringReader(source));
+
+        parser.token_source.names = new NameTable();
+
+        return Trees.dump(parser.Program(), true);
+    }
+
+    private static String pooled(String source) throws ParseException
+    {
+        JavaMM parser = ParserPool.acquire(new StringReader(source));
+
+        parser.token_source.names = new NameTable();
+
+        try
+        {
+            return Trees.dump(parser.Program(), true);
+        }
+        finally
+        {
+            ParserPool.release(parser);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package syntax;
+
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import compiler.Check;
+
+/**
+ * Source spans: in object and flat trees, read from a reader or from a mapped file, every
+ * node spans text of the source within the span of its parent, a name or literal spans
+ * exactly its text, a method runs from its return type to its closing brace and a variable
+ * to its semicolon.
+ */
+public class SpanCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        Path generated = Check.directory().resolve("Generated.jmm");
+
+        Files.write(generated, Check.expected("Generated.jmm").getBytes());
+
+        for(String sample: Check.SAMPLES)
+            check(Check.sourcePath(sample));
+
+        check(generated);
+    }
+
+    private static void check(Path file) throws Exception
+    {
+        String source = new String(Files.readAllBytes(file));
+        String name = file.getFileName().toString();
+        JavaMM parser = new JavaMM(new StringReader(source));
+        MappedCharStream stream = MappedCharStream.open(file);
+
+        parser.token_source.names = new NameTable();
+        Check.equal("", spans(parser.Program(), source), "spans of " + name);
+
+        parser = new JavaMM(new StringReader(source));
+        parser.token_source.names = new NameTable();
+        Check.equal("", spans(parser.ProgramFlat().getRoot(), source), "spans of the flat tree of " + name);
+
+        parser = new JavaMM(new JavaMMTokenManager(stream));
+        parser.token_source.names = new NameTable();
+        Check.equal("", spans(parser.Program(), source), "spans of " + name + " read from a mapping");
+        stream.Done();
+    }
+
+    //The nodes whose spans are wrong, each with its text
+    private static String spans(Node node, String source)
+    {
+        StringBuilder wrong = new StringBuilder();
+        int begin = node.getBeginOffset(), end = node.getEndOffset();
+        Node parent = node.jjtGetParent();
+        String text = begin >= 0 && begin <= end && end < source.length() ? source.substring(begin, end + 1) : null;
+
+        if(text == null || parent != null && (begin < parent.getBeginOffset() || end > parent.getEndOffset()))
+            wrong.append(node).append(' ').append(begin).append('-').append(end).append('\n');
+        else if(node.getId() == JavaMMTreeConstants.JJTTERM && node.jjtGetNumChildren() == 0 && node.getName() != null
+            && !text.equals(node.getName()))
+            wrong.append(node).append(' ').append(text).append('\n');
+        else if(node.getId() == JavaMMTreeConstants.JJTMETHOD && !(text.startsWith(node.getReturnType())
+            && text.endsWith("}")))
+            wrong.append(node).append(' ').append(text).append('\n');
+        else if(node.getId() == JavaMMTreeConstants.JJTVAR && !text.endsWith(";"))
+            wrong.append(node).append(' ').append(text).append('\n');
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            wrong.append(spans(node.jjtGetChild(i), source));
+
+        return wrong.toString();
+    }
+}
@@ -0,0 +1,65 @@
+package syntax;
+
+import java.io.StringReader;
+
+import compiler.Check;
+
+/**
+ * Tree construction: the parser builds for each sample the tree the original parser built,
+ * kept in test/data, with every node linked to its parent, also for nesting deep enough to
+ * grow the node stack many times over.
+ */
+public class TreeShapeCheck
+{
+    public static void main(String[] args) throws Exception
+    {
+        run();
+        Check.exit();
+    }
+
+    public static void run() throws Exception
+    {
+        for(String sample: Check.SAMPLES)
+        {
+            Check.equal(Check.expected(sample + ".tree"), Trees.dump(parse(Check.source(sample)), false, false),
+                "tree of " + sample);
+        }
+
+        //A sum of 300 terms, nested to the right, and a block of 2000 statements
+        StringBuilder sum = new StringBuilder("x = 1"), statements = new StringBuilder();
+
+        for(int i = 0; i < 300; i++)
+            sum.append(" + (").append(i);
+
+        for(int i = 0; i < 2000; i++)
+            statements.append("x = ").append(i).append(';');
+
+        sum.append(")".repeat(300)).append(';');
+
+        String tree = Trees.dump(parse("class Deep { public static void main(String[] a) { int x; " + sum + statements
+            + " } }"), false, false);
+
+        Check.isTrue(!tree.contains("!parent"), "parents of a deep tree");
+        Check.equal(300, count(tree, "ENCLOSED_EXPR("), "nested expressions of a deep tree");
+        Check.equal(2001, count(tree, "EQUALS("), "statements of a deep tree");
+    }
+
+    private static Node parse(String source) throws ParseException
+    {
+        JavaMM parser = new JavaMM(new StringReader(source));
+
+        parser.token_source.names = new NameTable();
+
+        return parser.Program();
+    }
+
+    private static int count(String text, String part)
+    {
+        int count = 0;
+
+        for(int i = text.indexOf(part); i >= 0; i = text.indexOf(part, i + 1))
+            count++;
+
+        return count;
+    }
+}
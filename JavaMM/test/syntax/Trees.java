@@ -0,0 +1,49 @@
+package syntax;
+
+import java.util.Objects;
+
+/**
+ * Text of a syntax tree for the checks to compare trees with: each node's kind, name, types
+ * and name id, with its offsets if asked for, followed by its children in brackets. A node
+ * whose parent isn't the node above it is marked. Parents are compared with equals, as the
+ * views of a flat tree are made anew each time.
+ */
+public class Trees
+{
+    public static String dump(Node node, boolean offsets)
+    {
+        return dump(node, offsets, true);
+    }
+
+    //Without the name ids, for trees that number the names of keywords such as main too
+    public static String dump(Node node, boolean offsets, boolean ids)
+    {
+        StringBuilder text = new StringBuilder();
+
+        dump(node, null, offsets, ids, text);
+
+        return text.toString();
+    }
+
+    private static void dump(Node node, Node parent, boolean offsets, boolean ids, StringBuilder text)
+    {
+        if(!Objects.equals(node.jjtGetParent(), parent))
+            text.append("!parent ");
+
+        text.append(node).append('(').append(node.getName()).append(',').append(node.getType()).append(',')
+            .append(node.getReturnType());
+
+        if(ids)
+            text.append(',').append(node.getNameId());
+
+        if(offsets)
+            text.append(',').append(node.getBeginOffset()).append('-').append(node.getEndOffset());
+
+        text.append(")[");
+
+        for(int i = 0; i < node.jjtGetNumChildren(); i++)
+            dump(node.jjtGetChild(i), node, offsets, ids, text);
+
+        text.append(']');
+    }
+}